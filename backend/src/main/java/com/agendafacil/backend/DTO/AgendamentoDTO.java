@@ -0,0 +1,17 @@
+package com.agendafacil.backend.DTO;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class AgendamentoDTO {
+    // vem da criação do agendamento
+    private Long id;
+    private LocalDateTime fim;
+
+    // vem da entrada do usuario
+    private Long servicoId;
+    private Long userId;
+    private LocalDateTime inicio;
+}
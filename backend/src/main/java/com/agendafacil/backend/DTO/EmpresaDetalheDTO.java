@@ -0,0 +1,20 @@
+package com.agendafacil.backend.DTO;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Página da empresa: dados públicos da empresa + serviços com as reservas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpresaDetalheDTO {
+
+    @JsonUnwrapped
+    private EmpresaResumoDTO empresa;
+    private List<ServicoDetalheDTO> servicos;
+}
@@ -0,0 +1,26 @@
+package com.agendafacil.backend.DTO;
+
+import com.agendafacil.backend.model.Empresa;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Visão de leitura da empresa: sem senha e sem a coleção de serviços
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmpresaResumoDTO {
+
+    private Long id;
+    private String nome;
+    private String razao_social;
+    private String cnpj;
+    private String email;
+    private String telefone;
+
+    public static EmpresaResumoDTO de(Empresa empresa){
+        return new EmpresaResumoDTO(empresa.getId(), empresa.getNome(), empresa.getRazao_social(),
+            empresa.getCnpj(), empresa.getEmail(), empresa.getTelefone());
+    }
+}
@@ -0,0 +1,22 @@
+package com.agendafacil.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Mudança num serviço, como sai no stream: o tipo vira o nome do evento SSE.
+// servico traz o estado novo; é null quando o serviço foi removido.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoServicoDTO {
+    public static final String CRIADO = "criado";
+    public static final String AGENDADO = "agendado";
+    public static final String REMOVIDO = "removido";
+    public static final String ALTERADO = "alterado";
+
+    private String tipo;
+    private Long servicoId;
+    private Long empresaId;
+    private ServicoResumoDTO servico;
+}
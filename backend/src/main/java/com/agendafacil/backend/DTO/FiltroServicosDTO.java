@@ -0,0 +1,21 @@
+package com.agendafacil.backend.DTO;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+// Parâmetros de GET /servicos/filtro; os filtros nulos não restringem nada
+@Data
+public class FiltroServicosDTO {
+
+    private String categoria;
+    private Long empresaId;
+    private BigDecimal precoMin;
+    private BigDecimal precoMax;
+    private Integer duracaoMax;
+    // preco, -preco, duracao ou -duracao
+    private String ordem = "preco";
+    // "proximo" da página anterior
+    private String after;
+    private int limit = 50;
+}
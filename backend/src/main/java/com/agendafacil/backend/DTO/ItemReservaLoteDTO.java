@@ -0,0 +1,20 @@
+package com.agendafacil.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Situação de um serviço do lote de reservas. Quando o lote não passa, os serviços que
+// poderiam ser reservados voltam como "livre" e continuam livres
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemReservaLoteDTO {
+    public static final String RESERVADO = "reservado";
+    public static final String LIVRE = "livre";
+    public static final String INDISPONIVEL = "indisponivel";
+    public static final String NAO_ENCONTRADO = "nao_encontrado";
+
+    private Long servicoId;
+    private String situacao;
+}
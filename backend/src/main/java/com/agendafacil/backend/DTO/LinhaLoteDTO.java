@@ -0,0 +1,17 @@
+package com.agendafacil.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de uma linha do lote: "linha" começa em 1 (no CSV, sem contar o cabeçalho);
+// "id" vem preenchido quando a linha foi gravada e "erro" quando foi recusada
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinhaLoteDTO {
+
+    private int linha;
+    private Long id;
+    private String erro;
+}
@@ -0,0 +1,15 @@
+package com.agendafacil.backend.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Como PaginaDTO, mas com um cursor opaco em texto, para listagens que não andam só pelo id
+@Data
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> itens;
+    private String proximo;
+}
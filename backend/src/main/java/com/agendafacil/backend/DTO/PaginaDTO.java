@@ -0,0 +1,16 @@
+package com.agendafacil.backend.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página de uma listagem por cursor: "proximo" é o valor de "after" da próxima
+// chamada, ou null quando não há mais itens
+@Data
+@AllArgsConstructor
+public class PaginaDTO<T> {
+
+    private List<T> itens;
+    private Long proximo;
+}
@@ -0,0 +1,29 @@
+package com.agendafacil.backend.DTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Painel da empresa: totais gerais, por categoria e, no período de..ate, por dia e categoria.
+// receita é a soma dos preços dos serviços reservados; minutos, a soma das durações
+@Data
+@AllArgsConstructor
+public class PainelEmpresaDTO {
+
+    public record Categoria(String categoria, long servicos, long reservas, BigDecimal receita, long minutos) {}
+
+    public record Dia(LocalDate dia, String categoria, long reservas, BigDecimal receita, long minutos) {}
+
+    private Long empresaId;
+    private LocalDate de;
+    private LocalDate ate;
+    private long servicos;
+    private long reservas;
+    private BigDecimal receita;
+    private long minutos;
+    private List<Categoria> categorias;
+    private List<Dia> dias;
+}
@@ -0,0 +1,8 @@
+package com.agendafacil.backend.DTO;
+
+import lombok.Data;
+
+@Data
+public class RenovacaoDTO {
+    private String refreshToken;
+}
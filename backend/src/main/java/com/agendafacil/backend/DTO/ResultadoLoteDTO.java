@@ -0,0 +1,23 @@
+package com.agendafacil.backend.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+    private int total;
+    private int inseridos;
+    private int recusados;
+    private List<LinhaLoteDTO> linhas;
+
+    public static ResultadoLoteDTO de(List<LinhaLoteDTO> linhas){
+        int inseridos = (int) linhas.stream().filter(linha -> linha.getErro() == null).count();
+        return new ResultadoLoteDTO(linhas.size(), inseridos, linhas.size() - inseridos, linhas);
+    }
+}
@@ -0,0 +1,17 @@
+package com.agendafacil.backend.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Tudo ou nada: "reservado" diz se o lote inteiro foi reservado; os itens vêm na ordem do pedido
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoReservaLoteDTO {
+
+    private boolean reservado;
+    private List<ItemReservaLoteDTO> itens;
+}
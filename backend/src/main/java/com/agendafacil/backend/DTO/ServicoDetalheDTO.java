@@ -0,0 +1,34 @@
+package com.agendafacil.backend.DTO;
+
+import java.math.BigDecimal;
+
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Serviço com os dados da reserva (só id e nome de quem agendou, nunca a senha)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServicoDetalheDTO {
+
+    private Long id;
+    private String nome;
+    private String categoria;
+    private String descricao;
+    private int duracao_minutos;
+    private BigDecimal preco;
+    private boolean agendado;
+    private Long usuarioAgendadoId;
+    private String usuarioAgendadoNome;
+
+    public static ServicoDetalheDTO de(Servico servico){
+        User usuario = servico.getUsuarioAgendado();
+        return new ServicoDetalheDTO(servico.getId(), servico.getNome(), servico.getCategoria(), servico.getDescricao(),
+            servico.getDuracao_minutos(), servico.getPreco(), servico.isAgendado(),
+            usuario == null ? null : usuario.getId(), usuario == null ? null : usuario.getNome_completo());
+    }
+}
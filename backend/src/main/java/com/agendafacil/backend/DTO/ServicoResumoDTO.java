@@ -0,0 +1,23 @@
+package com.agendafacil.backend.DTO;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Visão de leitura do serviço: usada nas listagens, sem carregar entidades
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServicoResumoDTO {
+
+    private Long id;
+    private String nome;
+    private String categoria;
+    private String descricao;
+    private int duracao_minutos;
+    private BigDecimal preco;
+    private boolean agendado;
+    private Long empresaId;
+}
@@ -0,0 +1,20 @@
+package com.agendafacil.backend.DTO;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resposta do login: os dados públicos da conta, o papel e os tokens, tudo no mesmo nível
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessaoDTO<T> {
+
+    @JsonUnwrapped
+    private T conta;
+    private String papel;
+    @JsonUnwrapped
+    private TokensDTO tokens;
+}
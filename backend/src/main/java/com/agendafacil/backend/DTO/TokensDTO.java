@@ -0,0 +1,16 @@
+package com.agendafacil.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Par de tokens da sessão; expiraEm é o fim da validade do token de acesso (epoch em segundos)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokensDTO {
+
+    private String token;
+    private String refreshToken;
+    private long expiraEm;
+}
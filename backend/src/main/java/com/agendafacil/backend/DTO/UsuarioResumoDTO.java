@@ -0,0 +1,23 @@
+package com.agendafacil.backend.DTO;
+
+import com.agendafacil.backend.model.User;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Visão pública do usuário: sem a senha
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioResumoDTO {
+
+    private Long id;
+    private String nome_completo;
+    private String email;
+    private String telefone;
+
+    public static UsuarioResumoDTO de(User user){
+        return new UsuarioResumoDTO(user.getId(), user.getNome_completo(), user.getEmail(), user.getTelefone());
+    }
+}
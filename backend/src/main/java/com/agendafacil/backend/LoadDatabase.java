@@ -2,6 +2,7 @@ package com.agendafacil.backend;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,15 +10,24 @@ import org.springframework.context.annotation.Configuration;
 import com.agendafacil.backend.repository.UserRepository;
 import com.agendafacil.backend.model.User;
 import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.service.ConsistenciaLeitura;
 import com.agendafacil.backend.model.Empresa;;
 
 @Configuration
 public class LoadDatabase {
     private static final Logger log = LoggerFactory.getLogger(LoadDatabase.class);
 
+    // Contas de demonstração (desenvolvimento, CI e Cypress). O perfil rapido desliga com
+    // banco.seed.enabled=false para não consultar o banco a cada subida; a flag é lida em
+    // tempo de execução, então vale também no build com AOT
     @Bean
-    CommandLineRunner initDatabase(UserRepository userRepository,EmpresaRepository empresaRepository) {
-    return args -> {
+    CommandLineRunner initDatabase(UserRepository userRepository,EmpresaRepository empresaRepository,
+            @Value("${banco.seed.enabled:true}") boolean habilitado) {
+    if (!habilitado) {
+        return args -> {};
+    }
+    // Confere e grava no primário: uma réplica atrasada faria o seed duplicar a conta
+    return args -> ConsistenciaLeitura.noPrimario(() -> {
         userRepository.findByEmail("marcelo123@email.com")
             .orElseGet(() -> {
                 User u = new User("Marcelo Lima", "marcelo123@email.com","123456789", "senha123");
@@ -29,6 +39,7 @@ public class LoadDatabase {
                 Empresa e = new Empresa("TesteLTDA", "Teste da Silva LTDA", "123456789000", "teste@ltda.com", "3540028922", "senha123");
                 return empresaRepository.save(e);
             });
-    };
+        return null;
+    });
 }
 }
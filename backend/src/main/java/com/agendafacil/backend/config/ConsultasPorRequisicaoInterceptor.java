@@ -0,0 +1,44 @@
+package com.agendafacil.backend.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+// Publica quantos comandos SQL cada rota executou (inclui a serialização da resposta)
+@Component
+@RequiredArgsConstructor
+public class ConsultasPorRequisicaoInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry registry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorConsultas.iniciar();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorConsultas.encerrar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int consultas = ContadorConsultas.encerrar();
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder("http.server.requests.queries")
+            .description("Comandos SQL por requisição")
+            .tag("method", request.getMethod())
+            .tag("uri", rota != null ? rota.toString() : "UNKNOWN")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(registry)
+            .record(consultas);
+    }
+}
@@ -0,0 +1,28 @@
+package com.agendafacil.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Conta os comandos SQL que o Hibernate prepara na thread da requisição atual
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] contador = CONTADOR.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+        return sql;
+    }
+
+    public static void iniciar() {
+        CONTADOR.set(new int[1]);
+    }
+
+    public static int encerrar() {
+        int[] contador = CONTADOR.get();
+        CONTADOR.remove();
+        return contador == null ? 0 : contador[0];
+    }
+}
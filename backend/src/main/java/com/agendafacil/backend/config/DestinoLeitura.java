@@ -0,0 +1,50 @@
+package com.agendafacil.backend.config;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.agendafacil.backend.service.ConsistenciaLeitura;
+
+// Escolhe o banco das conexões somente leitura: a réplica, a não ser que ela esteja
+// desligada, atrasada ou que a thread precise do primário (ver ConsistenciaLeitura)
+public class DestinoLeitura extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIO, REPLICA }
+
+    private final ReplicaLeitura replica;
+    private final ConsistenciaLeitura consistencia;
+    private final LongAdder naReplica = new LongAdder();
+    private final LongAdder noPrimario = new LongAdder();
+
+    public DestinoLeitura(DataSource primario, ReplicaLeitura replica, ConsistenciaLeitura consistencia) {
+        this.replica = replica;
+        this.consistencia = consistencia;
+        setTargetDataSources(replica.ligada()
+            ? Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica.dataSource())
+            : Map.of(Destino.PRIMARIO, primario));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!replica.ligada() || !replica.monitor().emDia() || consistencia.exigePrimario()) {
+            noPrimario.increment();
+            return Destino.PRIMARIO;
+        }
+        naReplica.increment();
+        return Destino.REPLICA;
+    }
+
+    public long leiturasNaReplica() {
+        return naReplica.sum();
+    }
+
+    public long leiturasNoPrimario() {
+        return noPrimario.sum();
+    }
+}
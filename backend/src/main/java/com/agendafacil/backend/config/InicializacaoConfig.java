@@ -0,0 +1,28 @@
+package com.agendafacil.backend.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.agendafacil.backend.service.DespachanteEventos;
+import com.agendafacil.backend.service.ReconciliacaoPainel;
+import com.agendafacil.backend.service.TokenService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Com spring.main.lazy-initialization=true (perfil rapido) quase tudo nasce no primeiro uso.
+// A EntityManagerFactory fica de fora: com ela sobem o pool, o Flyway e a validação do
+// esquema, então banco fora do ar ou migration faltando derrubam a subida (e não a primeira
+// requisição), e a primeira requisição não paga o boot do Hibernate. O DespachanteEventos
+// também: o outbox que ficou da execução anterior sai sem esperar a primeira escrita.
+// A ReconciliacaoPainel idem, senão o agendamento dela esperaria alguém injetá-la. E o
+// TokenService, para um AUTH_TOKEN_SEGREDO faltando ou curto barrar a subida
+@Configuration
+public class InicializacaoConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter inicializacaoImediata() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class, DespachanteEventos.class,
+            ReconciliacaoPainel.class, TokenService.class);
+    }
+}
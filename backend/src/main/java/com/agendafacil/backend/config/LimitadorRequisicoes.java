@@ -0,0 +1,144 @@
+package com.agendafacil.backend.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Controle de admissão da API, por grupo de rotas:
+// - taxa por cliente (usuário/empresa do token ou IP): balde de fichas com limite.<grupo>.taxa
+//   fichas por segundo e limite.<grupo>.rajada de capacidade. Cada balde é um AtomicLong só
+//   (GCRA: guarda o instante em que o balde volta a ficar cheio) e consumir é um CAS, sem lock;
+// - concorrência global: no máximo limite.<grupo>.concorrentes requisições do grupo em
+//   andamento, para um grupo sozinho não tomar o pool JDBC ou a cota da BrasilAPI.
+// Os baldes ficam num cache Caffeine limitado (limite.clientes.max) e somem depois de
+// limite.clientes.ocioso sem uso; balde expulso volta cheio, o que só favorece o cliente.
+@Component
+public class LimitadorRequisicoes {
+
+    public enum Grupo {
+        // Consulta de CNPJ: cada falta no cache é uma chamada à BrasilAPI
+        CNPJ("cnpj", 1, 5, 20),
+        // Login, cadastro de conta e renovação de token
+        CONTA("conta", 1, 10, 30),
+        RESERVA("reserva", 5, 20, 30),
+        ESCRITA("escrita", 10, 50, 30),
+        LEITURA("leitura", 50, 200, 200),
+        // Abertura de conexões SSE; as conexões abertas são limitadas pela CentralEventosServicos
+        STREAM("stream", 1, 10, 0);
+
+        private final String chave;
+        private final double taxaPadrao;
+        private final int rajadaPadrao;
+        private final int concorrentesPadrao;
+
+        Grupo(String chave, double taxaPadrao, int rajadaPadrao, int concorrentesPadrao) {
+            this.chave = chave;
+            this.taxaPadrao = taxaPadrao;
+            this.rajadaPadrao = rajadaPadrao;
+            this.concorrentesPadrao = concorrentesPadrao;
+        }
+
+        public String chave() {
+            return chave;
+        }
+    }
+
+    // intervaloNanos entre fichas; toleranciaNanos = rajada * intervalo; vagas null = sem limite
+    private record Regra(long intervaloNanos, long toleranciaNanos, Semaphore vagas) {}
+
+    private record Cliente(Grupo grupo, String id) {}
+
+    private final boolean habilitado;
+    private final Map<Grupo, Regra> regras = new EnumMap<>(Grupo.class);
+    private final Cache<Cliente, AtomicLong> baldes;
+    private final Map<Grupo, LongAdder> recusadasTaxa = new EnumMap<>(Grupo.class);
+    private final Map<Grupo, LongAdder> recusadasConcorrencia = new EnumMap<>(Grupo.class);
+
+    public LimitadorRequisicoes(Environment environment,
+            @Value("${limite.habilitado:true}") boolean habilitado,
+            @Value("${limite.clientes.max:100000}") long maxClientes,
+            @Value("${limite.clientes.ocioso:10m}") Duration ocioso) {
+        this.habilitado = habilitado;
+        for (Grupo grupo : Grupo.values()) {
+            String prefixo = "limite." + grupo.chave + ".";
+            double taxa = environment.getProperty(prefixo + "taxa", Double.class, grupo.taxaPadrao);
+            int rajada = environment.getProperty(prefixo + "rajada", Integer.class, grupo.rajadaPadrao);
+            int concorrentes = environment.getProperty(prefixo + "concorrentes", Integer.class, grupo.concorrentesPadrao);
+            long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+            regras.put(grupo, new Regra(intervalo, intervalo * rajada, concorrentes > 0 ? new Semaphore(concorrentes) : null));
+            recusadasTaxa.put(grupo, new LongAdder());
+            recusadasConcorrencia.put(grupo, new LongAdder());
+        }
+        this.baldes = Caffeine.newBuilder()
+            .expireAfterAccess(ocioso)
+            .maximumSize(maxClientes)
+            .build();
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    // 0 se o cliente tem ficha; senão, quantos nanos faltam para a próxima
+    public long consumir(Grupo grupo, String cliente) {
+        Regra regra = regras.get(grupo);
+        AtomicLong balde = baldes.get(new Cliente(grupo, cliente), chave -> new AtomicLong(Long.MIN_VALUE));
+        long espera = consumir(balde, System.nanoTime(), regra.intervaloNanos(), regra.toleranciaNanos());
+        if (espera > 0) {
+            recusadasTaxa.get(grupo).increment();
+        }
+        return espera;
+    }
+
+    // GCRA: cheio = cheioEm no passado. Cada ficha empurra cheioEm um intervalo para frente;
+    // passa enquanto cheioEm não ficar mais de uma rajada à frente de agora
+    static long consumir(AtomicLong cheioEm, long agora, long intervalo, long tolerancia) {
+        while (true) {
+            long atual = cheioEm.get();
+            long novo = Math.max(atual, agora) + intervalo;
+            long espera = novo - agora - tolerancia;
+            if (espera > 0) {
+                return espera;
+            }
+            if (cheioEm.compareAndSet(atual, novo)) {
+                return 0;
+            }
+        }
+    }
+
+    // Vaga na concorrência do grupo, sem esperar; quem entrou chama sair no fim da requisição
+    public boolean entrar(Grupo grupo) {
+        Semaphore vagas = regras.get(grupo).vagas();
+        if (vagas == null || vagas.tryAcquire()) {
+            return true;
+        }
+        recusadasConcorrencia.get(grupo).increment();
+        return false;
+    }
+
+    public void sair(Grupo grupo) {
+        Semaphore vagas = regras.get(grupo).vagas();
+        if (vagas != null) {
+            vagas.release();
+        }
+    }
+
+    public Estatisticas estatisticas(Grupo grupo) {
+        Semaphore vagas = regras.get(grupo).vagas();
+        return new Estatisticas(recusadasTaxa.get(grupo).sum(), recusadasConcorrencia.get(grupo).sum(),
+            vagas == null ? 0 : vagas.availablePermits(), baldes.estimatedSize());
+    }
+
+    public record Estatisticas(long recusadasTaxa, long recusadasConcorrencia, int vagasLivres, long clientes) {}
+}
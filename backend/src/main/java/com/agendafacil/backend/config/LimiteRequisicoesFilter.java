@@ -0,0 +1,100 @@
+package com.agendafacil.backend.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.agendafacil.backend.config.LimitadorRequisicoes.Grupo;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Aplica o LimitadorRequisicoes antes dos controllers (depois do token, para contar por
+// usuário/empresa quem está logado e por IP quem não está). Passou da taxa do cliente:
+// 429 com Retry-After. Grupo sem vaga na concorrência global: 503 com Retry-After, porque
+// aí a culpa não é do cliente. /actuator fica de fora para o monitoramento não ser barrado.
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    private final LimitadorRequisicoes limitador;
+
+    public LimiteRequisicoesFilter(LimitadorRequisicoes limitador) {
+        this.limitador = limitador;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limitador.habilitado() || caminho(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request.getMethod(), caminho(request));
+        long espera = limitador.consumir(grupo, cliente(request));
+        if (espera > 0) {
+            recusar(response, HttpStatus.TOO_MANY_REQUESTS, espera, "Muitas requisições, tente novamente em instantes");
+            return;
+        }
+        if (!limitador.entrar(grupo)) {
+            recusar(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), "Servidor ocupado, tente novamente em instantes");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limitador.sair(grupo);
+        }
+    }
+
+    static Grupo grupo(String metodo, String caminho) {
+        boolean leitura = HttpMethod.GET.matches(metodo) || HttpMethod.HEAD.matches(metodo);
+        if (leitura && caminho.startsWith("/empresas/cnpj/")) {
+            return Grupo.CNPJ;
+        }
+        if (leitura && caminho.equals("/servicos/stream")) {
+            return Grupo.STREAM;
+        }
+        if (leitura) {
+            return Grupo.LEITURA;
+        }
+        if (HttpMethod.POST.matches(metodo) && (caminho.equals("/login") || caminho.equals("/register")
+                || caminho.equals("/empresas/login") || caminho.equals("/empresas/cadastrar") || caminho.equals("/auth/refresh"))) {
+            return Grupo.CONTA;
+        }
+        if (HttpMethod.POST.matches(metodo)
+                && (caminho.equals("/agendamentos") || caminho.equals("/servicos/reservar-lote")
+                    || (caminho.startsWith("/servicos/") && caminho.endsWith("/reservar")))) {
+            return Grupo.RESERVA;
+        }
+        return Grupo.ESCRITA;
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // IP vem do Tomcat já com X-Forwarded-For resolvido (server.forward-headers-strategy)
+    private static String cliente(HttpServletRequest request) {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof Autenticado autenticado) {
+            return autenticado.papel().name() + ":" + autenticado.id();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static void recusar(HttpServletResponse response, HttpStatus status, long esperaNanos, String mensagem)
+            throws IOException {
+        long segundos = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.sendError(status.value(), mensagem);
+    }
+}
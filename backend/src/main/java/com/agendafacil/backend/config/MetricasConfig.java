@@ -0,0 +1,208 @@
+package com.agendafacil.backend.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.agendafacil.backend.service.CatalogoServicos;
+import com.agendafacil.backend.service.CentralEventosServicos;
+import com.agendafacil.backend.service.ConsultarCnpjAPI;
+import com.agendafacil.backend.service.DespachanteEventos;
+import com.agendafacil.backend.service.ReconciliacaoPainel;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+// Timers de rota (http.server.requests), de repositório (spring.data.repository.invocations),
+// do pool Hikari e as métricas básicas do Hibernate (hibernate.*, via hibernate-micrometer) vêm do
+// Actuator; aqui ficam as razões de cache do Hibernate, as métricas da BrasilAPI, do catálogo
+// do limite de requisições, do outbox, da reconciliação do painel e da fila de log
+@Configuration
+@RequiredArgsConstructor
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final ConsultasPorRequisicaoInterceptor consultasPorRequisicaoInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(consultasPorRequisicaoInterceptor);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorConsultasCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorConsultas());
+    }
+
+    @Bean
+    public MeterBinder metricasHibernate(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics stats = sessionFactory.getStatistics();
+        return registry -> {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", stats,
+                    s -> razao(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()))
+                .description("Acertos / consultas ao cache de segundo nível")
+                .register(registry);
+            Gauge.builder("hibernate.query.cache.hit.ratio", stats,
+                    s -> razao(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .description("Acertos / consultas ao cache de queries")
+                .register(registry);
+            Gauge.builder("hibernate.natural.id.cache.hit.ratio", stats,
+                    s -> razao(s.getNaturalIdCacheHitCount(), s.getNaturalIdCacheMissCount()))
+                .description("Acertos / buscas por natural id (email, CNPJ) no cache")
+                .register(registry);
+            // Por região (usuarios, empresas, usuarios-email...); contagens em hibernate.second.level.cache.requests
+            for (String regiao : stats.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.region.hit.ratio", stats, s -> {
+                        CacheRegionStatistics daRegiao = s.getCacheRegionStatistics(regiao);
+                        return daRegiao == null ? 0 : razao(daRegiao.getHitCount(), daRegiao.getMissCount());
+                    })
+                    .tag("region", regiao)
+                    .register(registry);
+            }
+            Gauge.builder("hibernate.query.slow", stats, s -> s.getSlowQueries().size())
+                .description("Consultas distintas acima de hibernate.log_slow_query")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasBrasilApi(ConsultarCnpjAPI consultarCnpjAPI) {
+        return registry -> {
+            FunctionCounter.builder("brasilapi.cache.requests", consultarCnpjAPI, api -> api.estatisticas().acertos())
+                .tag("result", "hit")
+                .register(registry);
+            FunctionCounter.builder("brasilapi.cache.requests", consultarCnpjAPI, api -> api.estatisticas().ausencias())
+                .tag("result", "miss")
+                .register(registry);
+            FunctionCounter.builder("brasilapi.errors", consultarCnpjAPI, api -> api.estatisticas().errosExternos())
+                .register(registry);
+            FunctionCounter.builder("brasilapi.bulkhead.rejected", consultarCnpjAPI, api -> api.estatisticas().rejeitadas())
+                .register(registry);
+            Gauge.builder("brasilapi.latency.mean", consultarCnpjAPI, api -> api.estatisticas().latenciaMediaMs())
+                .baseUnit("milliseconds")
+                .register(registry);
+            Gauge.builder("brasilapi.cache.size", consultarCnpjAPI, api -> api.estatisticas().tamanho())
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasCatalogo(CatalogoServicos catalogoServicos) {
+        return registry -> {
+            Gauge.builder("catalog.services", catalogoServicos, catalogo -> catalogo.estatisticas().servicos())
+                .register(registry);
+            Gauge.builder("catalog.memory.estimated", catalogoServicos, catalogo -> catalogo.estatisticas().bytesEstimados())
+                .baseUnit("bytes")
+                .register(registry);
+            Gauge.builder("catalog.age", catalogoServicos, catalogo -> catalogo.estatisticas().idadeSegundos())
+                .description("Tempo desde a última recarga completa do catálogo")
+                .baseUnit("seconds")
+                .register(registry);
+            Gauge.builder("catalog.staleness", catalogoServicos, catalogo -> catalogo.estatisticas().desdeAtualizacaoSegundos())
+                .description("Tempo desde o último snapshot publicado")
+                .baseUnit("seconds")
+                .register(registry);
+            FunctionCounter.builder("catalog.updates", catalogoServicos, catalogo -> catalogo.estatisticas().atualizacoes())
+                .register(registry);
+            FunctionCounter.builder("catalog.reloads", catalogoServicos, catalogo -> catalogo.estatisticas().recargas())
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasStream(CentralEventosServicos centralEventos) {
+        return registry -> {
+            Gauge.builder("catalog.stream.subscribers", centralEventos, central -> central.estatisticas().assinantes())
+                .description("Conexões SSE abertas em /servicos/stream")
+                .register(registry);
+            FunctionCounter.builder("catalog.stream.delivered", centralEventos, central -> central.estatisticas().entregues())
+                .register(registry);
+            FunctionCounter.builder("catalog.stream.dropped", centralEventos, central -> central.estatisticas().descartados())
+                .description("Eventos descartados por fila cheia (cliente lento)")
+                .register(registry);
+            FunctionCounter.builder("catalog.stream.stalled", centralEventos, central -> central.estatisticas().travados())
+                .description("Conexões SSE fechadas por envio parado além de servicos.stream.envio-timeout")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasLimite(LimitadorRequisicoes limitador) {
+        return registry -> {
+            for (LimitadorRequisicoes.Grupo grupo : LimitadorRequisicoes.Grupo.values()) {
+                FunctionCounter.builder("http.server.requests.rejected", limitador, l -> l.estatisticas(grupo).recusadasTaxa())
+                    .description("Requisições recusadas pelo limite de taxa (429) ou de concorrência (503)")
+                    .tag("group", grupo.chave())
+                    .tag("reason", "rate")
+                    .register(registry);
+                FunctionCounter.builder("http.server.requests.rejected", limitador, l -> l.estatisticas(grupo).recusadasConcorrencia())
+                    .tag("group", grupo.chave())
+                    .tag("reason", "concurrency")
+                    .register(registry);
+            }
+            Gauge.builder("http.server.requests.limiter.clients", limitador, l -> l.estatisticas(LimitadorRequisicoes.Grupo.LEITURA).clientes())
+                .description("Baldes de clientes em memória (todos os grupos)")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasOutbox(DespachanteEventos despachante) {
+        return registry -> {
+            Gauge.builder("outbox.lag", despachante, d -> d.estatisticas().atrasoSegundos())
+                .description("Idade do evento mais antigo ainda não entregue")
+                .baseUnit("seconds")
+                .register(registry);
+            Gauge.builder("outbox.pending", despachante, d -> d.estatisticas().pendentes())
+                .register(registry);
+            Gauge.builder("outbox.dead", despachante, d -> d.estatisticas().parados())
+                .description("Eventos parados depois de eventos.saida.tentativas-maximas")
+                .register(registry);
+            FunctionCounter.builder("outbox.dispatched", despachante, d -> d.estatisticas().entregues())
+                .register(registry);
+            FunctionCounter.builder("outbox.failures", despachante, d -> d.estatisticas().falhas())
+                .description("Entregas que falharam e voltaram para a fila")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasPainel(ReconciliacaoPainel reconciliacao) {
+        return registry -> FunctionCounter.builder("painel.divergencias", reconciliacao, ReconciliacaoPainel::divergencias)
+            .description("Empresas cujo painel a reconciliação encontrou diferente de servicos")
+            .register(registry);
+    }
+
+    // Fila do appender assíncrono (logback-spring.xml): perto de log.async.fila, linhas estão sendo descartadas
+    @Bean
+    public MeterBinder metricasLog() {
+        return registry -> {
+            if (LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto
+                    && contexto.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC") instanceof AsyncAppender fila) {
+                Gauge.builder("log.queue.size", fila, AsyncAppender::getNumberOfElementsInQueue)
+                    .description("Eventos de log esperando a thread do appender assíncrono")
+                    .register(registry);
+                Gauge.builder("log.queue.remaining", fila, AsyncAppender::getRemainingCapacity)
+                    .register(registry);
+            }
+        };
+    }
+
+    private static double razao(long acertos, long falhas) {
+        long total = acertos + falhas;
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+}
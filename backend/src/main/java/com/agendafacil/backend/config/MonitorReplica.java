@@ -0,0 +1,74 @@
+package com.agendafacil.backend.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Mede o atraso da réplica de tempos em tempos (banco.replica.consulta-atraso, em segundos).
+// Acima de banco.replica.atraso-maximo, ou se a consulta falhar, as leituras voltam para o
+// primário até a réplica alcançar de novo.
+public class MonitorReplica implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final DataSource replica;
+    private final String consultaAtraso;
+    private final double atrasoMaximoSegundos;
+    private final ScheduledExecutorService verificacoes;
+
+    private volatile boolean emDia;
+    private volatile double atrasoSegundos = Double.NaN;
+
+    public MonitorReplica(DataSource replica, String consultaAtraso, Duration atrasoMaximo, Duration intervalo) {
+        this.replica = replica;
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+        verificar();
+        this.verificacoes = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-atraso").daemon().factory());
+        this.verificacoes.scheduleWithFixedDelay(this::verificar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean emDia() {
+        return emDia;
+    }
+
+    // NaN quando a última verificação falhou
+    public double atrasoSegundos() {
+        return atrasoSegundos;
+    }
+
+    public void verificar() {
+        boolean estava = emDia;
+        try (Connection conexao = replica.getConnection();
+                Statement comando = conexao.createStatement();
+                ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+            double atraso = resultado.next() ? resultado.getDouble(1) : 0;
+            atrasoSegundos = atraso;
+            emDia = atraso <= atrasoMaximoSegundos;
+        } catch (Exception e) {
+            atrasoSegundos = Double.NaN;
+            emDia = false;
+            if (estava) {
+                log.warn("Réplica indisponível, leituras vão para o primário: {}", e.getMessage());
+            }
+            return;
+        }
+        if (estava != emDia) {
+            log.info(emDia ? "Réplica em dia ({} s), leituras voltam para ela" : "Réplica atrasada ({} s), leituras vão para o primário",
+                atrasoSegundos);
+        }
+    }
+
+    @Override
+    public void close() {
+        verificacoes.shutdownNow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.agendafacil.backend.config;
+
+// Spans (controller, service, repositório, BrasilAPI) da requisição amostrada na thread atual.
+// Requisição fora da amostra paga só a leitura do ThreadLocal. Na amostrada os spans vão para
+// vetores de tamanho fixo, reaproveitados pela thread de uma requisição para a outra: abrir e
+// fechar span não aloca. Passou de maxSpans, os seguintes só são contados
+public final class Rastreamento {
+
+    private static final ThreadLocal<Rastro> ATUAL = new ThreadLocal<>();
+
+    private Rastreamento() {
+    }
+
+    public static final class Rastro {
+        private final String[] tipos;
+        private final Class<?>[] classes;
+        private final String[] metodos;
+        private final int[] profundidades;
+        private final long[] inicios;
+        private final long[] duracoes;
+        private int quantidade;
+        private int profundidade;
+        private int descartados;
+        private boolean ativo;
+
+        private Rastro(int maxSpans) {
+            tipos = new String[maxSpans];
+            classes = new Class<?>[maxSpans];
+            metodos = new String[maxSpans];
+            profundidades = new int[maxSpans];
+            inicios = new long[maxSpans];
+            duracoes = new long[maxSpans];
+        }
+
+        public int quantidade() {
+            return quantidade;
+        }
+
+        // " >controller:ServicoController.reservar=12.3ms >>service:ServicoService.reservarServico=10.1ms ..."
+        public void descrever(StringBuilder saida) {
+            for (int i = 0; i < quantidade; i++) {
+                saida.append(' ');
+                for (int p = 0; p <= profundidades[i]; p++) {
+                    saida.append('>');
+                }
+                saida.append(tipos[i]).append(':').append(classes[i].getSimpleName()).append('.').append(metodos[i]).append('=');
+                if (duracoes[i] < 0) {
+                    saida.append("aberto");
+                } else {
+                    long decimos = duracoes[i] / 100_000;
+                    saida.append(decimos / 10).append('.').append(decimos % 10).append("ms");
+                }
+            }
+            if (descartados > 0) {
+                saida.append(" +").append(descartados).append(" spans");
+            }
+        }
+    }
+
+    static void iniciar(int maxSpans) {
+        Rastro rastro = ATUAL.get();
+        if (rastro == null || rastro.tipos.length != maxSpans) {
+            rastro = new Rastro(maxSpans);
+            ATUAL.set(rastro);
+        }
+        rastro.quantidade = 0;
+        rastro.profundidade = 0;
+        rastro.descartados = 0;
+        rastro.ativo = true;
+    }
+
+    // Devolve o rastro da requisição; vale até a próxima requisição da mesma thread
+    static Rastro encerrar() {
+        Rastro rastro = ATUAL.get();
+        if (rastro == null) {
+            return null;
+        }
+        rastro.ativo = false;
+        return rastro;
+    }
+
+    public static boolean ativo() {
+        Rastro rastro = ATUAL.get();
+        return rastro != null && rastro.ativo;
+    }
+
+    // Índice do span aberto, ou -1 se não houver rastro ativo ou o vetor estiver cheio
+    public static int abrir(String tipo, Class<?> classe, String metodo) {
+        Rastro rastro = ATUAL.get();
+        if (rastro == null || !rastro.ativo) {
+            return -1;
+        }
+        if (rastro.quantidade == rastro.tipos.length) {
+            rastro.descartados++;
+            return -1;
+        }
+        int i = rastro.quantidade++;
+        rastro.tipos[i] = tipo;
+        rastro.classes[i] = classe;
+        rastro.metodos[i] = metodo;
+        rastro.profundidades[i] = rastro.profundidade++;
+        rastro.duracoes[i] = -1;
+        rastro.inicios[i] = System.nanoTime();
+        return i;
+    }
+
+    public static void fechar(int span) {
+        if (span < 0) {
+            return;
+        }
+        Rastro rastro = ATUAL.get();
+        if (rastro == null || !rastro.ativo) {
+            return;
+        }
+        rastro.duracoes[span] = System.nanoTime() - rastro.inicios[span];
+        rastro.profundidade--;
+    }
+}
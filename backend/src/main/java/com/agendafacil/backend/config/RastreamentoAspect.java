@@ -0,0 +1,68 @@
+package com.agendafacil.backend.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+// Abre um span (ver Rastreamento) em cada chamada a controller, service, repositório e à
+// BrasilAPI. Fora de requisição amostrada só confere o ThreadLocal e segue
+@Aspect
+@Component
+public class RastreamentoAspect {
+
+    // O proxy do Spring Data só diz "$Proxy123"; o nome que interessa é o da interface
+    private static final ClassValue<Class<?>> REPOSITORIOS = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> proxy) {
+            for (Class<?> interfaceDoProxy : proxy.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(interfaceDoProxy)) {
+                    return interfaceDoProxy;
+                }
+            }
+            return proxy;
+        }
+    };
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object controller(ProceedingJoinPoint ponto) throws Throwable {
+        if (!Rastreamento.ativo()) {
+            return ponto.proceed();
+        }
+        return medir("controller", ponto.getSignature().getDeclaringType(), ponto);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object service(ProceedingJoinPoint ponto) throws Throwable {
+        if (!Rastreamento.ativo()) {
+            return ponto.proceed();
+        }
+        return medir("service", ponto.getSignature().getDeclaringType(), ponto);
+    }
+
+    @Around("execution(* com.agendafacil.backend.service.ConsultarCnpjAPI.buscarCnpj(..))")
+    public Object brasilApi(ProceedingJoinPoint ponto) throws Throwable {
+        if (!Rastreamento.ativo()) {
+            return ponto.proceed();
+        }
+        return medir("externo", ponto.getSignature().getDeclaringType(), ponto);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object repositorio(ProceedingJoinPoint ponto) throws Throwable {
+        if (!Rastreamento.ativo()) {
+            return ponto.proceed();
+        }
+        return medir("repositorio", REPOSITORIOS.get(ponto.getThis().getClass()), ponto);
+    }
+
+    private static Object medir(String tipo, Class<?> classe, ProceedingJoinPoint ponto) throws Throwable {
+        int span = Rastreamento.abrir(tipo, classe, ponto.getSignature().getName());
+        try {
+            return ponto.proceed();
+        } finally {
+            Rastreamento.fechar(span);
+        }
+    }
+}
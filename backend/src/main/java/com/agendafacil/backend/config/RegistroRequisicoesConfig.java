@@ -0,0 +1,28 @@
+package com.agendafacil.backend.config;
+
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// O RegistroRequisicoesFilter roda antes de tudo, inclusive da segurança: 401, 403 e 429
+// também saem com id, e o tempo medido é o da requisição inteira
+@Configuration
+public class RegistroRequisicoesConfig {
+
+    @Bean
+    public FilterRegistrationBean<RegistroRequisicoesFilter> registroRequisicoes(
+            @Value("${log.requisicoes.amostragem:0.01}") double amostragem,
+            @Value("${log.requisicoes.lenta:1s}") Duration lenta,
+            @Value("${log.requisicoes.max-spans:64}") int maxSpans,
+            @Value("${log.requisicoes.campos-sensiveis:senha,token,refreshToken,email,cnpj,telefone}") Set<String> camposSensiveis) {
+        FilterRegistrationBean<RegistroRequisicoesFilter> registro =
+            new FilterRegistrationBean<>(new RegistroRequisicoesFilter(amostragem, lenta, maxSpans, camposSensiveis));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
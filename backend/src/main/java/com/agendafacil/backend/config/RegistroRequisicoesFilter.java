@@ -0,0 +1,170 @@
+package com.agendafacil.backend.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Primeiro filtro da requisição: dá a ela um id (o X-Request-Id de quem chamou, se for válido),
+// devolvido no cabeçalho e posto no MDC, então toda linha de log da requisição sai com ele.
+// Uma fração (amostragem) é rastreada: no fim sai uma linha no logger "requisicoes" com rota,
+// status, duração e os spans (ver Rastreamento). Fora da amostra só erro 5xx e requisição
+// lenta são registrados, sem spans. Corpo e cabeçalhos nunca vão para o log, e na query string
+// os valores dos campos sensíveis saem como ***. No caminho vai a rota do mapeamento; sem ela
+// (401, 429 e 503 barrados antes do controller) vai a URI com os segmentos variáveis mascarados
+public class RegistroRequisicoesFilter extends OncePerRequestFilter {
+    public static final String CABECALHO = "X-Request-Id";
+    public static final String MDC_ID = "requestId";
+    private static final Logger log = LoggerFactory.getLogger("requisicoes");
+    private static final int TAMANHO_MAXIMO_ID = 64;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final double amostragem;
+    private final long lentaNanos;
+    private final int maxSpans;
+    private final Set<String> camposSensiveis;
+
+    public RegistroRequisicoesFilter(double amostragem, Duration lenta, int maxSpans, Set<String> camposSensiveis) {
+        this.amostragem = amostragem;
+        this.lentaNanos = lenta.toNanos();
+        this.maxSpans = maxSpans;
+        this.camposSensiveis = camposSensiveis.stream().map(c -> c.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String id = idValido(request.getHeader(CABECALHO));
+        if (id == null) {
+            id = HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(CABECALHO, id);
+        MDC.put(MDC_ID, id);
+        boolean amostrada = amostragem > 0 && ThreadLocalRandom.current().nextDouble() < amostragem;
+        if (amostrada) {
+            Rastreamento.iniciar(maxSpans);
+        }
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try {
+            chain.doFilter(request, response);
+            falhou = false;
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            Rastreamento.Rastro rastro = amostrada ? Rastreamento.encerrar() : null;
+            int status = falhou ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            boolean problema = status >= 500 || duracao >= lentaNanos;
+            if (amostrada || problema) {
+                registrar(request, status, duracao, rastro, problema);
+            }
+            MDC.remove(MDC_ID);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, int status, long duracaoNanos, Rastreamento.Rastro rastro, boolean problema) {
+        if (problema ? !log.isWarnEnabled() : !log.isInfoEnabled()) {
+            return;
+        }
+        // Rota do mapeamento (/servicos/{id}), não a URI: ids e CNPJs ficam fora da linha
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder linha = new StringBuilder(128 + (rastro == null ? 0 : rastro.quantidade() * 64));
+        linha.append(request.getMethod()).append(' ');
+        if (rota != null) {
+            linha.append(rota);
+        } else {
+            mascarar(request.getRequestURI().substring(request.getContextPath().length()), linha);
+        }
+        if (request.getQueryString() != null) {
+            linha.append('?');
+            redigir(request.getQueryString(), camposSensiveis, linha);
+        }
+        long decimos = duracaoNanos / 100_000;
+        linha.append(" status=").append(status).append(" ms=").append(decimos / 10).append('.').append(decimos % 10);
+        if (rastro != null) {
+            linha.append(" spans:");
+            rastro.descrever(linha);
+        }
+        if (problema) {
+            log.warn(linha.toString());
+        } else {
+            log.info(linha.toString());
+        }
+    }
+
+    // "/empresas/cnpj/12.345.678/0001-90" -> "/empresas/cnpj/*/*": só ficam os segmentos feitos
+    // de letras, hífen e sublinhado, como os fixos das rotas; número, e-mail, nome codificado, não
+    static void mascarar(String caminho, StringBuilder saida) {
+        int inicio = 0;
+        while (inicio <= caminho.length()) {
+            int fim = caminho.indexOf('/', inicio);
+            if (fim < 0) {
+                fim = caminho.length();
+            }
+            boolean fixo = true;
+            for (int i = inicio; i < fim && fixo; i++) {
+                char c = caminho.charAt(i);
+                fixo = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '-' || c == '_';
+            }
+            if (fixo) {
+                saida.append(caminho, inicio, fim);
+            } else {
+                saida.append('*');
+            }
+            if (fim < caminho.length()) {
+                saida.append('/');
+            }
+            inicio = fim + 1;
+        }
+    }
+
+    // "email=a@b.com&pagina=2" -> "email=***&pagina=2"
+    static void redigir(String consulta, Set<String> camposSensiveis, StringBuilder saida) {
+        int inicio = 0;
+        while (inicio <= consulta.length()) {
+            int fim = consulta.indexOf('&', inicio);
+            if (fim < 0) {
+                fim = consulta.length();
+            }
+            int igual = consulta.indexOf('=', inicio);
+            if (igual >= 0 && igual < fim
+                    && camposSensiveis.contains(consulta.substring(inicio, igual).toLowerCase(Locale.ROOT))) {
+                saida.append(consulta, inicio, igual + 1).append("***");
+            } else {
+                saida.append(consulta, inicio, fim);
+            }
+            if (fim < consulta.length()) {
+                saida.append('&');
+            }
+            inicio = fim + 1;
+        }
+    }
+
+    // Aceita o id de quem chamou só se for curto e sem nada que quebre a linha de log
+    static String idValido(String id) {
+        if (id == null || id.isEmpty() || id.length() > TAMANHO_MAXIMO_ID) {
+            return null;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '_' || c == '.')) {
+                return null;
+            }
+        }
+        return id;
+    }
+}
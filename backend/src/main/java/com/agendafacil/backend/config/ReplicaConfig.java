@@ -0,0 +1,76 @@
+package com.agendafacil.backend.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.agendafacil.backend.service.ConsistenciaLeitura;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Leituras em réplica quando banco.replica.url existe; sem ela tudo vai ao primário.
+// Transação readOnly marca a conexão como somente leitura, e o LazyConnectionDataSourceProxy
+// só pega a conexão física no primeiro comando: aí já sabe se ela vai para o DestinoLeitura
+// (réplica ou primário) ou para o primário. Escritas, Flyway e o que roda fora de transação
+// ficam no primário. Os beans existem sempre e a URL é conferida na subida (ReplicaLeitura):
+// com o Spring AOT uma condição de bean seria avaliada no build e valeria para sempre.
+@Configuration
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        HikariDataSource primario = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    public ReplicaLeitura replicaLeitura(Environment ambiente) {
+        return ReplicaLeitura.de(ambiente);
+    }
+
+    @Bean
+    public DestinoLeitura destinoLeitura(HikariDataSource dataSourcePrimario, ReplicaLeitura replicaLeitura,
+            ConsistenciaLeitura consistenciaLeitura) {
+        return new DestinoLeitura(dataSourcePrimario, replicaLeitura, consistenciaLeitura);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimario, ReplicaLeitura replicaLeitura, DestinoLeitura destinoLeitura) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(dataSourcePrimario);
+        if (replicaLeitura.ligada()) {
+            dataSource.setReadOnlyDataSource(destinoLeitura);
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public MeterBinder metricasReplica(ReplicaLeitura replicaLeitura, DestinoLeitura destinoLeitura) {
+        return registry -> {
+            if (!replicaLeitura.ligada()) {
+                return;
+            }
+            Gauge.builder("db.replica.lag", replicaLeitura.monitor(), MonitorReplica::atrasoSegundos)
+                .baseUnit("seconds")
+                .description("Atraso da réplica na última verificação (NaN se falhou)")
+                .register(registry);
+            FunctionCounter.builder("db.replica.reads", destinoLeitura, DestinoLeitura::leiturasNaReplica)
+                .tag("target", "replica")
+                .register(registry);
+            FunctionCounter.builder("db.replica.reads", destinoLeitura, DestinoLeitura::leiturasNoPrimario)
+                .tag("target", "primary")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.agendafacil.backend.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Pool e monitor da réplica, montados na subida conforme banco.replica.url. Com a URL vazia
+// nada é aberto e ligada() é false. A decisão fica aqui, e não numa condição de bean, porque
+// o Spring AOT (perfil rapido) fixa as condições no build e a imagem nunca ligaria a réplica
+public class ReplicaLeitura implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final MonitorReplica monitor;
+
+    private ReplicaLeitura(HikariDataSource dataSource, MonitorReplica monitor) {
+        this.dataSource = dataSource;
+        this.monitor = monitor;
+    }
+
+    public static ReplicaLeitura de(Environment ambiente) {
+        String url = ambiente.getProperty("banco.replica.url", "");
+        if (url.isBlank()) {
+            return new ReplicaLeitura(null, null);
+        }
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+            .url(url)
+            .username(ambiente.getProperty("banco.replica.username", ambiente.getProperty("spring.datasource.username", "")))
+            .password(ambiente.getProperty("banco.replica.password", ambiente.getProperty("spring.datasource.password", "")))
+            .build();
+        Binder binder = Binder.get(ambiente);
+        binder.bind("banco.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        MonitorReplica monitor = new MonitorReplica(dataSource, ambiente.getRequiredProperty("banco.replica.consulta-atraso"),
+            binder.bind("banco.replica.atraso-maximo", Duration.class).orElse(Duration.ofSeconds(5)),
+            binder.bind("banco.replica.verificacao", Duration.class).orElse(Duration.ofSeconds(1)));
+        return new ReplicaLeitura(dataSource, monitor);
+    }
+
+    public boolean ligada() {
+        return dataSource != null;
+    }
+
+    // null quando desligada
+    public HikariDataSource dataSource() {
+        return dataSource;
+    }
+
+    // null quando desligada
+    public MonitorReplica monitor() {
+        return monitor;
+    }
+
+    @Override
+    public void close() {
+        if (monitor != null) {
+            monitor.close();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+}
@@ -2,30 +2,61 @@ package com.agendafacil.backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.agendafacil.backend.service.TokenService;
+import com.agendafacil.backend.service.TokenService.Papel;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import java.util.List;
 
 @Configuration
 public class SecurityConfig {
 
+    // Sessão sem estado: quem chama se identifica pelo token de acesso (ver TokenService)
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService, LimitadorRequisicoes limitador) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
+            .sessionManagement(sessao -> sessao.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new TokenAutenticacaoFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
+            // Taxa por cliente e concorrência por grupo de rotas (ver LimitadorRequisicoes)
+            .addFilterAfter(new LimiteRequisicoesFilter(limitador), TokenAutenticacaoFilter.class)
+            .exceptionHandling(erros -> erros.authenticationEntryPoint(SecurityConfig::naoAutenticado))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/**").permitAll()
+                // Reservas são do usuário logado
+                .requestMatchers(HttpMethod.POST, "/servicos/*/reservar", "/servicos/reservar-lote", "/agendamentos").hasRole(Papel.USUARIO.name())
+                // Administração dos serviços é da empresa logada
+                .requestMatchers(HttpMethod.POST, "/servicos/cadastrar", "/servicos/lote").hasRole(Papel.EMPRESA.name())
+                .requestMatchers(HttpMethod.DELETE, "/servicos/*").hasRole(Papel.EMPRESA.name())
+                .requestMatchers(HttpMethod.GET, "/empresas/painel").hasRole(Papel.EMPRESA.name())
                 .anyRequest().permitAll()
             );
 
         return http.build();
     }
 
+    // Rota protegida sem autenticação: 401, com "invalid_token" se veio um token recusado
+    private static void naoAutenticado(HttpServletRequest request, HttpServletResponse response, AuthenticationException erro) {
+        if (request.getAttribute(TokenAutenticacaoFilter.TOKEN_RECUSADO) != null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        }
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
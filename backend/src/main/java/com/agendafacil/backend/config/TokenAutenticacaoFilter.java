@@ -0,0 +1,54 @@
+package com.agendafacil.backend.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.agendafacil.backend.service.TokenService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Lê o "Authorization: Bearer <token>" e, se a assinatura e a validade baterem,
+// coloca o Autenticado como principal da requisição. Só confere o token: não vai ao banco.
+// Sem cabeçalho, ou com token inválido ou vencido, a requisição segue anônima e as regras
+// do SecurityConfig decidem: rota pública responde normalmente e rota protegida dá 401.
+// O token recusado fica marcado na requisição para o 401 dizer "invalid_token" (hora de renovar).
+public class TokenAutenticacaoFilter extends OncePerRequestFilter {
+    private static final String PREFIXO = "Bearer ";
+    static final String TOKEN_RECUSADO = TokenAutenticacaoFilter.class.getName() + ".recusado";
+
+    private final TokenService tokenService;
+
+    public TokenAutenticacaoFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (cabecalho == null || !cabecalho.startsWith(PREFIXO)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Optional<Autenticado> autenticado = tokenService.verificarAcesso(cabecalho.substring(PREFIXO.length()).trim());
+        if (autenticado.isEmpty()) {
+            request.setAttribute(TOKEN_RECUSADO, Boolean.TRUE);
+            chain.doFilter(request, response);
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            autenticado.get(), null, List.of(new SimpleGrantedAuthority("ROLE_" + autenticado.get().papel().name()))));
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,51 @@
+package com.agendafacil.backend.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.agendafacil.backend.DTO.AgendamentoDTO;
+import com.agendafacil.backend.service.AgendamentoService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/agendamentos")
+@RequiredArgsConstructor
+public class AgendamentoController {
+
+    private final AgendamentoService agendamentoService;
+
+    // GET /agendamentos/horarios?servicoId=1&de=2025-12-01&ate=2025-12-07
+    @GetMapping("/horarios")
+    public List<LocalDateTime> horariosLivres(@RequestParam Long servicoId,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate de,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE) LocalDate ate){
+        return agendamentoService.horariosLivres(servicoId, de, ate);
+    }
+
+    // GET /agendamentos/horarios/proximo?servicoId=1[&aPartirDe=2025-12-01T08:00]
+    @GetMapping("/horarios/proximo")
+    public LocalDateTime proximoHorarioLivre(@RequestParam Long servicoId,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime aPartirDe){
+        return agendamentoService.proximoHorarioLivre(servicoId, aPartirDe);
+    }
+
+    // O cliente do agendamento é o usuário do token
+    @PostMapping
+    public AgendamentoDTO agendar(@RequestBody AgendamentoDTO agendamentoDTO, @AuthenticationPrincipal Autenticado usuario){
+        agendamentoDTO.setUserId(usuario.id());
+        return agendamentoService.agendar(agendamentoDTO);
+    }
+}
@@ -0,0 +1,26 @@
+package com.agendafacil.backend.controller;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.agendafacil.backend.DTO.RenovacaoDTO;
+import com.agendafacil.backend.DTO.TokensDTO;
+import com.agendafacil.backend.service.TokenService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    // POST /auth/refresh {"refreshToken": "..."}: novo par de tokens, sem novo login
+    @PostMapping("/refresh")
+    public TokensDTO renovar(@RequestBody RenovacaoDTO renovacaoDTO){
+        return tokenService.renovar(renovacaoDTO.getRefreshToken());
+    }
+}
@@ -0,0 +1,109 @@
+package com.agendafacil.backend.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+// Lê um CSV em UTF-8 linha a linha. A primeira linha é o cabeçalho com os nomes
+// dos campos; o separador pode ser vírgula ou ponto e vírgula e os valores podem
+// vir entre aspas ("" dentro das aspas vira uma aspa). Valores vazios viram null.
+// Linha que não converte (número inválido, por exemplo) não derruba o arquivo: vira null
+// em itens e o erro vai para erros, pela posição da linha (a partir de 0)
+final class CsvLeitor {
+
+    private CsvLeitor() {}
+
+    record Lido<T>(List<T> itens, Map<Integer, String> erros) {}
+
+    static <T> Lido<T> ler(InputStream entrada, int limite, Function<Map<String, String>, T> conversor) throws IOException {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        String cabecalho = leitor.readLine();
+        if (cabecalho == null) {
+            return new Lido<>(List.of(), Map.of());
+        }
+        if (!cabecalho.isEmpty() && cabecalho.charAt(0) == '\uFEFF') {
+            cabecalho = cabecalho.substring(1);
+        }
+        char separador = cabecalho.indexOf(';') >= 0 && cabecalho.indexOf(',') < 0 ? ';' : ',';
+        List<String> campos = dividir(cabecalho, separador);
+
+        List<T> itens = new ArrayList<>();
+        Map<Integer, String> erros = new HashMap<>();
+        String linha;
+        int numero = 0;
+        while ((linha = leitor.readLine()) != null) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            numero++;
+            if (numero > limite) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Lote maior que " + limite + " linhas");
+            }
+            List<String> valores = dividir(linha, separador);
+            Map<String, String> registro = new LinkedHashMap<>();
+            for (int i = 0; i < campos.size(); i++) {
+                String valor = i < valores.size() ? valores.get(i).trim() : "";
+                registro.put(campos.get(i).trim(), valor.isEmpty() ? null : valor);
+            }
+            try {
+                itens.add(conversor.apply(registro));
+            } catch (IllegalArgumentException e) {
+                erros.put(itens.size(), erroDeConversao(e));
+                itens.add(null);
+            }
+        }
+        return new Lido<>(itens, erros);
+    }
+
+    // O ObjectMapper diz o campo que não converteu no caminho da JsonMappingException
+    private static String erroDeConversao(IllegalArgumentException e) {
+        if (e.getCause() instanceof JsonMappingException mapeamento && !mapeamento.getPath().isEmpty()) {
+            String campo = mapeamento.getPath().get(mapeamento.getPath().size() - 1).getFieldName();
+            if (campo != null) {
+                return "Valor inválido em " + campo;
+            }
+        }
+        return "Linha do CSV inválida";
+    }
+
+    private static List<String> dividir(String linha, char separador) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                valores.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        valores.add(atual.toString());
+        return valores;
+    }
+}
@@ -1,15 +1,35 @@
 package com.agendafacil.backend.controller;
 
 import com.agendafacil.backend.DTO.EmpresaDTO;
+import com.agendafacil.backend.DTO.EmpresaDetalheDTO;
+import com.agendafacil.backend.DTO.EmpresaResumoDTO;
 import com.agendafacil.backend.DTO.LoginDTO;
+import com.agendafacil.backend.DTO.PaginaDTO;
+import com.agendafacil.backend.DTO.PainelEmpresaDTO;
+import com.agendafacil.backend.DTO.ResultadoLoteDTO;
+import com.agendafacil.backend.DTO.SessaoDTO;
+import com.agendafacil.backend.service.CatalogoServicos;
 import com.agendafacil.backend.service.EmpresaService;
+import com.agendafacil.backend.service.TokenService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+import com.agendafacil.backend.service.TokenService.Papel;
 import com.agendafacil.backend.model.Empresa;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/empresas")
@@ -18,6 +38,9 @@ import org.springframework.web.bind.annotation.*;
 public class EmpresaController {
     
     private final EmpresaService empresaService;
+    private final ObjectMapper objectMapper;
+    private final TokenService tokenService;
+    private final CatalogoServicos catalogoServicos;
 
     @GetMapping("/cnpj/{cnpj}")
     public EmpresaDTO buscarPorCnpj(@PathVariable String cnpj) {
@@ -25,23 +48,61 @@ public class EmpresaController {
     }
 
     @PostMapping("/cadastrar")
-    public Empresa cadastrarEmpresa(@RequestBody EmpresaDTO empresaDTO) throws Exception{
-        return empresaService.cadastrarEmpresa(empresaDTO);
+    public EmpresaResumoDTO cadastrarEmpresa(@RequestBody EmpresaDTO empresaDTO) throws Exception{
+        return EmpresaResumoDTO.de(empresaService.cadastrarEmpresa(empresaDTO));
+    }
+
+    // POST /empresas/lote com um array JSON de EmpresaDTO, lido item a item até LIMITE_LOTE
+    @PostMapping(path = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResultadoLoteDTO cadastrarLote(InputStream corpo) throws IOException{
+        return empresaService.cadastrarLote(JsonLoteLeitor.ler(objectMapper, corpo, EmpresaService.LIMITE_LOTE, EmpresaDTO.class));
+    }
+
+    // POST /empresas/lote com text/csv: cabeçalho nome,razao_social,cnpj,email,telefone,senha
+    @PostMapping(path = "/lote", consumes = "text/csv")
+    public ResultadoLoteDTO cadastrarLoteCsv(InputStream corpo) throws IOException{
+        CsvLeitor.Lido<EmpresaDTO> lido = CsvLeitor.ler(corpo, EmpresaService.LIMITE_LOTE,
+            registro -> objectMapper.convertValue(registro, EmpresaDTO.class));
+        return empresaService.cadastrarLote(lido.itens(), lido.erros());
     }
 
     @PostMapping("/login")
-    public Empresa loginEmpresa(@RequestBody LoginDTO loginDTO) throws Exception{
-        return empresaService.loginEmpresa(loginDTO.getEmail(), loginDTO.getSenha());
+    public SessaoDTO<EmpresaResumoDTO> loginEmpresa(@RequestBody LoginDTO loginDTO) throws Exception{
+        Empresa empresa = empresaService.loginEmpresa(loginDTO.getEmail(), loginDTO.getSenha());
+        return new SessaoDTO<>(EmpresaResumoDTO.de(empresa), Papel.EMPRESA.name(),
+            tokenService.emitir(new Autenticado(empresa.getId(), Papel.EMPRESA)));
     }
 
     @GetMapping
-    public List<Empresa> getAllEmpresas(){
+    public List<EmpresaResumoDTO> getAllEmpresas(){
         return empresaService.findAll();
     }
 
+    // GET /empresas?after=<id>&limit=<n>
+    @GetMapping(params = "limit")
+    public PaginaDTO<EmpresaResumoDTO> getEmpresasPaginadas(@RequestParam(required = false) Long after, @RequestParam int limit){
+        return empresaService.findPagina(after, limit);
+    }
+
+    // GET /empresas?formato=ndjson: uma linha JSON por empresa, em streaming
+    @GetMapping(params = "formato=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamEmpresas(){
+        return NdjsonResponse.<EmpresaResumoDTO>of(objectMapper, empresaService::paraCadaEmpresa);
+    }
+
+    // GET /empresas/painel[?de=2026-10-01&ate=2026-10-31]: painel da empresa do token
+    @GetMapping("/painel")
+    public PainelEmpresaDTO painel(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @AuthenticationPrincipal Autenticado empresa){
+        return empresaService.painel(empresa.id(), de, ate);
+    }
+
+    // Os dados da empresa não mudam depois do cadastro; o que muda são os serviços e reservas
     @GetMapping("/{id}")
-    public Empresa buscarPorId(@PathVariable Long id) {
-    return empresaService.findById(id);
-}
+    public ResponseEntity<EmpresaDetalheDTO> buscarPorId(@PathVariable Long id, WebRequest request) {
+        return RespostaCondicional.of(request, catalogoServicos.versaoEmpresa(id), RespostaCondicional.PRIVADO,
+            () -> empresaService.findById(id));
+    }
 
 }
\ No newline at end of file
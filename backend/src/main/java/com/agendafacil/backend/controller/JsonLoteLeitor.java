@@ -0,0 +1,43 @@
+package com.agendafacil.backend.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Lê um array JSON do corpo um item por vez, como o CsvLeitor faz com as linhas: passou
+// do limite, para ali com 413 sem desserializar o resto. Item null fica null em itens
+final class JsonLoteLeitor {
+
+    private JsonLoteLeitor() {}
+
+    static <T> List<T> ler(ObjectMapper objectMapper, InputStream entrada, int limite, Class<T> tipo) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O corpo deve ser um array JSON");
+            }
+            List<T> itens = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Array JSON incompleto");
+                }
+                if (itens.size() == limite) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Lote maior que " + limite + " linhas");
+                }
+                itens.add(objectMapper.readValue(parser, tipo));
+            }
+            return itens;
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JSON inválido", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.agendafacil.backend.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Escreve uma linha JSON por item assim que ele sai do cursor do banco,
+// sem montar a lista inteira em memória
+final class NdjsonResponse {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private NdjsonResponse(){}
+
+    static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Consumer<Consumer<T>> produtor){
+        StreamingResponseBody corpo = saida -> {
+            try {
+                produtor.accept(item -> {
+                    try {
+                        saida.write(objectMapper.writeValueAsBytes(item));
+                        saida.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .body(corpo);
+    }
+}
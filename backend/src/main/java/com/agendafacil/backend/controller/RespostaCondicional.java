@@ -0,0 +1,39 @@
+package com.agendafacil.backend.controller;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+// GET condicional: a ETag vem de uma versão já em memória (CatalogoServicos), então
+// quando o If-None-Match bate a resposta é 304 sem consultar o banco nem serializar nada.
+// A versão é lida antes do corpo: se mudar no meio, a ETag fica velha e o próximo GET traz 200.
+final class RespostaCondicional {
+
+    // Listagens públicas: o navegador guarda, mas confere a ETag a cada uso
+    static final CacheControl PUBLICO = CacheControl.noCache().cachePublic();
+    // Dados com reservas (nome de quem agendou): só o cache do próprio navegador
+    static final CacheControl PRIVADO = CacheControl.noCache().cachePrivate();
+
+    private RespostaCondicional(){}
+
+    static <T> ResponseEntity<T> of(WebRequest request, String versao, CacheControl cacheControl, Supplier<T> corpo){
+        ETag etag = ETag.create(versao);
+        if (naoMudou(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.formattedTag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag.formattedTag()).cacheControl(cacheControl).body(corpo.get());
+    }
+
+    // If-None-Match usa comparação fraca: W/"x" e "x" são a mesma versão
+    private static boolean naoMudou(String ifNoneMatch, ETag etag){
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return ETag.parse(ifNoneMatch).stream().anyMatch(outra -> outra.isWildcard() || outra.compare(etag, false));
+    }
+}
@@ -1,8 +1,15 @@
 package com.agendafacil.backend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,55 +18,144 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.agendafacil.backend.DTO.FiltroServicosDTO;
+import com.agendafacil.backend.DTO.PaginaCursorDTO;
+import com.agendafacil.backend.DTO.PaginaDTO;
+import com.agendafacil.backend.DTO.ResultadoLoteDTO;
+import com.agendafacil.backend.DTO.ResultadoReservaLoteDTO;
 import com.agendafacil.backend.DTO.ServicoDTO;
+import com.agendafacil.backend.DTO.ServicoDetalheDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
 import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.service.CatalogoServicos;
 import com.agendafacil.backend.service.ServicoService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/servicos")
 public class ServicoController {
     @Autowired
     private ServicoService servicoService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private CatalogoServicos catalogoServicos;
 
+    // A empresa dona do serviço é sempre a do token, não a do corpo
     @PostMapping("/cadastrar")
-    public Servico cadastrar(@RequestBody ServicoDTO servicoDTO){
+    public ServicoDetalheDTO cadastrar(@RequestBody ServicoDTO servicoDTO, @AuthenticationPrincipal Autenticado empresa){
         Servico servico = new Servico(servicoDTO.getNome(), servicoDTO.getCategoria(), servicoDTO.getDescricao(), servicoDTO.getDuracao_minutos(), servicoDTO.getPreco());
-        return servicoService.cadastrar(servico, servicoDTO.getEmpresaId());
+        return ServicoDetalheDTO.de(servicoService.cadastrar(servico, empresa.id()));
+    }
+
+    // POST /servicos/lote com um array JSON de ServicoDTO, lido item a item até LIMITE_LOTE
+    @PostMapping(path = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResultadoLoteDTO cadastrarLote(InputStream corpo, @AuthenticationPrincipal Autenticado empresa) throws IOException{
+        List<ServicoDTO> servicos = JsonLoteLeitor.ler(objectMapper, corpo, ServicoService.LIMITE_LOTE, ServicoDTO.class);
+        return servicoService.cadastrarLote(daEmpresa(servicos, empresa));
+    }
+
+    // POST /servicos/lote com text/csv: cabeçalho nome,categoria,descricao,duracao_minutos,preco[,empresaId]
+    @PostMapping(path = "/lote", consumes = "text/csv")
+    public ResultadoLoteDTO cadastrarLoteCsv(InputStream corpo, @AuthenticationPrincipal Autenticado empresa) throws IOException{
+        CsvLeitor.Lido<ServicoDTO> lido = CsvLeitor.ler(corpo, ServicoService.LIMITE_LOTE,
+            registro -> objectMapper.convertValue(registro, ServicoDTO.class));
+        return servicoService.cadastrarLote(daEmpresa(lido.itens(), empresa), lido.erros());
+    }
+
+    // Linha null (vazia no JSON ou que não converteu no CSV) fica como está e é recusada no serviço
+    private static List<ServicoDTO> daEmpresa(List<ServicoDTO> servicos, Autenticado empresa){
+        servicos.stream().filter(Objects::nonNull).forEach(servico -> servico.setEmpresaId(empresa.id()));
+        return servicos;
     }
 
     @GetMapping
-    public List<Servico> getAllServicos(){
-        return servicoService.findAll();
+    public ResponseEntity<List<ServicoResumoDTO>> getAllServicos(WebRequest request){
+        return RespostaCondicional.of(request, catalogoServicos.versao(), RespostaCondicional.PUBLICO, servicoService::findAll);
+    }
+
+    // GET /servicos?after=<id>&limit=<n>
+    @GetMapping(params = "limit")
+    public PaginaDTO<ServicoResumoDTO> getServicosPaginados(@RequestParam(required = false) Long after, @RequestParam int limit){
+        return servicoService.findDisponiveis(after, limit);
+    }
+
+    // GET /servicos/filtro?categoria=Cabelo&precoMax=100&duracaoMax=60&ordem=preco&limit=20[&after=<proximo>]
+    // Também aceita empresaId e precoMin; ordem: preco, -preco, duracao ou -duracao
+    @GetMapping("/filtro")
+    public PaginaCursorDTO<ServicoResumoDTO> filtrar(FiltroServicosDTO filtro){
+        return servicoService.filtrar(filtro);
+    }
+
+    // GET /servicos?formato=ndjson: uma linha JSON por serviço, em streaming
+    @GetMapping(params = "formato=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamServicos(){
+        return NdjsonResponse.<ServicoResumoDTO>of(objectMapper, servicoService::paraCadaDisponivel);
+    }
+
+    // GET /servicos/stream[?empresaId=1]: eventos SSE criado, agendado, removido e alterado,
+    // com o ServicoResumoDTO novo em data; ao reconectar, relê a lista (ETag) e segue pelo stream
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanhar(@RequestParam(required = false) Long empresaId){
+        return servicoService.acompanhar(empresaId);
+    }
+
+    // GET /servicos/busca?q=corte masculino&limit=20: ordenado por relevância, sem diferença de acento
+    @GetMapping("/busca")
+    public List<ServicoResumoDTO> buscar(@RequestParam String q, @RequestParam(defaultValue = "20") int limit){
+        return servicoService.buscar(q, limit);
+    }
+
+    // GET /servicos/busca/sugestoes?q=manic: nomes para o autocompletar
+    @GetMapping("/busca/sugestoes")
+    public List<String> sugerir(@RequestParam String q, @RequestParam(defaultValue = "10") int limit){
+        return servicoService.sugerir(q, limit);
     }
 
     @GetMapping("/empresa/{empresaId}")
-    public List<Servico> getServicoByEmpresa(@PathVariable Long empresaId){
-        return servicoService.findByEmpresaId(empresaId);
+    public ResponseEntity<List<ServicoDetalheDTO>> getServicoByEmpresa(@PathVariable Long empresaId, WebRequest request){
+        return RespostaCondicional.of(request, catalogoServicos.versaoEmpresa(empresaId), RespostaCondicional.PRIVADO,
+            () -> servicoService.findByEmpresaId(empresaId));
     }
 
+    // Entidade nunca sai na resposta: de quem agendou vão só id e nome
     @GetMapping("/{id}")
-    public Servico getServicoById(@PathVariable Long id){
-        return servicoService.findById(id);
+    public ServicoDetalheDTO getServicoById(@PathVariable Long id){
+        return ServicoDetalheDTO.de(servicoService.findById(id));
     }
 
     @GetMapping("/categoria/{categoria}")
-    public List<Servico> getServicoByCategoria(@PathVariable String categoria){
-        return servicoService.findByCategoria(categoria);
+    public ResponseEntity<List<ServicoResumoDTO>> getServicoByCategoria(@PathVariable String categoria, WebRequest request){
+        return RespostaCondicional.of(request, catalogoServicos.versao(), RespostaCondicional.PUBLICO,
+            () -> servicoService.findByCategoria(categoria));
     }
 
     @GetMapping("/nome/{nome}")
-    public Servico getServicoByNome(@PathVariable String nome){
-        return servicoService.findByNome(nome);
+    public ServicoDetalheDTO getServicoByNome(@PathVariable String nome){
+        return ServicoDetalheDTO.de(servicoService.findByNome(nome));
     }
 
     @DeleteMapping("/{id}")
-    public void deleteById(@PathVariable Long id){
-        servicoService.deletar(id);
+    public void deleteById(@PathVariable Long id, @AuthenticationPrincipal Autenticado empresa){
+        servicoService.deletar(id, empresa.id());
     }
     
+    // POST /servicos/reservar-lote com um array JSON de ids: todos reservados (200) ou nenhum (409),
+    // com a situação de cada serviço
+    @PostMapping("/reservar-lote")
+    public ResponseEntity<ResultadoReservaLoteDTO> reservarLote(@RequestBody List<Long> servicoIds, @AuthenticationPrincipal Autenticado usuario){
+        ResultadoReservaLoteDTO resultado = servicoService.reservarLote(servicoIds, usuario.id());
+        return ResponseEntity.status(resultado.isReservado() ? HttpStatus.OK : HttpStatus.CONFLICT).body(resultado);
+    }
+
+    // O usuário que reserva vem do token
     @PostMapping("/{id}/reservar")
-    public Servico reservarServico(@PathVariable Long id, @RequestParam Long userId){
-        return servicoService.reservarServico(id, userId);
+    public ServicoDetalheDTO reservarServico(@PathVariable Long id, @AuthenticationPrincipal Autenticado usuario){
+        return ServicoDetalheDTO.de(servicoService.reservarServico(id, usuario.id()));
     }
 }
@@ -1,8 +1,13 @@
 package com.agendafacil.backend.controller;
 
 import com.agendafacil.backend.DTO.LoginDTO;
+import com.agendafacil.backend.DTO.SessaoDTO;
 import com.agendafacil.backend.DTO.UserDTO;
+import com.agendafacil.backend.DTO.UsuarioResumoDTO;
 import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.service.TokenService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+import com.agendafacil.backend.service.TokenService.Papel;
 import com.agendafacil.backend.service.UserService;
 
 import java.util.List;
@@ -15,20 +20,24 @@ public class UserController {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private TokenService tokenService;
 
     @PostMapping("/register")
-    public User register(@RequestBody UserDTO userDTO) throws Exception {
+    public UsuarioResumoDTO register(@RequestBody UserDTO userDTO) throws Exception {
         User user = new User(userDTO.getNome_completo(),userDTO.getEmail(),userDTO.getTelefone(), userDTO.getSenha());
-        return userService.register(user);
+        return UsuarioResumoDTO.de(userService.register(user));
     }
 
     @PostMapping("/login")
-    public User login(@RequestBody LoginDTO loginDTO) throws Exception {
-        return userService.login(loginDTO.getEmail(),loginDTO.getSenha());
+    public SessaoDTO<UsuarioResumoDTO> login(@RequestBody LoginDTO loginDTO) throws Exception {
+        User user = userService.login(loginDTO.getEmail(),loginDTO.getSenha());
+        return new SessaoDTO<>(UsuarioResumoDTO.de(user), Papel.USUARIO.name(),
+            tokenService.emitir(new Autenticado(user.getId(), Papel.USUARIO)));
     }
 
     @GetMapping("/users")
-    public List<User> getAllUsers() {
-    return userService.findAll();
-}
+    public List<UsuarioResumoDTO> getAllUsers() {
+        return userService.findAll().stream().map(UsuarioResumoDTO::de).toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.agendafacil.backend.event;
+
+import java.time.LocalDate;
+
+// Publicado quando um agendamento é gravado; os ouvintes só agem depois do commit
+public record AgendamentoCriadoEvent(Long agendamentoId, Long empresaId, LocalDate dia, int primeiroSlot, int quantidadeSlots) {}
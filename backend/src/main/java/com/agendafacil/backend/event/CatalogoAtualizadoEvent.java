@@ -0,0 +1,8 @@
+package com.agendafacil.backend.event;
+
+import java.util.List;
+
+import com.agendafacil.backend.DTO.EventoServicoDTO;
+
+// Publicado pelo CatalogoServicos depois de trocar o snapshot, com o que mudou
+public record CatalogoAtualizadoEvent(List<EventoServicoDTO> eventos) {}
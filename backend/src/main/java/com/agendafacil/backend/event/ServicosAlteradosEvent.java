@@ -0,0 +1,12 @@
+package com.agendafacil.backend.event;
+
+import java.util.Collection;
+import java.util.List;
+
+// Publicado quando serviços são criados, removidos ou reservados
+public record ServicosAlteradosEvent(Collection<Long> servicoIds) {
+
+    public static ServicosAlteradosEvent de(Long servicoId) {
+        return new ServicosAlteradosEvent(List.of(servicoId));
+    }
+}
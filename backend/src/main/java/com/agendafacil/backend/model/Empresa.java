@@ -3,7 +3,13 @@ package com.agendafacil.backend.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -18,11 +24,14 @@ import lombok.Getter;
 import lombok.Setter;
 
 
+// No cache de segundo nível (regiões em cache/hibernate.conf); a lista de serviços não entra
 @Entity
 @Data
 @Getter
 @Setter
 @Table(name = "empresas")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "empresas")
+@NaturalIdCache(region = "empresas-cnpj")
 public class Empresa {
 
     private @Id @GeneratedValue Long id;
@@ -32,9 +41,12 @@ public class Empresa {
 
     @Column(nullable = false, unique = true)
     private String razao_social;
+    @NaturalId(mutable = true)
     private String cnpj;
     private String email;
     private String telefone;
+    // Como em User: aceita no JSON de entrada e nunca sai na resposta
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String senha;
 
     @OneToMany(mappedBy = "empresa", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -0,0 +1,68 @@
+package com.agendafacil.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Evento do outbox (eventos_saida), ainda não entregue ao destino
+@Entity
+@Getter
+@Setter
+@Table(name = "eventos_saida")
+public class EventoSaida {
+    public static final String SERVICO_CRIADO = "servico.criado";
+    public static final String SERVICO_RESERVADO = "servico.reservado";
+    public static final String SERVICO_REMOVIDO = "servico.removido";
+    public static final String AGENDAMENTO_CRIADO = "agendamento.criado";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "eventos_saida_seq")
+    @SequenceGenerator(name = "eventos_saida_seq", sequenceName = "eventos_saida_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String tipo;
+
+    // Serviço ou agendamento a que o evento se refere
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    // JSON com o estado no momento da escrita
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    // null quando as tentativas acabaram
+    @Column(name = "proxima_tentativa")
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ultimo_erro", length = 500)
+    private String ultimoErro;
+
+    public EventoSaida(){}
+
+    public EventoSaida(String tipo, Long agregadoId, Long empresaId, String payload, LocalDateTime criadoEm){
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.empresaId = empresaId;
+        this.payload = payload;
+        this.criadoEm = criadoEm;
+        this.proximaTentativa = criadoEm;
+    }
+}
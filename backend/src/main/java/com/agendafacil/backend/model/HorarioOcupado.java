@@ -0,0 +1,49 @@
+package com.agendafacil.backend.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+// Uma faixa de horário ocupada na agenda da empresa. A chave única
+// (empresa_id, dia, slot) garante que não existam agendamentos sobrepostos.
+@Entity
+@Getter
+@Setter
+@Table(name = "horarios_ocupados",
+    uniqueConstraints = @UniqueConstraint(name = "uk_horarios_ocupados", columnNames = {"empresa_id", "dia", "slot"}))
+public class HorarioOcupado {
+    private @Id @GeneratedValue(strategy = GenerationType.IDENTITY) Long id;
+
+    @Column(name = "empresa_id", nullable = false)
+    private Long empresaId;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private int slot;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "agendamento_id", nullable = false)
+    private Agendamento agendamento;
+
+    public HorarioOcupado(){}
+
+    public HorarioOcupado(Long empresaId, LocalDate dia, int slot, Agendamento agendamento){
+        this.empresaId = empresaId;
+        this.dia = dia;
+        this.slot = slot;
+        this.agendamento = agendamento;
+    }
+}
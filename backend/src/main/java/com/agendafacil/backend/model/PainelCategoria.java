@@ -0,0 +1,44 @@
+package com.agendafacil.backend.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Totais de uma categoria no painel da empresa: serviços cadastrados e, deles, os reservados
+@Entity
+@Getter
+@Setter
+@Table(name = "painel_categorias")
+@IdClass(PainelCategoria.Chave.class)
+public class PainelCategoria {
+    public record Chave(Long empresaId, String categoria) implements Serializable {}
+
+    @Id
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    @Id
+    @Column(length = 100)
+    private String categoria;
+
+    @Column(nullable = false)
+    private long servicos;
+
+    @Column(nullable = false)
+    private long reservas;
+
+    // Soma dos preços dos serviços reservados
+    @Column(nullable = false)
+    private BigDecimal receita;
+
+    // Soma de duracao_minutos dos serviços reservados
+    @Column(nullable = false)
+    private long minutos;
+}
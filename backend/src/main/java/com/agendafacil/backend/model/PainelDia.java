@@ -0,0 +1,43 @@
+package com.agendafacil.backend.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Reservas de uma categoria num dia (o dia de Servico.reservadoEm) no painel da empresa
+@Entity
+@Getter
+@Setter
+@Table(name = "painel_dias")
+@IdClass(PainelDia.Chave.class)
+public class PainelDia {
+    public record Chave(Long empresaId, LocalDate dia, String categoria) implements Serializable {}
+
+    @Id
+    @Column(name = "empresa_id")
+    private Long empresaId;
+
+    @Id
+    private LocalDate dia;
+
+    @Id
+    @Column(length = 100)
+    private String categoria;
+
+    @Column(nullable = false)
+    private long reservas;
+
+    @Column(nullable = false)
+    private BigDecimal receita;
+
+    @Column(nullable = false)
+    private long minutos;
+}
@@ -1,6 +1,7 @@
 package com.agendafacil.backend.model;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
@@ -11,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -20,7 +22,11 @@ import lombok.Setter;
 @Setter
 @Table(name = "servicos")
 public class Servico {
-    private @Id @GeneratedValue(strategy = GenerationType.IDENTITY) Long id;
+    // Ids reservados em blocos de 50 pela sequência, o que permite insert em batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "servicos_seq")
+    @SequenceGenerator(name = "servicos_seq", sequenceName = "servicos_seq", allocationSize = 50)
+    private Long id;
 
     @Column(nullable = false, length = 150)
     private String nome;
@@ -44,6 +50,10 @@ public class Servico {
     @JoinColumn(name = "usuario_agendado_id")
     private User usuarioAgendado;
 
+    // Quando foi reservado: o dia da reserva no painel da empresa
+    @Column(name = "reservado_em")
+    private LocalDateTime reservadoEm;
+
     @ManyToOne
     @JoinColumn(name = "empresa_id", nullable = false)
     @JsonBackReference
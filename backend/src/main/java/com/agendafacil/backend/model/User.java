@@ -1,5 +1,12 @@
 package com.agendafacil.backend.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -13,13 +20,18 @@ import lombok.*;
 @Getter
 @Setter
 @Table(name = "usuarios")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@NaturalIdCache(region = "usuarios-email")
 public class User {
     private @Id @GeneratedValue(strategy = GenerationType.IDENTITY) Long id;
     private String nome_completo;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
     private String telefone;
+    // Só entra pelo JSON, nunca sai: entidade serializada por engano não expõe a senha
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String senha;
 
     public User(){}
@@ -0,0 +1,10 @@
+package com.agendafacil.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.agendafacil.backend.model.Agendamento;
+
+public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>{
+
+    boolean existsByServicoId(Long servicoId);
+}
@@ -0,0 +1,37 @@
+package com.agendafacil.backend.repository;
+
+import java.math.BigDecimal;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+
+// Posição do último serviço de uma página do filtro. Vale para qualquer OrdemServicos,
+// porque todas usam as mesmas três colunas. No texto: "<preco>_<duracao>_<id>"
+public record CursorServicos(BigDecimal preco, int duracao, long id) {
+
+    public static CursorServicos de(ServicoResumoDTO servico) {
+        return new CursorServicos(servico.getPreco(), servico.getDuracao_minutos(), servico.getId());
+    }
+
+    // IllegalArgumentException se o texto não veio de toString
+    public static CursorServicos de(String texto) {
+        String[] partes = texto.split("_");
+        if (partes.length != 3) {
+            throw new IllegalArgumentException("Cursor inválido: " + texto);
+        }
+        return new CursorServicos(new BigDecimal(partes[0]), Integer.parseInt(partes[1]), Long.parseLong(partes[2]));
+    }
+
+    Comparable<?> valor(String atributo) {
+        return switch (atributo) {
+            case "preco" -> preco;
+            case "duracao_minutos" -> duracao;
+            case "id" -> id;
+            default -> throw new IllegalArgumentException(atributo);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return preco.toPlainString() + "_" + duracao + "_" + id;
+    }
+}
@@ -1,10 +1,56 @@
 package com.agendafacil.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import com.agendafacil.backend.model.Empresa;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface EmpresaRepository extends JpaRepository<Empresa,Long>{
-    Optional<Empresa> findByCnpj(String cnpj);
+import com.agendafacil.backend.DTO.EmpresaResumoDTO;
+import com.agendafacil.backend.model.Empresa;
+
+public interface EmpresaRepository extends JpaRepository<Empresa,Long>, EmpresaRepositoryCustom {
+    // Email não é único em empresas: a busca vai para o query cache, invalidado a cada escrita na tabela
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "empresas-email")
+    })
     Optional<Empresa> findByEmail(String email);
+
+    @Query("select new com.agendafacil.backend.DTO.EmpresaResumoDTO(e.id, e.nome, e.razao_social, e.cnpj, e.email, e.telefone) "
+        + "from Empresa e where e.id = :id")
+    Optional<EmpresaResumoDTO> findResumoById(@Param("id") Long id);
+
+    @Query("select new com.agendafacil.backend.DTO.EmpresaResumoDTO(e.id, e.nome, e.razao_social, e.cnpj, e.email, e.telefone) "
+        + "from Empresa e order by e.id")
+    List<EmpresaResumoDTO> findAllResumos();
+
+    @Query("select new com.agendafacil.backend.DTO.EmpresaResumoDTO(e.id, e.nome, e.razao_social, e.cnpj, e.email, e.telefone) "
+        + "from Empresa e where e.id > :after order by e.id")
+    List<EmpresaResumoDTO> findResumosApos(@Param("after") Long after, Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.agendafacil.backend.DTO.EmpresaResumoDTO(e.id, e.nome, e.razao_social, e.cnpj, e.email, e.telefone) "
+        + "from Empresa e order by e.id")
+    Stream<EmpresaResumoDTO> streamResumos();
+
+    @Query("select e.id from Empresa e where e.id > :after order by e.id")
+    List<Long> findIdsApos(@Param("after") Long after, Limit limit);
+
+    @Query("select e.id from Empresa e where e.id in :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.cnpj from Empresa e where e.cnpj in :cnpjs")
+    List<String> findCnpjsExistentes(@Param("cnpjs") Collection<String> cnpjs);
+
+    @Query("select e.razao_social from Empresa e where e.razao_social in :razoesSociais")
+    List<String> findRazoesSociaisExistentes(@Param("razoesSociais") Collection<String> razoesSociais);
 }
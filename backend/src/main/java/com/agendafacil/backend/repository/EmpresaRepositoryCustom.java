@@ -0,0 +1,11 @@
+package com.agendafacil.backend.repository;
+
+import java.util.Optional;
+
+import com.agendafacil.backend.model.Empresa;
+
+public interface EmpresaRepositoryCustom {
+
+    // Pelo natural id: repetida, não vai ao banco (caches empresas-cnpj e empresas)
+    Optional<Empresa> findByCnpj(String cnpj);
+}
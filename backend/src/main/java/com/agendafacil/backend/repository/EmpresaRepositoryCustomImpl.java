@@ -0,0 +1,26 @@
+package com.agendafacil.backend.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.agendafacil.backend.model.Empresa;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class EmpresaRepositoryCustomImpl implements EmpresaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Empresa> findByCnpj(String cnpj) {
+        if (cnpj == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Empresa.class).loadOptional(cnpj);
+    }
+}
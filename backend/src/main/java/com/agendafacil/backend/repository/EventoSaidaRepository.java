@@ -0,0 +1,34 @@
+package com.agendafacil.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.LockOptions;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.agendafacil.backend.model.EventoSaida;
+
+public interface EventoSaidaRepository extends JpaRepository<EventoSaida, Long> {
+
+    // Lote de eventos vencidos com FOR UPDATE SKIP LOCKED: linhas que outra instância já
+    // reservou ficam de fora em vez de esperar, então cada evento sai por um despachante só.
+    // O dialeto do H2 não tem SKIP LOCKED e gera FOR UPDATE comum: lá os despachantes esperam a vez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("select e from EventoSaida e where e.proximaTentativa <= :agora order by e.proximaTentativa, e.id")
+    List<EventoSaida> reservarVencidos(@Param("agora") LocalDateTime agora, Limit limit);
+
+    @Query("select new com.agendafacil.backend.repository.ResumoEventosSaida(count(e.proximaTentativa), "
+        + "min(case when e.proximaTentativa is not null then e.criadoEm end), count(e) - count(e.proximaTentativa)) "
+        + "from EventoSaida e")
+    ResumoEventosSaida resumir();
+}
@@ -0,0 +1,16 @@
+package com.agendafacil.backend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.agendafacil.backend.model.HorarioOcupado;
+
+public interface HorarioOcupadoRepository extends JpaRepository<HorarioOcupado, Long>{
+
+    @Query("select h.slot from HorarioOcupado h where h.empresaId = :empresaId and h.dia = :dia")
+    List<Integer> findSlots(@Param("empresaId") Long empresaId, @Param("dia") LocalDate dia);
+}
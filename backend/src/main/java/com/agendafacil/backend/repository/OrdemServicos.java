@@ -0,0 +1,40 @@
+package com.agendafacil.backend.repository;
+
+import java.util.List;
+
+// Ordens do filtro de serviços. Cada uma termina no id, para o cursor nunca empatar, e
+// segue as colunas de um índice de V5__indices_filtro_servicos (o banco não precisa ordenar)
+public enum OrdemServicos {
+    PRECO("preco", false, "preco", "duracao_minutos", "id"),
+    PRECO_DESC("-preco", true, "preco", "duracao_minutos", "id"),
+    DURACAO("duracao", false, "duracao_minutos", "preco", "id"),
+    DURACAO_DESC("-duracao", true, "duracao_minutos", "preco", "id");
+
+    private final String parametro;
+    private final boolean decrescente;
+    private final List<String> atributos;
+
+    OrdemServicos(String parametro, boolean decrescente, String... atributos) {
+        this.parametro = parametro;
+        this.decrescente = decrescente;
+        this.atributos = List.of(atributos);
+    }
+
+    public boolean decrescente() {
+        return decrescente;
+    }
+
+    public List<String> atributos() {
+        return atributos;
+    }
+
+    // "preco", "-preco", "duracao" ou "-duracao"; null se não for nenhuma
+    public static OrdemServicos de(String parametro) {
+        for (OrdemServicos ordem : values()) {
+            if (ordem.parametro.equals(parametro)) {
+                return ordem;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.agendafacil.backend.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.agendafacil.backend.model.PainelCategoria;
+
+public interface PainelCategoriaRepository extends JpaRepository<PainelCategoria, PainelCategoria.Chave> {
+
+    List<PainelCategoria> findByEmpresaIdOrderByCategoria(Long empresaId);
+
+    // Soma atômica: a linha fica presa até o commit de quem somou. 0 quando a linha ainda não existe
+    // (PainelEmpresas cria e soma de novo)
+    @Modifying
+    @Query("update PainelCategoria p set p.servicos = p.servicos + :servicos, p.reservas = p.reservas + :reservas, "
+        + "p.receita = p.receita + :receita, p.minutos = p.minutos + :minutos "
+        + "where p.empresaId = :empresaId and p.categoria = :categoria")
+    int somar(@Param("empresaId") Long empresaId, @Param("categoria") String categoria, @Param("servicos") long servicos,
+        @Param("reservas") long reservas, @Param("receita") BigDecimal receita, @Param("minutos") long minutos);
+
+    // Tira do contexto as linhas já lidas, que o delete e o recalcular deixam velhas
+    @Modifying(clearAutomatically = true)
+    @Query("delete from PainelCategoria p where p.empresaId = :empresaId")
+    int apagarDaEmpresa(@Param("empresaId") Long empresaId);
+
+    // Refaz as linhas da empresa a partir de servicos
+    @Modifying
+    @Query("insert into PainelCategoria (empresaId, categoria, servicos, reservas, receita, minutos) "
+        + "select s.empresa.id, s.categoria, count(s), sum(case when s.agendado = true then 1 else 0 end), "
+        + "sum(case when s.agendado = true then s.preco else 0 end), sum(case when s.agendado = true then s.duracao_minutos else 0 end) "
+        + "from Servico s where s.empresa.id = :empresaId group by s.empresa.id, s.categoria")
+    int recalcular(@Param("empresaId") Long empresaId);
+}
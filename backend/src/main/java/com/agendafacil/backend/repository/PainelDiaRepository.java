@@ -0,0 +1,37 @@
+package com.agendafacil.backend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.agendafacil.backend.model.PainelDia;
+
+public interface PainelDiaRepository extends JpaRepository<PainelDia, PainelDia.Chave> {
+
+    // Pela chave primária (empresa_id, dia, categoria)
+    @Query("select p from PainelDia p where p.empresaId = :empresaId and p.dia between :de and :ate order by p.dia, p.categoria")
+    List<PainelDia> findPeriodo(@Param("empresaId") Long empresaId, @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Como PainelCategoriaRepository.somar
+    @Modifying
+    @Query("update PainelDia p set p.reservas = p.reservas + :reservas, p.receita = p.receita + :receita, "
+        + "p.minutos = p.minutos + :minutos where p.empresaId = :empresaId and p.dia = :dia and p.categoria = :categoria")
+    int somar(@Param("empresaId") Long empresaId, @Param("dia") LocalDate dia, @Param("categoria") String categoria,
+        @Param("reservas") long reservas, @Param("receita") BigDecimal receita, @Param("minutos") long minutos);
+
+    @Modifying
+    @Query("delete from PainelDia p where p.empresaId = :empresaId")
+    int apagarDaEmpresa(@Param("empresaId") Long empresaId);
+
+    @Modifying
+    @Query("insert into PainelDia (empresaId, dia, categoria, reservas, receita, minutos) "
+        + "select s.empresa.id, cast(s.reservadoEm as LocalDate), s.categoria, count(s), sum(s.preco), sum(s.duracao_minutos) "
+        + "from Servico s where s.empresa.id = :empresaId and s.agendado = true and s.reservadoEm is not null "
+        + "group by s.empresa.id, cast(s.reservadoEm as LocalDate), s.categoria")
+    int recalcular(@Param("empresaId") Long empresaId);
+}
@@ -0,0 +1,7 @@
+package com.agendafacil.backend.repository;
+
+import java.time.LocalDateTime;
+
+// Situação do outbox: eventos a entregar, o mais antigo deles (null sem pendentes)
+// e os parados por falta de tentativas
+public record ResumoEventosSaida(Long pendentes, LocalDateTime maisAntigo, Long parados) {}
@@ -0,0 +1,38 @@
+package com.agendafacil.backend.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.agendafacil.backend.model.Servico;
+
+// Condições do filtro de serviços (GET /servicos/filtro), combinadas com Specification.and
+public final class ServicoFiltros {
+
+    private ServicoFiltros() {}
+
+    public static Specification<Servico> livres() {
+        return (s, consulta, cb) -> cb.isFalse(s.get("agendado"));
+    }
+
+    public static Specification<Servico> daCategoria(String categoria) {
+        return (s, consulta, cb) -> cb.equal(s.get("categoria"), categoria);
+    }
+
+    // Compara a coluna empresa_id, sem join com empresas
+    public static Specification<Servico> daEmpresa(Long empresaId) {
+        return (s, consulta, cb) -> cb.equal(s.get("empresa").get("id"), empresaId);
+    }
+
+    public static Specification<Servico> precoMinimo(BigDecimal preco) {
+        return (s, consulta, cb) -> cb.greaterThanOrEqualTo(s.get("preco"), preco);
+    }
+
+    public static Specification<Servico> precoMaximo(BigDecimal preco) {
+        return (s, consulta, cb) -> cb.lessThanOrEqualTo(s.get("preco"), preco);
+    }
+
+    public static Specification<Servico> duracaoMaxima(int minutos) {
+        return (s, consulta, cb) -> cb.lessThanOrEqualTo(s.get("duracao_minutos"), minutos);
+    }
+}
@@ -1,16 +1,87 @@
 package com.agendafacil.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.agendafacil.backend.DTO.ServicoDetalheDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
 import com.agendafacil.backend.model.Servico;
-import com.agendafacil.backend.model.Empresa;
-
-public interface ServicoRepository extends JpaRepository<Servico, Long>{
-    Optional<Servico> findByNome(String nome);
-    List<Servico> findByEmpresaId(Long empresaId);
-    List<Servico> findByCategoria(String categoria);
-    List<Servico> findByAgendadoFalse();
-    List<Servico> findByEmpresa(Empresa empresa);
+import com.agendafacil.backend.model.User;
+
+public interface ServicoRepository extends JpaRepository<Servico, Long>, ServicoRepositoryCustom {
+    Optional<Servico> findFirstByNomeOrderByIdAsc(String nome);
+
+    @Query("select new com.agendafacil.backend.DTO.ServicoResumoDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, s.empresa.id) "
+        + "from Servico s where s.id = :id")
+    Optional<ServicoResumoDTO> findResumoById(@Param("id") Long id);
+
+    // Serviços da empresa com quem agendou, numa única consulta (sem N+1)
+    @Query("select new com.agendafacil.backend.DTO.ServicoDetalheDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, u.id, u.nome_completo) "
+        + "from Servico s left join s.usuarioAgendado u where s.empresa.id = :empresaId order by s.id")
+    List<ServicoDetalheDTO> findDetalhesByEmpresaId(@Param("empresaId") Long empresaId);
+
+    // Carga do catálogo em memória: tudo de uma vez ou só as linhas alteradas
+    @Query("select new com.agendafacil.backend.DTO.ServicoResumoDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, s.empresa.id) "
+        + "from Servico s order by s.id")
+    List<ServicoResumoDTO> findAllResumos();
+
+    @Query("select new com.agendafacil.backend.DTO.ServicoResumoDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, s.empresa.id) "
+        + "from Servico s where s.id in :ids")
+    List<ServicoResumoDTO> findResumosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.agendafacil.backend.DTO.ServicoDetalheDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, u.id, u.nome_completo) "
+        + "from Servico s left join s.usuarioAgendado u order by s.id")
+    List<ServicoDetalheDTO> findAllDetalhes();
+
+    @Query("select new com.agendafacil.backend.DTO.ServicoDetalheDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, u.id, u.nome_completo) "
+        + "from Servico s left join s.usuarioAgendado u where s.id in :ids")
+    List<ServicoDetalheDTO> findDetalhesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Paginação por cursor (keyset): usa o id como marcador, sem OFFSET
+    @Query("select new com.agendafacil.backend.DTO.ServicoResumoDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, s.empresa.id) "
+        + "from Servico s where s.agendado = false and s.id > :after order by s.id")
+    List<ServicoResumoDTO> findDisponiveisApos(@Param("after") Long after, Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.agendafacil.backend.DTO.ServicoResumoDTO(s.id, s.nome, s.categoria, s.descricao, s.duracao_minutos, s.preco, s.agendado, s.empresa.id) "
+        + "from Servico s where s.agendado = false order by s.id")
+    Stream<ServicoResumoDTO> streamDisponiveis();
+
+    // Reserva atômica: só altera a linha se ela ainda estiver livre.
+    // Retorna 0 quando outro usuário reservou antes (ou o serviço não existe).
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Servico s set s.agendado = true, s.usuarioAgendado = :usuario, s.reservadoEm = :agora "
+        + "where s.id = :id and s.agendado = false")
+    int reservarSeLivre(@Param("id") Long id, @Param("usuario") User usuario, @Param("agora") LocalDateTime agora);
+
+    // Reserva em lote: trava as linhas em ordem de id (FOR UPDATE), então dois lotes com
+    // serviços em comum esperam um pelo outro em vez de cada um travar uma parte e esperar a outra
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Servico s where s.id in :ids order by s.id")
+    List<Servico> travarPorIds(@Param("ids") Collection<Long> ids);
+
+    // Um UPDATE só para o lote; com as linhas já travadas, reserva todas ou (se alguma já
+    // estava reservada) nem todas, e quem chama desfaz a transação
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Servico s set s.agendado = true, s.usuarioAgendado = :usuario, s.reservadoEm = :agora "
+        + "where s.id in :ids and s.agendado = false")
+    int reservarTodosSeLivres(@Param("ids") Collection<Long> ids, @Param("usuario") User usuario, @Param("agora") LocalDateTime agora);
+
+    @Query("select s.reservadoEm from Servico s where s.id = :id")
+    Optional<LocalDateTime> findReservadoEmById(@Param("id") Long id);
 }
@@ -0,0 +1,14 @@
+package com.agendafacil.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.Servico;
+
+public interface ServicoRepositoryCustom {
+
+    // Até "limite" serviços que passam no filtro, na ordem pedida, depois do cursor (null = do início)
+    List<ServicoResumoDTO> filtrar(Specification<Servico> filtro, OrdemServicos ordem, CursorServicos apos, int limite);
+}
@@ -0,0 +1,70 @@
+package com.agendafacil.backend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.Servico;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+// Filtro com Criteria: projeta direto no ServicoResumoDTO e pagina por keyset nas colunas
+// da ordem, sem OFFSET
+public class ServicoRepositoryCustomImpl implements ServicoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ServicoResumoDTO> filtrar(Specification<Servico> filtro, OrdemServicos ordem, CursorServicos apos, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ServicoResumoDTO> consulta = cb.createQuery(ServicoResumoDTO.class);
+        Root<Servico> s = consulta.from(Servico.class);
+        consulta.select(cb.construct(ServicoResumoDTO.class, s.get("id"), s.get("nome"), s.get("categoria"),
+            s.get("descricao"), s.get("duracao_minutos"), s.get("preco"), s.get("agendado"), s.get("empresa").get("id")));
+
+        List<Predicate> condicoes = new ArrayList<>();
+        Predicate doFiltro = filtro.toPredicate(s, consulta, cb);
+        if (doFiltro != null) {
+            condicoes.add(doFiltro);
+        }
+        if (apos != null) {
+            condicoes.add(depoisDe(cb, s, ordem, apos));
+        }
+        consulta.where(condicoes.toArray(Predicate[]::new));
+
+        List<Order> ordenacao = new ArrayList<>();
+        for (String atributo : ordem.atributos()) {
+            ordenacao.add(ordem.decrescente() ? cb.desc(s.get(atributo)) : cb.asc(s.get(atributo)));
+        }
+        consulta.orderBy(ordenacao);
+
+        return entityManager.createQuery(consulta).setMaxResults(limite).getResultList();
+    }
+
+    // (a, b, id) depois de (va, vb, vid): a > va or (a = va and (b > vb or (b = vb and id > vid))).
+    // O "a >= va" redundante na frente é o que o banco usa para começar a leitura do índice no cursor
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Predicate depoisDe(CriteriaBuilder cb, Root<Servico> s, OrdemServicos ordem, CursorServicos cursor) {
+        List<String> atributos = ordem.atributos();
+        Predicate depois = null;
+        for (int i = atributos.size() - 1; i >= 0; i--) {
+            Path<Comparable> campo = s.get(atributos.get(i));
+            Comparable valor = cursor.valor(atributos.get(i));
+            Predicate passou = ordem.decrescente() ? cb.lessThan(campo, valor) : cb.greaterThan(campo, valor);
+            depois = depois == null ? passou : cb.or(passou, cb.and(cb.equal(campo, valor), depois));
+        }
+        Path<Comparable> primeiro = s.get(atributos.get(0));
+        Comparable valor = cursor.valor(atributos.get(0));
+        return cb.and(ordem.decrescente() ? cb.lessThanOrEqualTo(primeiro, valor) : cb.greaterThanOrEqualTo(primeiro, valor), depois);
+    }
+}
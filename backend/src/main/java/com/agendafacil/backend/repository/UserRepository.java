@@ -1,12 +1,8 @@
 package com.agendafacil.backend.repository;
 
-import java.util.Optional;
-
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.agendafacil.backend.model.User;
 
 
-public interface UserRepository extends JpaRepository<User, Long>{
-    Optional<User> findByEmail(String email);
-    
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 }
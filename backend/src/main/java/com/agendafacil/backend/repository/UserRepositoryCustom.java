@@ -0,0 +1,11 @@
+package com.agendafacil.backend.repository;
+
+import java.util.Optional;
+
+import com.agendafacil.backend.model.User;
+
+public interface UserRepositoryCustom {
+
+    // Pelo natural id: repetida, não vai ao banco (caches usuarios-email e usuarios)
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,115 @@
+package com.agendafacil.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.DTO.AgendamentoDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.event.AgendamentoCriadoEvent;
+import com.agendafacil.backend.model.Agendamento;
+import com.agendafacil.backend.model.HorarioOcupado;
+import com.agendafacil.backend.repository.AgendamentoRepository;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.HorarioOcupadoRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class AgendamentoService {
+    public static final int DIAS_MAXIMOS_CONSULTA = 31;
+    public static final int DIAS_MAXIMOS_PROXIMO_HORARIO = 60;
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final HorarioOcupadoRepository horarioOcupadoRepository;
+    private final ServicoRepository servicoRepository;
+    private final EmpresaRepository empresaRepository;
+    private final UserRepository userRepository;
+    private final DisponibilidadeIndex disponibilidadeIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConsistenciaLeitura consistenciaLeitura;
+    private final SaidaEventos saidaEventos;
+
+    public List<LocalDateTime> horariosLivres(Long servicoId, LocalDate de, LocalDate ate){
+        if(ate.isBefore(de) || de.plusDays(DIAS_MAXIMOS_CONSULTA).isBefore(ate)){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Intervalo de datas inválido (máximo de " + DIAS_MAXIMOS_CONSULTA + " dias)");
+        }
+        ServicoResumoDTO servico = buscarServico(servicoId);
+        return disponibilidadeIndex.horariosLivres(servico.getEmpresaId(), servico.getDuracao_minutos(), de, ate, LocalDateTime.now());
+    }
+
+    public LocalDateTime proximoHorarioLivre(Long servicoId, LocalDateTime aPartirDe){
+        ServicoResumoDTO servico = buscarServico(servicoId);
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime inicio = aPartirDe == null || aPartirDe.isBefore(agora) ? agora : aPartirDe;
+        return disponibilidadeIndex.primeiroHorarioLivre(servico.getEmpresaId(), servico.getDuracao_minutos(), inicio, DIAS_MAXIMOS_PROXIMO_HORARIO)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nenhum horário livre nos próximos " + DIAS_MAXIMOS_PROXIMO_HORARIO + " dias"));
+    }
+
+    @Transactional
+    public AgendamentoDTO agendar(AgendamentoDTO agendamentoDTO){
+        ServicoResumoDTO servico = buscarServico(agendamentoDTO.getServicoId());
+        LocalDateTime inicio = agendamentoDTO.getInicio();
+        if(inicio == null || inicio.isBefore(LocalDateTime.now())){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Horário inválido");
+        }
+        int primeiroSlot = disponibilidadeIndex.slotDoInicio(inicio, servico.getDuracao_minutos());
+        int quantidade = disponibilidadeIndex.slotsNecessarios(servico.getDuracao_minutos());
+        Long empresaId = servico.getEmpresaId();
+        LocalDate dia = inicio.toLocalDate();
+
+        if(!userRepository.existsById(agendamentoDTO.getUserId())){
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+        }
+        // Recusa cedo pelo índice; a chave única no banco é quem decide de verdade
+        if(!disponibilidadeIndex.estaLivre(empresaId, dia, primeiroSlot, quantidade)){
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Horário indisponível!");
+        }
+
+        Agendamento agendamento = agendamentoRepository.save(new Agendamento(
+            servicoRepository.getReferenceById(servico.getId()),
+            empresaRepository.getReferenceById(empresaId),
+            userRepository.getReferenceById(agendamentoDTO.getUserId()),
+            inicio,
+            inicio.plusMinutes(servico.getDuracao_minutos())));
+
+        List<HorarioOcupado> horarios = new ArrayList<>();
+        for(int slot = primeiroSlot; slot < primeiroSlot + quantidade; slot++){
+            horarios.add(new HorarioOcupado(empresaId, dia, slot, agendamento));
+        }
+        try {
+            horarioOcupadoRepository.saveAllAndFlush(horarios);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Horário indisponível!");
+        }
+
+        AgendamentoDTO criado = new AgendamentoDTO();
+        criado.setId(agendamento.getId());
+        criado.setServicoId(servico.getId());
+        criado.setUserId(agendamentoDTO.getUserId());
+        criado.setInicio(agendamento.getInicio());
+        criado.setFim(agendamento.getFim());
+
+        saidaEventos.agendamentoCriado(criado, empresaId);
+        eventPublisher.publishEvent(new AgendamentoCriadoEvent(agendamento.getId(), empresaId, dia, primeiroSlot, quantidade));
+        consistenciaLeitura.registrarEscrita(agendamentoDTO.getUserId());
+        return criado;
+    }
+
+    private ServicoResumoDTO buscarServico(Long servicoId){
+        return servicoRepository.findResumoById(servicoId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Servico não encontrado"));
+    }
+}
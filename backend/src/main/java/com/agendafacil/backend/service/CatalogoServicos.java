@@ -0,0 +1,393 @@
+package com.agendafacil.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.agendafacil.backend.DTO.EventoServicoDTO;
+import com.agendafacil.backend.DTO.ServicoDetalheDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.event.CatalogoAtualizadoEvent;
+import com.agendafacil.backend.event.ServicosAlteradosEvent;
+import com.agendafacil.backend.repository.ServicoRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Catálogo de serviços em memória, indexado por id, categoria e empresa.
+// Cada Snapshot é imutável e fica num campo volatile, então as leituras não vão
+// ao banco nem pegam lock. O ServicoService publica ServicosAlteradosEvent nas
+// escritas e, só depois do commit, o catálogo relê as linhas alteradas e publica
+// um snapshot novo: escrita desfeita nunca aparece aqui.
+// O que muda por fora (outra instância, SQL direto) entra na recarga completa,
+// feita quando o snapshot fica mais velho que catalogo.idade-maxima.
+// A busca por texto usa o IndiceBusca do próprio snapshot, publicado junto com ele. Quando
+// o delta dele cresce, a compactação roda numa thread à parte e entra num snapshot seguinte.
+// Mapas e listas do snapshot são MapaFatiado e ListaPorId: o snapshot novo de uma escrita
+// compartilha com o anterior tudo que ela não tocou, e publicá-lo custa o tamanho da
+// mudança, não o do catálogo (a escrita espera por isso no lock e no AFTER_COMMIT).
+// Cada snapshot leva uma versão global e a versão de cada empresa (a versão global
+// em que ela mudou por último); os controllers montam ETags com elas.
+// A cada snapshot novo, o que mudou em relação ao anterior (criado, agendado,
+// removido) sai num CatalogoAtualizadoEvent para quem acompanha ao vivo.
+@Component
+public class CatalogoServicos {
+
+    private final ServicoRepository servicoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long idadeMaximaMs;
+
+    // Só uma escrita (recarga ou atualização) por vez; leitura nunca espera por ela
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final LongAdder atualizacoes = new LongAdder();
+    private final LongAdder recargas = new LongAdder();
+    // Uma compactação do índice de busca por vez, fora da thread da escrita
+    private final ExecutorService compactacoes =
+        Executors.newSingleThreadExecutor(Thread.ofPlatform().name("catalogo-compactacao").daemon().factory());
+    private final AtomicBoolean compactando = new AtomicBoolean();
+    // Versões são contadores em memória: a instância entra na ETag para um reinício não repetir versões
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private volatile Snapshot snapshot;
+
+    record Item(ServicoResumoDTO resumo, ServicoDetalheDTO detalhe) {}
+
+    record Snapshot(MapaFatiado<Long, Item> porId, ListaPorId<ServicoResumoDTO> disponiveis,
+            MapaFatiado<String, ListaPorId<ServicoResumoDTO>> porCategoria,
+            MapaFatiado<Long, ListaPorId<ServicoDetalheDTO>> porEmpresa,
+            IndiceBusca busca, long bytesEstimados, long carregadoEm, long atualizadoEm, long versao,
+            MapaFatiado<Long, Long> versoesEmpresa) {
+
+        // Mesmo conteúdo, então mesma versão e nenhum evento
+        Snapshot comBusca(IndiceBusca novaBusca) {
+            return new Snapshot(porId, disponiveis, porCategoria, porEmpresa, novaBusca, bytesEstimados, carregadoEm,
+                atualizadoEm, versao, versoesEmpresa);
+        }
+    }
+
+    public CatalogoServicos(ServicoRepository servicoRepository, ApplicationEventPublisher eventPublisher,
+            @Value("${catalogo.idade-maxima:5m}") Duration idadeMaxima) {
+        this.servicoRepository = servicoRepository;
+        this.eventPublisher = eventPublisher;
+        this.idadeMaximaMs = idadeMaxima.toMillis();
+    }
+
+    // Serviços livres, em ordem de id
+    public List<ServicoResumoDTO> disponiveis() {
+        return atual().disponiveis();
+    }
+
+    public List<ServicoResumoDTO> porCategoria(String categoria) {
+        List<ServicoResumoDTO> servicos = atual().porCategoria().get(categoria);
+        return servicos == null ? List.of() : servicos;
+    }
+
+    public List<ServicoDetalheDTO> porEmpresa(Long empresaId) {
+        List<ServicoDetalheDTO> servicos = atual().porEmpresa().get(empresaId);
+        return servicos == null ? List.of() : servicos;
+    }
+
+    // Serviços livres mais relevantes para o texto; o último termo vale como prefixo
+    public List<ServicoResumoDTO> buscar(String consulta, int limite) {
+        return atual().busca().buscar(consulta, limite);
+    }
+
+    public List<String> sugerir(String prefixo, int limite) {
+        return atual().busca().sugerir(prefixo, limite);
+    }
+
+    // Muda a cada escrita confirmada que altere algum serviço
+    public String versao() {
+        return instancia + "-" + atual().versao();
+    }
+
+    // Muda quando algum serviço da empresa muda (cadastro, reserva, remoção)
+    public String versaoEmpresa(Long empresaId) {
+        return instancia + "-e" + empresaId + "-" + atual().versoesEmpresa().getOrDefault(empresaId, 0L);
+    }
+
+    @TransactionalEventListener
+    public void aoAlterarServicos(ServicosAlteradosEvent evento) {
+        escrita.lock();
+        try {
+            // Ainda não carregado: a primeira leitura já traz tudo do banco
+            if (snapshot != null) {
+                Set<Long> alterados = new HashSet<>(evento.servicoIds());
+                trocar(aplicar(snapshot, alterados), alterados);
+                atualizacoes.increment();
+                IndiceBusca busca = snapshot.busca();
+                if (busca.precisaCompactar() && compactando.compareAndSet(false, true)) {
+                    compactacoes.execute(() -> compactarBusca(busca));
+                }
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    // Compacta sem lock (é a parte O(N)) e, no lock, leva para o índice compactado o que
+    // as escritas publicaram nesse meio tempo
+    private void compactarBusca(IndiceBusca origem) {
+        try {
+            IndiceBusca compactado = origem.compactar();
+            escrita.lock();
+            try {
+                Snapshot atual = snapshot;
+                IndiceBusca busca = atual.busca().rebasear(origem, compactado);
+                if (busca != atual.busca()) {
+                    snapshot = atual.comBusca(busca);
+                }
+            } finally {
+                escrita.unlock();
+            }
+        } finally {
+            compactando.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        compactacoes.shutdownNow();
+    }
+
+    // Garante o catálogo em memória (quem só acompanha as mudanças não faz leituras)
+    public void carregar() {
+        atual();
+    }
+
+    public void recarregar() {
+        escrita.lock();
+        try {
+            trocar(carregarTudo(snapshot), null);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        Snapshot atual = snapshot;
+        if (atual == null) {
+            return new Estatisticas(0, 0, 0, 0, 0, atualizacoes.sum(), recargas.sum());
+        }
+        long agora = System.currentTimeMillis();
+        return new Estatisticas(atual.porId().size(), atual.disponiveis().size(),
+            atual.bytesEstimados() + atual.busca().bytesEstimados(),
+            (agora - atual.carregadoEm()) / 1000.0, (agora - atual.atualizadoEm()) / 1000.0,
+            atualizacoes.sum(), recargas.sum());
+    }
+
+    // idadeSegundos: desde a última recarga completa; desdeAtualizacaoSegundos: desde o último snapshot publicado
+    public record Estatisticas(long servicos, long disponiveis, long bytesEstimados, double idadeSegundos,
+            double desdeAtualizacaoSegundos, long atualizacoes, long recargas) {}
+
+    private Snapshot atual() {
+        Snapshot atual = snapshot;
+        if (atual == null) {
+            escrita.lock();
+            try {
+                if (snapshot == null) {
+                    snapshot = carregarTudo(snapshot);
+                }
+                return snapshot;
+            } finally {
+                escrita.unlock();
+            }
+        }
+        // Vencido: uma requisição recarrega e as outras seguem com o snapshot atual
+        if (System.currentTimeMillis() - atual.carregadoEm() > idadeMaximaMs && escrita.tryLock()) {
+            try {
+                if (snapshot == atual) {
+                    trocar(carregarTudo(atual), null);
+                }
+                return snapshot;
+            } finally {
+                escrita.unlock();
+            }
+        }
+        return atual;
+    }
+
+    // Publica o snapshot e avisa o que mudou; candidatos null = comparar tudo (recarga completa)
+    private void trocar(Snapshot novo, Set<Long> candidatos) {
+        Snapshot anterior = snapshot;
+        snapshot = novo;
+        if (anterior == null) {
+            return;
+        }
+        Set<Long> ids = candidatos;
+        if (ids == null) {
+            ids = new HashSet<>(anterior.porId().keySet());
+            ids.addAll(novo.porId().keySet());
+        }
+        List<EventoServicoDTO> eventos = new ArrayList<>();
+        for (Long id : ids) {
+            EventoServicoDTO evento = mudanca(anterior.porId().get(id), novo.porId().get(id));
+            if (evento != null) {
+                eventos.add(evento);
+            }
+        }
+        if (!eventos.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogoAtualizadoEvent(eventos));
+        }
+    }
+
+    private static EventoServicoDTO mudanca(Item antes, Item depois) {
+        if (Objects.equals(antes, depois)) {
+            return null;
+        }
+        if (antes == null) {
+            return new EventoServicoDTO(EventoServicoDTO.CRIADO, depois.resumo().getId(), depois.resumo().getEmpresaId(), depois.resumo());
+        }
+        if (depois == null) {
+            return new EventoServicoDTO(EventoServicoDTO.REMOVIDO, antes.resumo().getId(), antes.resumo().getEmpresaId(), null);
+        }
+        String tipo = !antes.resumo().isAgendado() && depois.resumo().isAgendado() ? EventoServicoDTO.AGENDADO : EventoServicoDTO.ALTERADO;
+        return new EventoServicoDTO(tipo, depois.resumo().getId(), depois.resumo().getEmpresaId(), depois.resumo());
+    }
+
+    private Snapshot carregarTudo(Snapshot anterior) {
+        // Versão e eventos saem da comparação com o snapshot anterior: nada de réplica atrasada aqui
+        List<Item> itens = ConsistenciaLeitura.noPrimario(
+            () -> juntar(servicoRepository.findAllResumos(), servicoRepository.findAllDetalhes()));
+        Map<Long, Item> itensPorId = new HashMap<>();
+        long bytes = 0;
+        for (Item item : itens) {
+            itensPorId.put(item.resumo().getId(), item);
+            bytes += estimarBytes(item);
+        }
+        List<Item> ordenados = itens.stream().sorted(Comparator.comparing(item -> item.resumo().getId())).toList();
+        ListaPorId<ServicoResumoDTO> disponiveis = ListaPorId.de(
+            ordenados.stream().map(Item::resumo).filter(resumo -> !resumo.isAgendado()).toList(), ServicoResumoDTO::getId);
+        MapaFatiado<String, ListaPorId<ServicoResumoDTO>> porCategoria = agrupar(ordenados,
+            item -> item.resumo().getCategoria(), Item::resumo, ServicoResumoDTO::getId);
+        MapaFatiado<Long, ListaPorId<ServicoDetalheDTO>> porEmpresa = agrupar(ordenados,
+            item -> item.resumo().getEmpresaId(), Item::detalhe, ServicoDetalheDTO::getId);
+        MapaFatiado<Long, Item> porId = MapaFatiado.de(itensPorId);
+        IndiceBusca busca = IndiceBusca.construir(disponiveis);
+        recargas.increment();
+        long agora = System.currentTimeMillis();
+        if (anterior == null) {
+            return new Snapshot(porId, disponiveis, porCategoria, porEmpresa, busca, bytes, agora, agora, 0, MapaFatiado.vazio());
+        }
+        // Recarga periódica: só muda a versão de quem mudou por fora desde o último snapshot
+        Set<Long> empresas = new HashSet<>(anterior.porEmpresa().keySet());
+        empresas.addAll(porEmpresa.keySet());
+        empresas.removeIf(empresaId -> Objects.equals(anterior.porEmpresa().get(empresaId), porEmpresa.get(empresaId)));
+        long versao = empresas.isEmpty() ? anterior.versao() : anterior.versao() + 1;
+        return new Snapshot(porId, disponiveis, porCategoria, porEmpresa, busca, bytes, agora, agora, versao,
+            novasVersoes(anterior.versoesEmpresa(), empresas, versao));
+    }
+
+    private static <K, T> MapaFatiado<K, ListaPorId<T>> agrupar(List<Item> ordenados, Function<Item, K> chave,
+            Function<Item, T> valor, ToLongFunction<T> id) {
+        Map<K, List<T>> grupos = ordenados.stream()
+            .collect(Collectors.groupingBy(chave, Collectors.mapping(valor, Collectors.toList())));
+        Map<K, ListaPorId<T>> listas = new HashMap<>();
+        grupos.forEach((grupo, itens) -> listas.put(grupo, ListaPorId.de(itens, id)));
+        return MapaFatiado.de(listas);
+    }
+
+    // Relê só as linhas alteradas e troca só os blocos e fatias em que elas caem
+    private Snapshot aplicar(Snapshot atual, Set<Long> alterados) {
+        Map<Long, Item> alteracoes = new HashMap<>();
+        Set<String> categorias = new HashSet<>();
+        Set<Long> empresas = new HashSet<>();
+        long bytes = atual.bytesEstimados();
+        for (Long id : alterados) {
+            alteracoes.put(id, null);
+            Item antigo = atual.porId().get(id);
+            if (antigo != null) {
+                categorias.add(antigo.resumo().getCategoria());
+                empresas.add(antigo.resumo().getEmpresaId());
+                bytes -= estimarBytes(antigo);
+            }
+        }
+        List<Item> novos = ConsistenciaLeitura.noPrimario(
+            () -> juntar(servicoRepository.findResumosByIdIn(alterados), servicoRepository.findDetalhesByIdIn(alterados)));
+        for (Item item : novos) {
+            alteracoes.put(item.resumo().getId(), item);
+            categorias.add(item.resumo().getCategoria());
+            empresas.add(item.resumo().getEmpresaId());
+            bytes += estimarBytes(item);
+        }
+
+        List<ServicoResumoDTO> novosLivres = novos.stream().map(Item::resumo).filter(resumo -> !resumo.isAgendado()).toList();
+        ListaPorId<ServicoResumoDTO> disponiveis = atual.disponiveis().substituir(alterados, novosLivres);
+        IndiceBusca busca = atual.busca().atualizar(alterados, novosLivres);
+
+        Map<String, ListaPorId<ServicoResumoDTO>> categoriasNovas = new HashMap<>();
+        for (String categoria : categorias) {
+            ListaPorId<ServicoResumoDTO> lista = atual.porCategoria().get(categoria);
+            lista = (lista == null ? ListaPorId.<ServicoResumoDTO>vazia(ServicoResumoDTO::getId) : lista).substituir(alterados,
+                novos.stream().map(Item::resumo).filter(resumo -> resumo.getCategoria().equals(categoria)).toList());
+            categoriasNovas.put(categoria, lista.isEmpty() ? null : lista);
+        }
+
+        Map<Long, ListaPorId<ServicoDetalheDTO>> empresasNovas = new HashMap<>();
+        for (Long empresaId : empresas) {
+            ListaPorId<ServicoDetalheDTO> lista = atual.porEmpresa().get(empresaId);
+            lista = (lista == null ? ListaPorId.<ServicoDetalheDTO>vazia(ServicoDetalheDTO::getId) : lista).substituir(alterados,
+                novos.stream().filter(item -> item.resumo().getEmpresaId().equals(empresaId)).map(Item::detalhe).toList());
+            empresasNovas.put(empresaId, lista.isEmpty() ? null : lista);
+        }
+
+        long versao = atual.versao() + 1;
+        return new Snapshot(atual.porId().com(alteracoes), disponiveis, atual.porCategoria().com(categoriasNovas),
+            atual.porEmpresa().com(empresasNovas), busca, bytes, atual.carregadoEm(), System.currentTimeMillis(),
+            versao, novasVersoes(atual.versoesEmpresa(), empresas, versao));
+    }
+
+    private static MapaFatiado<Long, Long> novasVersoes(MapaFatiado<Long, Long> atuais, Set<Long> empresas, long versao) {
+        Map<Long, Long> versoes = new HashMap<>();
+        empresas.forEach(empresaId -> versoes.put(empresaId, versao));
+        return atuais.com(versoes);
+    }
+
+    // O detalhe reaproveita os campos do resumo (mesmas strings) e só pega quem agendou
+    private static List<Item> juntar(List<ServicoResumoDTO> resumos, List<ServicoDetalheDTO> detalhes) {
+        Map<Long, ServicoDetalheDTO> detalhesPorId = new HashMap<>();
+        for (ServicoDetalheDTO detalhe : detalhes) {
+            detalhesPorId.put(detalhe.getId(), detalhe);
+        }
+        List<Item> itens = new ArrayList<>(resumos.size());
+        for (ServicoResumoDTO resumo : resumos) {
+            ServicoDetalheDTO lido = detalhesPorId.get(resumo.getId());
+            ServicoDetalheDTO detalhe = new ServicoDetalheDTO(resumo.getId(), resumo.getNome(), resumo.getCategoria(),
+                resumo.getDescricao(), resumo.getDuracao_minutos(), resumo.getPreco(), resumo.isAgendado(),
+                lido == null ? null : lido.getUsuarioAgendadoId(), lido == null ? null : lido.getUsuarioAgendadoNome());
+            itens.add(new Item(resumo, detalhe));
+        }
+        return itens;
+    }
+
+    // Estimativa aproximada: os dois DTOs, o record, o BigDecimal, a entrada no mapa
+    // por id, as referências nas listas e as strings (1 byte por caractere)
+    private static long estimarBytes(Item item) {
+        ServicoResumoDTO resumo = item.resumo();
+        return 48 + 48 + 16 + 40 + 48 + 3 * 4
+            + tamanho(resumo.getNome()) + tamanho(resumo.getCategoria()) + tamanho(resumo.getDescricao())
+            + tamanho(item.detalhe().getUsuarioAgendadoNome());
+    }
+
+    private static long tamanho(String valor) {
+        return valor == null ? 0 : 40 + valor.length();
+    }
+}
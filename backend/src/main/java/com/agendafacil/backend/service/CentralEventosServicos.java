@@ -0,0 +1,312 @@
+package com.agendafacil.backend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.agendafacil.backend.DTO.EventoServicoDTO;
+import com.agendafacil.backend.event.CatalogoAtualizadoEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+// Distribui as mudanças do catálogo para as conexões SSE abertas (GET /servicos/stream).
+// Conexão parada não prende thread: o Tomcat segura o socket e o SseEmitter fica aqui
+// até chegar evento. Cada evento vira JSON uma vez só e o mesmo conteúdo vai para todos.
+// Cada assinante tem uma fila limitada: cliente lento perde os eventos mais antigos
+// (e relê a lista, que tem ETag) em vez de segurar memória.
+// O SseEmitter escreve bloqueando: quem não lê enche o buffer do socket e o send para.
+// Por isso cada envio roda numa thread virtual (travada, só ela fica parada) e um envio
+// que passa de servicos.stream.envio-timeout tira o assinante da distribuição e fecha a conexão.
+@Component
+public class CentralEventosServicos {
+
+    // Envios seguidos para o mesmo assinante antes de dar a vez aos outros
+    private static final int ENVIOS_POR_VEZ = 32;
+    private static final Set<DataWithMediaType> CONECTADO = SseEmitter.event().comment("conectado").reconnectTime(3000).build();
+    private static final Set<DataWithMediaType> BATIMENTO = SseEmitter.event().comment("ping").build();
+
+    // Saída de um assinante; nos testes, qualquer implementação serve no lugar do SseEmitter
+    interface Envio {
+        void enviar(Set<DataWithMediaType> evento) throws IOException;
+
+        default void encerrar() {}
+    }
+
+    static final class Assinante {
+        private final Long empresaId;
+        private final Envio envio;
+        private final AtomicBoolean ativo = new AtomicBoolean(true);
+        // System.nanoTime() do envio em andamento; 0 quando parado
+        private volatile long enviandoDesde;
+        // Protegidos pelo monitor do próprio assinante
+        private final ArrayDeque<Set<DataWithMediaType>> fila = new ArrayDeque<>();
+        private boolean agendado;
+        private long descartados;
+
+        private Assinante(Long empresaId, Envio envio) {
+            this.empresaId = empresaId;
+            this.envio = envio;
+        }
+
+        synchronized long descartados() {
+            return descartados;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CatalogoServicos catalogoServicos;
+    private final int capacidade;
+    private final int maxAssinantes;
+    private final long timeoutMs;
+    private final long envioTimeoutNanos;
+    private final ExecutorService envios;
+    private final ScheduledExecutorService batimentos;
+
+    // Sem filtro de empresa ficam em todos; com filtro, no conjunto da empresa
+    private final Set<Assinante> todos = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Assinante>> porEmpresa = new ConcurrentHashMap<>();
+    private final Set<Assinante> enviando = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final LongAdder entregues = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder travados = new LongAdder();
+
+    public CentralEventosServicos(ObjectMapper objectMapper, CatalogoServicos catalogoServicos,
+            @Value("${servicos.stream.buffer:256}") int capacidade,
+            @Value("${servicos.stream.max-assinantes:50000}") int maxAssinantes,
+            @Value("${servicos.stream.envio-timeout:10s}") Duration envioTimeout,
+            @Value("${servicos.stream.timeout:30m}") Duration timeout,
+            @Value("${servicos.stream.batimento:25s}") Duration batimento) {
+        this.objectMapper = objectMapper;
+        this.catalogoServicos = catalogoServicos;
+        this.capacidade = capacidade;
+        this.maxAssinantes = maxAssinantes;
+        this.timeoutMs = timeout.toMillis();
+        this.envioTimeoutNanos = envioTimeout.toNanos();
+        this.envios = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-envio-", 0).factory());
+        this.batimentos = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("sse-batimento").daemon().factory());
+        // Comentário periódico: mantém proxies sem derrubar a conexão e descobre quem já saiu
+        this.batimentos.scheduleAtFixedRate(this::bater, batimento.toMillis(), batimento.toMillis(), TimeUnit.MILLISECONDS);
+        long vigia = Math.max(10, envioTimeout.toMillis() / 4);
+        this.batimentos.scheduleAtFixedRate(this::vigiarEnvios, vigia, vigia, TimeUnit.MILLISECONDS);
+    }
+
+    // Nova conexão SSE; empresaId null recebe as mudanças de todas as empresas
+    public SseEmitter assinar(Long empresaId) {
+        // Os eventos saem das trocas de snapshot, então o catálogo precisa estar carregado
+        catalogoServicos.carregar();
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = inscrever(empresaId, new Envio() {
+            @Override
+            public void enviar(Set<DataWithMediaType> evento) throws IOException {
+                emitter.send(evento);
+            }
+
+            @Override
+            public void encerrar() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+        oferecer(assinante, CONECTADO, false);
+        return emitter;
+    }
+
+    Assinante inscrever(Long empresaId, Envio envio) {
+        if (assinantes.incrementAndGet() > maxAssinantes) {
+            assinantes.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de conexões de acompanhamento atingido");
+        }
+        Assinante assinante = new Assinante(empresaId, envio);
+        if (empresaId == null) {
+            todos.add(assinante);
+        } else {
+            // compute é atômico por chave: não dá para entrar num conjunto que acabou de sair do mapa
+            porEmpresa.compute(empresaId, (id, conjunto) -> {
+                Set<Assinante> destino = conjunto == null ? ConcurrentHashMap.newKeySet() : conjunto;
+                destino.add(assinante);
+                return destino;
+            });
+        }
+        return assinante;
+    }
+
+    void remover(Assinante assinante) {
+        if (!assinante.ativo.compareAndSet(true, false)) {
+            return;
+        }
+        if (assinante.empresaId == null) {
+            todos.remove(assinante);
+        } else {
+            porEmpresa.computeIfPresent(assinante.empresaId, (id, conjunto) -> {
+                conjunto.remove(assinante);
+                return conjunto.isEmpty() ? null : conjunto;
+            });
+        }
+        synchronized (assinante) {
+            assinante.fila.clear();
+        }
+        assinantes.decrementAndGet();
+    }
+
+    @EventListener
+    public void aoAtualizarCatalogo(CatalogoAtualizadoEvent evento) {
+        for (EventoServicoDTO mudanca : evento.eventos()) {
+            Set<DataWithMediaType> sse = SseEmitter.event()
+                .id(Long.toString(sequencia.incrementAndGet()))
+                .name(mudanca.getTipo())
+                .data(json(mudanca))
+                .build();
+            for (Assinante assinante : todos) {
+                oferecer(assinante, sse, false);
+            }
+            Set<Assinante> daEmpresa = porEmpresa.get(mudanca.getEmpresaId());
+            if (daEmpresa != null) {
+                for (Assinante assinante : daEmpresa) {
+                    oferecer(assinante, sse, false);
+                }
+            }
+        }
+    }
+
+    public Estatisticas estatisticas() {
+        return new Estatisticas(assinantes.get(), entregues.sum(), descartados.sum(), travados.sum());
+    }
+
+    // travados: conexões fechadas porque um envio passou de servicos.stream.envio-timeout
+    public record Estatisticas(int assinantes, long entregues, long descartados, long travados) {}
+
+    // Fecha as conexões antes de o Tomcat parar; senão o desligamento espera requisições que nunca terminam
+    @EventListener(ContextClosedEvent.class)
+    public void encerrarConexoes() {
+        List<Assinante> abertos = new ArrayList<>(todos);
+        porEmpresa.values().forEach(abertos::addAll);
+        for (Assinante assinante : abertos) {
+            remover(assinante);
+            assinante.envio.encerrar();
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        encerrarConexoes();
+        batimentos.shutdownNow();
+        envios.shutdownNow();
+    }
+
+    private void bater() {
+        for (Assinante assinante : todos) {
+            oferecer(assinante, BATIMENTO, true);
+        }
+        porEmpresa.values().forEach(conjunto -> conjunto.forEach(assinante -> oferecer(assinante, BATIMENTO, true)));
+    }
+
+    // Envio parado além do limite: o assinante sai da distribuição na hora. O encerramento vai
+    // numa thread virtual porque o SseEmitter só completa depois que o send travado desistir
+    private void vigiarEnvios() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : enviando) {
+            long desde = assinante.enviandoDesde;
+            if (desde != 0 && agora - desde > envioTimeoutNanos && assinante.ativo.get()) {
+                enviando.remove(assinante);
+                remover(assinante);
+                travados.increment();
+                Thread.ofVirtual().start(assinante.envio::encerrar);
+            }
+        }
+    }
+
+    // Fila cheia: sai o evento mais antigo. Só agenda o envio se o assinante não estiver na fila do executor
+    private void oferecer(Assinante assinante, Set<DataWithMediaType> sse, boolean soSeVazia) {
+        synchronized (assinante) {
+            if (!assinante.ativo.get() || (soSeVazia && !assinante.fila.isEmpty())) {
+                return;
+            }
+            if (assinante.fila.size() >= capacidade) {
+                assinante.fila.poll();
+                assinante.descartados++;
+                descartados.increment();
+            }
+            assinante.fila.add(sse);
+            if (assinante.agendado) {
+                return;
+            }
+            assinante.agendado = true;
+        }
+        agendar(assinante);
+    }
+
+    private void agendar(Assinante assinante) {
+        try {
+            envios.execute(() -> drenar(assinante));
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        for (int i = 0; i < ENVIOS_POR_VEZ; i++) {
+            Set<DataWithMediaType> sse;
+            synchronized (assinante) {
+                sse = assinante.fila.poll();
+                if (sse == null) {
+                    assinante.agendado = false;
+                    return;
+                }
+            }
+            assinante.enviandoDesde = System.nanoTime();
+            enviando.add(assinante);
+            try {
+                assinante.envio.enviar(sse);
+                if (sse != BATIMENTO && sse != CONECTADO) {
+                    entregues.increment();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Cliente saiu ou a conexão já foi encerrada
+                remover(assinante);
+                assinante.envio.encerrar();
+                return;
+            } finally {
+                assinante.enviandoDesde = 0;
+                enviando.remove(assinante);
+            }
+        }
+        agendar(assinante);
+    }
+
+    private String json(EventoServicoDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
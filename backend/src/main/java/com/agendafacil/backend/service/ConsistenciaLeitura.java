@@ -0,0 +1,74 @@
+package com.agendafacil.backend.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.agendafacil.backend.service.TokenService.Autenticado;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Quando as leituras não podem ir para a réplica (banco.replica.*), mesmo em transação readOnly:
+// - leitura própria: depois de uma reserva, o usuário lê do primário por banco.leitura-propria.janela,
+//   para ver a própria escrita mesmo com a réplica atrasada;
+// - noPrimario: trechos que alimentam caches depois do commit (catálogo, agenda) e não
+//   podem guardar uma versão velha.
+// Sem réplica configurada nada disso muda o destino: tudo já vai para o primário.
+@Component
+public class ConsistenciaLeitura {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final Cache<Autenticado, Boolean> escritasRecentes;
+
+    public ConsistenciaLeitura(@Value("${banco.leitura-propria.janela:10s}") Duration janela,
+            @Value("${banco.leitura-propria.max-usuarios:100000}") long maxUsuarios) {
+        this.escritasRecentes = Caffeine.newBuilder()
+            .expireAfterWrite(janela)
+            .maximumSize(maxUsuarios)
+            .build();
+    }
+
+    // A janela começa no commit; escrita desfeita não prende o usuário ao primário
+    public void registrarEscrita(Long userId) {
+        Autenticado autor = new Autenticado(userId, TokenService.Papel.USUARIO);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    escritasRecentes.put(autor, Boolean.TRUE);
+                }
+            });
+        } else {
+            escritasRecentes.put(autor, Boolean.TRUE);
+        }
+    }
+
+    // Leitura da thread atual precisa do primário (trecho noPrimario ou autor de escrita recente)
+    public boolean exigePrimario() {
+        if (PRIMARIO.get() != null) {
+            return true;
+        }
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null && autenticacao.getPrincipal() instanceof Autenticado autenticado
+            && escritasRecentes.getIfPresent(autenticado) != null;
+    }
+
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        if (PRIMARIO.get() != null) {
+            return leitura.get();
+        }
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            PRIMARIO.remove();
+        }
+    }
+}
@@ -1,25 +1,145 @@
 package com.agendafacil.backend.service;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 @Component
 public class ConsultarCnpjAPI {
-    
-    private final RestTemplate restTemplate = new RestTemplate();
-    private static final String URL_BASE = "https://brasilapi.com.br/api/cnpj/v1/";
 
-    @SuppressWarnings("unchecked")
+    private final RestTemplate restTemplate;
+    private final String urlBase;
+
+    // Cache limitado por tamanho e TTL. Guarda o future da consulta, então
+    // chamadas concorrentes para o mesmo CNPJ esperam a mesma requisição.
+    private final AsyncCache<String, Map<String, Object>> cache;
+
+    // Bulkhead: limita quantas chamadas à BrasilAPI ficam abertas ao mesmo tempo,
+    // para uma API lenta não prender todas as threads da aplicação
+    private final Semaphore chamadasAbertas;
+    private final Duration esperaMaxima;
+
+    // acertos/ausencias: CNPJ achado ou não no cache. chamadasExternas conta só as que chegaram
+    // à BrasilAPI (ausência recusada pelo bulkhead não entra), e é a base da latência média
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder ausencias = new LongAdder();
+    private final LongAdder chamadasExternas = new LongAdder();
+    private final LongAdder errosExternos = new LongAdder();
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder tempoExternoNanos = new LongAdder();
+
+    public ConsultarCnpjAPI(
+            @Value("${brasilapi.url:https://brasilapi.com.br/api/cnpj/v1/}") String urlBase,
+            @Value("${brasilapi.timeout.conexao:2s}") Duration timeoutConexao,
+            @Value("${brasilapi.timeout.leitura:5s}") Duration timeoutLeitura,
+            @Value("${brasilapi.cache.ttl:24h}") Duration ttl,
+            @Value("${brasilapi.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${brasilapi.bulkhead.max-concorrentes:20}") int maxConcorrentes,
+            @Value("${brasilapi.bulkhead.espera-maxima:500ms}") Duration esperaMaxima) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutConexao);
+        requestFactory.setReadTimeout(timeoutLeitura);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.urlBase = urlBase;
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(tamanhoMaximo)
+            .buildAsync();
+        this.chamadasAbertas = new Semaphore(maxConcorrentes);
+        this.esperaMaxima = esperaMaxima;
+    }
+
     public Map<String, Object> buscarCnpj(String cnpj) {
+        CompletableFuture<Map<String, Object>> novaConsulta = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existente = cache.asMap().putIfAbsent(cnpj, novaConsulta);
+
+        if (existente != null) {
+            acertos.increment();
+            return aguardar(existente);
+        }
+
+        ausencias.increment();
+        try {
+            novaConsulta.complete(consultarBrasilApi(cnpj));
+        } catch (RuntimeException e) {
+            // Future com erro sai do cache sozinho; a próxima chamada tenta de novo
+            novaConsulta.completeExceptionally(e);
+        }
+        return aguardar(novaConsulta);
+    }
+
+    private Map<String, Object> consultarBrasilApi(String cnpj) {
         try {
-            return restTemplate.getForObject(URL_BASE + cnpj, Map.class);
+            if (!chamadasAbertas.tryAcquire(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejeitadas.increment();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Consulta de CNPJ indisponível no momento, tente novamente");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Consulta de CNPJ interrompida");
+        }
+        try {
+            return chamarBrasilApi(cnpj);
+        } finally {
+            chamadasAbertas.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> chamarBrasilApi(String cnpj) {
+        long inicio = System.nanoTime();
+        try {
+            Map<String, Object> dados = restTemplate.getForObject(urlBase + cnpj, Map.class);
+            if (dados == null) {
+                throw new IllegalArgumentException("Erro ao consultar BrasilAPI: resposta vazia");
+            }
+            return dados;
         } catch (RestClientException e) {
+            errosExternos.increment();
             throw new IllegalArgumentException("Erro ao consultar BrasilAPI: " + e.getMessage());
+        } finally {
+            chamadasExternas.increment();
+            tempoExternoNanos.add(System.nanoTime() - inicio);
         }
     }
 
+    private Map<String, Object> aguardar(CompletableFuture<Map<String, Object>> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    public void limparCache() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public Estatisticas estatisticas() {
+        long chamadas = chamadasExternas.sum();
+        double latenciaMediaMs = chamadas == 0 ? 0 : tempoExternoNanos.sum() / 1_000_000.0 / chamadas;
+        return new Estatisticas(acertos.sum(), ausencias.sum(), chamadas, errosExternos.sum(), rejeitadas.sum(),
+            latenciaMediaMs, cache.synchronous().estimatedSize());
+    }
+
+    public record Estatisticas(long acertos, long ausencias, long chamadasExternas, long errosExternos, long rejeitadas,
+            double latenciaMediaMs, long tamanho) {}
 }
-    
\ No newline at end of file
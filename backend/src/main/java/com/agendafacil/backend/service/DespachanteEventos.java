@@ -0,0 +1,168 @@
+package com.agendafacil.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.agendafacil.backend.model.EventoSaida;
+import com.agendafacil.backend.repository.EventoSaidaRepository;
+import com.agendafacil.backend.repository.ResumoEventosSaida;
+
+import jakarta.annotation.PreDestroy;
+
+// Entrega o outbox (eventos_saida) ao DestinoEventos, fora das requisições. Uma thread por
+// instância reserva lotes de eventos vencidos com FOR UPDATE SKIP LOCKED, então várias
+// instâncias dividem a fila sem entregar o mesmo evento duas vezes; o lote é entregue,
+// apagado e confirmado na mesma transação. Roda a cada eventos.saida.intervalo e logo
+// depois de cada commit que gravou evento (SaidaEventos).
+// Evento que falha volta depois de eventos.saida.espera-inicial, dobrando a cada tentativa
+// até eventos.saida.espera-maxima; passadas tentativas-maximas fica parado na tabela.
+@Component
+public class DespachanteEventos {
+    private static final Logger log = LoggerFactory.getLogger(DespachanteEventos.class);
+    private static final int TAMANHO_ERRO = 500;
+
+    private record Lote(int reservados, int entregues) {}
+
+    private final EventoSaidaRepository eventoSaidaRepository;
+    private final DestinoEventos destino;
+    private final TransactionTemplate transacao;
+    private final int tamanhoLote;
+    private final int tentativasMaximas;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+    // null com eventos.saida.despacho.habilitado=false: só despacha quem chamar despachar()
+    private final ScheduledExecutorService execucoes;
+
+    private final AtomicBoolean acordado = new AtomicBoolean();
+    private final LongAdder entregues = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private volatile ResumoEventosSaida resumo = new ResumoEventosSaida(0L, null, 0L);
+
+    public DespachanteEventos(EventoSaidaRepository eventoSaidaRepository, DestinoEventos destino,
+            PlatformTransactionManager transactionManager,
+            @Value("${eventos.saida.despacho.habilitado:true}") boolean habilitado,
+            @Value("${eventos.saida.intervalo:1s}") Duration intervalo,
+            @Value("${eventos.saida.lote:100}") int tamanhoLote,
+            @Value("${eventos.saida.tentativas-maximas:10}") int tentativasMaximas,
+            @Value("${eventos.saida.espera-inicial:1s}") Duration esperaInicial,
+            @Value("${eventos.saida.espera-maxima:10m}") Duration esperaMaxima) {
+        this.eventoSaidaRepository = eventoSaidaRepository;
+        this.destino = destino;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.tentativasMaximas = tentativasMaximas;
+        this.esperaInicialMs = esperaInicial.toMillis();
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+        if (habilitado) {
+            this.execucoes = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("eventos-saida").daemon().factory());
+            this.execucoes.scheduleWithFixedDelay(this::rodar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.execucoes = null;
+        }
+    }
+
+    // Pede uma rodada logo; pedidos enquanto ela não começa viram uma só
+    public void acordar() {
+        if (execucoes != null && acordado.compareAndSet(false, true)) {
+            try {
+                execucoes.execute(this::rodar);
+            } catch (RejectedExecutionException e) {
+                // Aplicação encerrando: o que ficou sai na próxima subida
+            }
+        }
+    }
+
+    // Entrega tudo o que estiver vencido, lote a lote, e devolve quantos eventos saíram
+    public int despachar() {
+        int total = 0;
+        Lote lote;
+        do {
+            lote = transacao.execute(status -> despacharLote());
+            // Conta depois do commit: lote desfeito volta para a fila
+            total += lote.entregues();
+            entregues.add(lote.entregues());
+        } while (lote.reservados() == tamanhoLote);
+        resumo = transacao.execute(status -> eventoSaidaRepository.resumir());
+        return total;
+    }
+
+    public Estatisticas estatisticas() {
+        ResumoEventosSaida atual = resumo;
+        double atraso = atual.maisAntigo() == null ? 0
+            : Math.max(0, Duration.between(atual.maisAntigo(), LocalDateTime.now()).toMillis() / 1000.0);
+        return new Estatisticas(atual.pendentes(), atual.parados(), atraso, entregues.sum(), falhas.sum());
+    }
+
+    // pendentes, parados e atraso (idade do pendente mais antigo) são da última rodada
+    public record Estatisticas(long pendentes, long parados, double atrasoSegundos, long entregues, long falhas) {}
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        if (execucoes != null) {
+            // Deixa o lote em andamento confirmar; o que não confirmar é entregue de novo depois
+            execucoes.shutdown();
+            execucoes.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void rodar() {
+        acordado.set(false);
+        try {
+            despachar();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao despachar eventos_saida: {}", e.getMessage());
+        }
+    }
+
+    private Lote despacharLote() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<EventoSaida> eventos = eventoSaidaRepository.reservarVencidos(agora, Limit.of(tamanhoLote));
+        List<Long> enviados = new ArrayList<>(eventos.size());
+        for (EventoSaida evento : eventos) {
+            try {
+                destino.enviar(evento);
+                enviados.add(evento.getId());
+            } catch (Exception e) {
+                adiar(evento, e, agora);
+            }
+        }
+        if (!enviados.isEmpty()) {
+            eventoSaidaRepository.deleteAllByIdInBatch(enviados);
+        }
+        return new Lote(eventos.size(), enviados.size());
+    }
+
+    // O evento é gerenciado: as mudanças vão no UPDATE do commit
+    private void adiar(EventoSaida evento, Exception erro, LocalDateTime agora) {
+        falhas.increment();
+        int tentativas = evento.getTentativas() + 1;
+        String mensagem = erro.toString();
+        evento.setTentativas(tentativas);
+        evento.setUltimoErro(mensagem.length() > TAMANHO_ERRO ? mensagem.substring(0, TAMANHO_ERRO) : mensagem);
+        if (tentativas >= tentativasMaximas) {
+            evento.setProximaTentativa(null);
+            log.error("Evento {} ({} {}) parado depois de {} tentativas: {}", evento.getId(), evento.getTipo(),
+                evento.getAgregadoId(), tentativas, mensagem);
+            return;
+        }
+        long espera = Math.min(esperaMaximaMs, esperaInicialMs << Math.min(tentativas - 1, 30));
+        evento.setProximaTentativa(agora.plus(espera, ChronoUnit.MILLIS));
+    }
+}
@@ -0,0 +1,11 @@
+package com.agendafacil.backend.service;
+
+import com.agendafacil.backend.model.EventoSaida;
+
+// Para onde o DespachanteEventos entrega o outbox (fila, webhook, arquivo...). A entrega é
+// "pelo menos uma vez": uma queda depois do envio e antes do commit repete o evento, então
+// quem recebe descarta ids já vistos. Exceção = falha, e o evento volta mais tarde.
+public interface DestinoEventos {
+
+    void enviar(EventoSaida evento) throws Exception;
+}
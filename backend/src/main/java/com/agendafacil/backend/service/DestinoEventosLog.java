@@ -0,0 +1,22 @@
+package com.agendafacil.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.agendafacil.backend.model.EventoSaida;
+
+// Destino padrão (eventos.saida.destino=log): uma linha por evento no logger "eventos.saida",
+// que o logback pode mandar para um arquivo próprio. Outro destino entra como um bean
+// DestinoEventos com eventos.saida.destino diferente de log
+@Component
+@ConditionalOnProperty(name = "eventos.saida.destino", havingValue = "log", matchIfMissing = true)
+public class DestinoEventosLog implements DestinoEventos {
+    private static final Logger log = LoggerFactory.getLogger("eventos.saida");
+
+    @Override
+    public void enviar(EventoSaida evento) {
+        log.info("{} {} {} {}", evento.getId(), evento.getTipo(), evento.getAgregadoId(), evento.getPayload());
+    }
+}
@@ -0,0 +1,152 @@
+package com.agendafacil.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.event.AgendamentoCriadoEvent;
+import com.agendafacil.backend.repository.HorarioOcupadoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Índice em memória da agenda: para cada empresa e dia, um BitSet com um bit por
+// faixa de agenda.granularidade-minutos (bit ligado = ocupado). Responde horários
+// livres sem varrer agendamentos. Cada BitSet publicado nunca é alterado: a
+// atualização troca por uma cópia, então as leituras não precisam de lock.
+// Quem garante que não há sobreposição é a chave única de horarios_ocupados;
+// o índice só acelera a leitura e expira para pegar gravações de outras instâncias.
+@Component
+public class DisponibilidadeIndex {
+
+    private final HorarioOcupadoRepository horarioOcupadoRepository;
+    private final int granularidade;
+    private final int primeiroSlot;
+    private final int ultimoSlot;
+    private final Cache<ChaveDia, BitSet> dias;
+
+    record ChaveDia(Long empresaId, LocalDate dia) {}
+
+    public DisponibilidadeIndex(HorarioOcupadoRepository horarioOcupadoRepository,
+            @Value("${agenda.abertura:08:00}") LocalTime abertura,
+            @Value("${agenda.fechamento:18:00}") LocalTime fechamento,
+            @Value("${agenda.granularidade-minutos:15}") int granularidade,
+            @Value("${agenda.indice.ttl:5m}") Duration ttl,
+            @Value("${agenda.indice.max-dias:100000}") long maxDias) {
+        this.horarioOcupadoRepository = horarioOcupadoRepository;
+        this.granularidade = granularidade;
+        this.primeiroSlot = abertura.toSecondOfDay() / 60 / granularidade;
+        this.ultimoSlot = fechamento.toSecondOfDay() / 60 / granularidade;
+        this.dias = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxDias)
+            .build();
+    }
+
+    public int slotsNecessarios(int duracaoMinutos) {
+        return Math.max(1, (duracaoMinutos + granularidade - 1) / granularidade);
+    }
+
+    // Valida o início pedido e devolve a faixa correspondente
+    public int slotDoInicio(LocalDateTime inicio, int duracaoMinutos) {
+        int minutos = inicio.toLocalTime().toSecondOfDay() / 60;
+        if (inicio.getSecond() != 0 || minutos % granularidade != 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "O horário deve começar em múltiplos de " + granularidade + " minutos");
+        }
+        int slot = minutos / granularidade;
+        if (slot < primeiroSlot || slot + slotsNecessarios(duracaoMinutos) > ultimoSlot) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Horário fora do expediente");
+        }
+        return slot;
+    }
+
+    public boolean estaLivre(Long empresaId, LocalDate dia, int slot, int quantidade) {
+        int proximoOcupado = ocupados(empresaId, dia).nextSetBit(slot);
+        return proximoOcupado == -1 || proximoOcupado >= slot + quantidade;
+    }
+
+    public List<LocalDateTime> horariosLivres(Long empresaId, int duracaoMinutos, LocalDate de, LocalDate ate,
+            LocalDateTime agora) {
+        List<LocalDateTime> livres = new ArrayList<>();
+        int necessarios = slotsNecessarios(duracaoMinutos);
+        for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+            BitSet ocupados = ocupados(empresaId, dia);
+            int slot = Math.max(primeiroSlot, primeiroSlotApos(dia, agora));
+            while (slot + necessarios <= ultimoSlot) {
+                int proximoOcupado = ocupados.nextSetBit(slot);
+                if (proximoOcupado == -1 || proximoOcupado >= slot + necessarios) {
+                    livres.add(inicioDoSlot(dia, slot));
+                    slot++;
+                } else {
+                    slot = proximoOcupado + 1;
+                }
+            }
+        }
+        return livres;
+    }
+
+    public Optional<LocalDateTime> primeiroHorarioLivre(Long empresaId, int duracaoMinutos, LocalDateTime aPartirDe,
+            int diasMaximos) {
+        for (int i = 0; i < diasMaximos; i++) {
+            LocalDate dia = aPartirDe.toLocalDate().plusDays(i);
+            List<LocalDateTime> livres = horariosLivres(empresaId, duracaoMinutos, dia, dia, aPartirDe);
+            if (!livres.isEmpty()) {
+                return Optional.of(livres.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @TransactionalEventListener
+    public void aoCriarAgendamento(AgendamentoCriadoEvent evento) {
+        // Só atualiza dias já carregados; os outros vêm completos do banco quando forem lidos
+        dias.asMap().computeIfPresent(new ChaveDia(evento.empresaId(), evento.dia()), (chave, atual) -> {
+            BitSet novo = (BitSet) atual.clone();
+            novo.set(evento.primeiroSlot(), evento.primeiroSlot() + evento.quantidadeSlots());
+            return novo;
+        });
+    }
+
+    public void limpar() {
+        dias.invalidateAll();
+    }
+
+    private BitSet ocupados(Long empresaId, LocalDate dia) {
+        return dias.get(new ChaveDia(empresaId, dia), this::carregar);
+    }
+
+    private BitSet carregar(ChaveDia chave) {
+        BitSet ocupados = new BitSet(ultimoSlot);
+        // Dia carregado só recebe as reservas novas por aoCriarAgendamento: lê do primário
+        for (Integer slot : ConsistenciaLeitura.noPrimario(() -> horarioOcupadoRepository.findSlots(chave.empresaId(), chave.dia()))) {
+            ocupados.set(slot);
+        }
+        return ocupados;
+    }
+
+    private int primeiroSlotApos(LocalDate dia, LocalDateTime agora) {
+        if (dia.isBefore(agora.toLocalDate())) {
+            return ultimoSlot;
+        }
+        if (dia.isAfter(agora.toLocalDate())) {
+            return 0;
+        }
+        int minutos = agora.toLocalTime().toSecondOfDay() / 60;
+        return (minutos + granularidade - 1) / granularidade;
+    }
+
+    private LocalDateTime inicioDoSlot(LocalDate dia, int slot) {
+        return dia.atStartOfDay().plusMinutes((long) slot * granularidade);
+    }
+}
@@ -1,26 +1,59 @@
 package com.agendafacil.backend.service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.agendafacil.backend.DTO.EmpresaDTO;
+import com.agendafacil.backend.DTO.EmpresaDetalheDTO;
+import com.agendafacil.backend.DTO.EmpresaResumoDTO;
+import com.agendafacil.backend.DTO.LinhaLoteDTO;
+import com.agendafacil.backend.DTO.PaginaDTO;
+import com.agendafacil.backend.DTO.PainelEmpresaDTO;
+import com.agendafacil.backend.DTO.ResultadoLoteDTO;
 import com.agendafacil.backend.model.Empresa;
 import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.PainelCategoriaRepository;
+import com.agendafacil.backend.repository.PainelDiaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
 public class EmpresaService {
+    public static final int LIMITE_PAGINA = 500;
+    public static final int LIMITE_LOTE = 5000;
+    private static final int TAMANHO_BATCH = 50;
+    public static final int DIAS_PADRAO_PAINEL = 30;
+    public static final int DIAS_MAXIMOS_PAINEL = 92;
    
     private final EmpresaRepository empresaRepository;
+    private final ServicoRepository servicoRepository;
+    private final PainelCategoriaRepository painelCategoriaRepository;
+    private final PainelDiaRepository painelDiaRepository;
     private final ConsultarCnpjAPI consultarCnpjAPI;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public EmpresaDTO consultaCnpj(String cnpj){
         cnpj = cnpj.replaceAll("[^0-9]", "");
 
@@ -44,6 +77,7 @@ public class EmpresaService {
         return dto;
     }
 
+    @Transactional
     public Empresa cadastrarEmpresa(EmpresaDTO empresaDTO) throws Exception{
         String cnpj = empresaDTO.getCnpj().replaceAll("[^0-9]", "");
 
@@ -64,6 +98,91 @@ public class EmpresaService {
         return empresa;
     }
 
+    @Transactional
+    public ResultadoLoteDTO cadastrarLote(List<EmpresaDTO> empresas){
+        return cadastrarLote(empresas, Map.of());
+    }
+
+    // Mesmo esquema do lote de serviços: todas as linhas são validadas antes de gravar,
+    // CNPJs e razões sociais já usados são consultados de uma vez, e as empresas válidas vão
+    // para o banco em batch
+    @Transactional
+    public ResultadoLoteDTO cadastrarLote(List<EmpresaDTO> empresas, Map<Integer, String> errosLeitura){
+        if(empresas.size() > LIMITE_LOTE){
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Lote maior que " + LIMITE_LOTE + " linhas");
+        }
+        List<String> cnpjs = empresas.stream()
+            .map(dto -> dto == null || dto.getCnpj() == null ? null : dto.getCnpj().replaceAll("[^0-9]", ""))
+            .toList();
+        Set<String> cnpjsUsados = new HashSet<>();
+        Set<String> razoesUsadas = new HashSet<>();
+        Set<String> cnpjsDoLote = cnpjs.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<String> razoesDoLote = empresas.stream()
+            .filter(dto -> dto != null && dto.getRazao_social() != null)
+            .map(EmpresaDTO::getRazao_social)
+            .collect(Collectors.toSet());
+        if(!cnpjsDoLote.isEmpty()){
+            cnpjsUsados.addAll(empresaRepository.findCnpjsExistentes(cnpjsDoLote));
+        }
+        if(!razoesDoLote.isEmpty()){
+            razoesUsadas.addAll(empresaRepository.findRazoesSociaisExistentes(razoesDoLote));
+        }
+
+        // Repetição dentro do próprio lote também conta: a primeira linha fica com o CNPJ
+        String[] erros = new String[empresas.size()];
+        for(int i = 0; i < empresas.size(); i++){
+            EmpresaDTO dto = empresas.get(i);
+            String cnpj = cnpjs.get(i);
+            String erro = errosLeitura.containsKey(i) ? errosLeitura.get(i) : validar(dto, cnpj);
+            if(erro == null && cnpjsUsados.contains(cnpj)){
+                erro = "CNPJ já cadastrado!";
+            }
+            if(erro == null && razoesUsadas.contains(dto.getRazao_social())){
+                erro = "Razão social já cadastrada!";
+            }
+            if(erro == null){
+                cnpjsUsados.add(cnpj);
+                razoesUsadas.add(dto.getRazao_social());
+            }
+            erros[i] = erro;
+        }
+
+        List<LinhaLoteDTO> linhas = new ArrayList<>(empresas.size());
+        int pendentes = 0;
+        for(int i = 0; i < empresas.size(); i++){
+            if(erros[i] != null){
+                linhas.add(new LinhaLoteDTO(i + 1, null, erros[i]));
+                continue;
+            }
+            EmpresaDTO dto = empresas.get(i);
+            String cnpj = cnpjs.get(i);
+            Empresa empresa = new Empresa(dto.getNome(), dto.getRazao_social(), cnpj,
+                dto.getEmail() != null ? dto.getEmail() : "", dto.getTelefone(), dto.getSenha());
+            linhas.add(new LinhaLoteDTO(i + 1, empresaRepository.save(empresa).getId(), null));
+            if(++pendentes % TAMANHO_BATCH == 0){
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return ResultadoLoteDTO.de(linhas);
+    }
+
+    private String validar(EmpresaDTO dto, String cnpj){
+        if(dto == null){
+            return "Linha vazia";
+        }
+        if(dto.getNome() == null || dto.getNome().isBlank()){
+            return "Nome obrigatório";
+        }
+        if(dto.getRazao_social() == null || dto.getRazao_social().isBlank()){
+            return "Razão social obrigatória";
+        }
+        if(cnpj == null || cnpj.length() != 14){
+            return "CNPJ deve ter 14 dígitos";
+        }
+        return null;
+    }
+
     public Empresa loginEmpresa (String email, String senha){
         Optional<Empresa> empresaOpt = empresaRepository.findByEmail(email);
 
@@ -73,17 +192,65 @@ public class EmpresaService {
         return empresaOpt.get();
     }
 
-    public List<Empresa> findAll(){
-        return empresaRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<EmpresaResumoDTO> findAll(){
+        return empresaRepository.findAllResumos();
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<EmpresaResumoDTO> findPagina(Long after, int limit){
+        int tamanho = Math.max(1, Math.min(limit, LIMITE_PAGINA));
+        List<EmpresaResumoDTO> itens = empresaRepository.findResumosApos(after == null ? 0L : after, Limit.of(tamanho));
+        Long proximo = itens.size() == tamanho ? itens.get(itens.size() - 1).getId() : null;
+        return new PaginaDTO<>(itens, proximo);
     }
 
-    public Empresa findById(Long id){
-        Empresa empresa = empresaRepository.findById(id)
+    @Transactional(readOnly = true)
+    public void paraCadaEmpresa(Consumer<EmpresaResumoDTO> consumidor){
+        try (Stream<EmpresaResumoDTO> empresas = empresaRepository.streamResumos()) {
+            empresas.forEach(consumidor);
+        }
+    }
+
+    // Duas consultas fixas: a empresa e os serviços já com a reserva,
+    // independente de quantos serviços ou usuários existam
+    @Transactional(readOnly = true)
+    public EmpresaDetalheDTO findById(Long id){
+        EmpresaResumoDTO empresa = empresaRepository.findResumoById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada"));
-        
-        // Força o carregamento dos serviços (inicializa a coleção lazy)
-        empresa.getServicos().size();
-        
-        return empresa;
+
+        return new EmpresaDetalheDTO(empresa, servicoRepository.findDetalhesByEmpresaId(id));
+    }
+
+    // Lê só os totais já somados (PainelEmpresas): uma linha por categoria e uma por dia e
+    // categoria do período, não importa quantos serviços a empresa tenha. Sem datas, os
+    // últimos DIAS_PADRAO_PAINEL dias
+    @Transactional(readOnly = true)
+    public PainelEmpresaDTO painel(Long empresaId, LocalDate de, LocalDate ate){
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusDays(DIAS_PADRAO_PAINEL - 1);
+        if(fim.isBefore(inicio) || inicio.plusDays(DIAS_MAXIMOS_PAINEL).isBefore(fim)){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Intervalo de datas inválido (máximo de " + DIAS_MAXIMOS_PAINEL + " dias)");
+        }
+
+        // Categorias que ficaram zeradas só somem na próxima reconciliação: já saem daqui
+        List<PainelEmpresaDTO.Categoria> categorias = painelCategoriaRepository.findByEmpresaIdOrderByCategoria(empresaId).stream()
+            .filter(p -> p.getServicos() != 0 || p.getReservas() != 0)
+            .map(p -> new PainelEmpresaDTO.Categoria(p.getCategoria(), p.getServicos(), p.getReservas(), p.getReceita(), p.getMinutos()))
+            .toList();
+        List<PainelEmpresaDTO.Dia> dias = painelDiaRepository.findPeriodo(empresaId, inicio, fim).stream()
+            .filter(p -> p.getReservas() != 0)
+            .map(p -> new PainelEmpresaDTO.Dia(p.getDia(), p.getCategoria(), p.getReservas(), p.getReceita(), p.getMinutos()))
+            .toList();
+
+        long servicos = 0, reservas = 0, minutos = 0;
+        BigDecimal receita = BigDecimal.ZERO;
+        for(PainelEmpresaDTO.Categoria categoria : categorias){
+            servicos += categoria.servicos();
+            reservas += categoria.reservas();
+            receita = receita.add(categoria.receita());
+            minutos += categoria.minutos();
+        }
+        return new PainelEmpresaDTO(empresaId, inicio, fim, servicos, reservas, receita, minutos, categorias, dias);
     }
-}
\ No newline at end of file
+}
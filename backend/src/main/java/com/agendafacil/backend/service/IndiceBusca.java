@@ -0,0 +1,429 @@
+package com.agendafacil.backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+
+// Índice invertido dos serviços livres, para busca por texto em nome, categoria e
+// descrição. Os termos são normalizados (minúsculas, sem acento, sem plural simples
+// e sem stopwords), então "Manicure e Pés" acha "pe manicure". Cada termo aponta
+// para uma lista imutável de ids ordenados com o peso do termo no serviço
+// (nome 3, categoria 2, descrição 1); a nota é a soma de peso * idf dos termos.
+// O último termo da consulta vale como prefixo, para sugestões enquanto se digita.
+// Cada IndiceBusca é imutável e o CatalogoServicos o publica dentro do snapshot, então as
+// leituras não pegam lock e nunca veem um índice pela metade nem diferente do catálogo.
+// O índice tem duas partes: a base, grande, que atualizar não toca, e um delta pequeno com
+// os serviços mudados desde a última compactação. Os ids em alterados não valem mais na
+// base (a versão atual, se ainda livre, está no delta); assim atualizar custa o tamanho do
+// delta, não o do catálogo. compactar incorpora o delta numa base nova, em O(N), e roda
+// fora da escrita; rebasear leva para ela o que mudou enquanto isso.
+public class IndiceBusca {
+
+    // Alterados a partir dos quais vale compactar: o delta e essa lista são copiados a cada escrita
+    static final int LIMITE_ALTERADOS = 4096;
+
+    private static final int PESO_NOME = 3;
+    private static final int PESO_CATEGORIA = 2;
+    private static final int PESO_DESCRICAO = 1;
+    // Um prefixo curto demais casaria com boa parte do dicionário
+    private static final int MAX_TERMOS_POR_PREFIXO = 200;
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "o", "as", "os", "um", "uma", "de", "da", "do", "das", "dos", "e", "em", "no", "na", "nos", "nas",
+        "com", "para", "pra", "por", "ou", "ao", "aos");
+
+    // Ids em ordem crescente e o peso de cada um, nas mesmas posições
+    record Postagens(long[] ids, byte[] pesos) {
+        static final Postagens VAZIA = new Postagens(new long[0], new byte[0]);
+
+        int peso(long id) {
+            int posicao = Arrays.binarySearch(ids, id);
+            return posicao < 0 ? 0 : pesos[posicao];
+        }
+    }
+
+    // Termos e serviços de uma das partes do índice
+    private record Segmento(NavigableMap<String, Postagens> termos, Map<Long, ServicoResumoDTO> servicos) {
+        static final Segmento VAZIO = new Segmento(Collections.emptyNavigableMap(), Map.of());
+
+        Postagens postagens(String termo) {
+            return termos.getOrDefault(termo, Postagens.VAZIA);
+        }
+    }
+
+    private final Segmento base;
+    private final Segmento delta;
+    private final Set<Long> alterados;
+    private final int tamanho;
+
+    private IndiceBusca(Segmento base, Segmento delta, Set<Long> alterados, int tamanho) {
+        this.base = base;
+        this.delta = delta;
+        this.alterados = alterados;
+        this.tamanho = tamanho;
+    }
+
+    public static IndiceBusca construir(Collection<ServicoResumoDTO> servicos) {
+        Segmento base = aplicar(new TreeMap<>(), new HashMap<>(), List.of(), servicos);
+        return new IndiceBusca(base, Segmento.VAZIO, Set.of(), base.servicos().size());
+    }
+
+    // Índice novo sem os ids alterados e com os que continuam livres; este fica como estava.
+    // Só o delta e a lista de alterados são copiados
+    public IndiceBusca atualizar(Collection<Long> alterados, Collection<ServicoResumoDTO> servicos) {
+        Set<Long> todos = new HashSet<>(this.alterados);
+        int saemDaBase = 0;
+        for (Long id : alterados) {
+            if (todos.add(id) && base.servicos().containsKey(id)) {
+                saemDaBase++;
+            }
+        }
+        for (ServicoResumoDTO servico : servicos) {
+            if (todos.add(servico.getId()) && base.servicos().containsKey(servico.getId())) {
+                saemDaBase++;
+            }
+        }
+        Segmento novoDelta = aplicar(new TreeMap<>(delta.termos()), new HashMap<>(delta.servicos()), alterados, servicos);
+        return new IndiceBusca(base, novoDelta, Collections.unmodifiableSet(todos),
+            tamanho - saemDaBase + novoDelta.servicos().size() - delta.servicos().size());
+    }
+
+    public boolean precisaCompactar() {
+        return alterados.size() >= LIMITE_ALTERADOS;
+    }
+
+    // O mesmo conteúdo com o delta incorporado à base. Percorre o índice inteiro
+    public IndiceBusca compactar() {
+        if (alterados.isEmpty()) {
+            return this;
+        }
+        Segmento novaBase = aplicar(new TreeMap<>(base.termos()), new HashMap<>(base.servicos()), alterados,
+            delta.servicos().values());
+        return new IndiceBusca(novaBase, Segmento.VAZIO, Set.of(), tamanho);
+    }
+
+    // Este índice sobre a base de compactado, que é origem compactada; origem tem de ser este
+    // índice ou um anterior com a mesma base. Sai do delta quem não mudou desde origem. Se a
+    // base for outra (uma recarga no meio), a compactação ficou velha e o índice volta igual
+    public IndiceBusca rebasear(IndiceBusca origem, IndiceBusca compactado) {
+        if (base != origem.base) {
+            return this;
+        }
+        Set<Long> restantes = new HashSet<>();
+        List<ServicoResumoDTO> noDelta = new ArrayList<>();
+        for (Long id : alterados) {
+            ServicoResumoDTO atual = delta.servicos().get(id);
+            if (!origem.alterados.contains(id) || atual != origem.delta.servicos().get(id)) {
+                restantes.add(id);
+                if (atual != null) {
+                    noDelta.add(atual);
+                }
+            }
+        }
+        return new IndiceBusca(compactado.base, aplicar(new TreeMap<>(), new HashMap<>(), List.of(), noDelta),
+            Collections.unmodifiableSet(restantes), tamanho);
+    }
+
+    public List<ServicoResumoDTO> buscar(String consulta, int limite) {
+        boolean prefixo = consulta != null && !consulta.endsWith(" ");
+        // Quem digita "de" pode estar no meio de "depilação": o prefixo não cai como stopword
+        List<String> tokens = termos(consulta, prefixo);
+        if (tokens.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        int total = Math.max(1, tamanho);
+
+        // Cada token vira uma ou mais listas (várias quando é prefixo, e base e delta separadas),
+        // cada uma com o idf do seu termo, contado nas duas partes
+        Postagens[][] listas = new Postagens[tokens.size()][];
+        boolean[][] daBase = new boolean[tokens.size()][];
+        double[][] idfs = new double[tokens.size()][];
+        for (int t = 0; t < tokens.size(); t++) {
+            List<String> encontrados = prefixo && t == tokens.size() - 1 ? comPrefixo(tokens.get(t)) : List.of(tokens.get(t));
+            List<Postagens> doToken = new ArrayList<>();
+            List<Boolean> origens = new ArrayList<>();
+            List<Double> idfsDoToken = new ArrayList<>();
+            for (String termo : encontrados) {
+                Postagens naBase = base.postagens(termo);
+                Postagens noDelta = delta.postagens(termo);
+                double idf = Math.log(1 + (double) total / Math.max(1, naBase.ids().length + noDelta.ids().length));
+                for (Postagens postagens : List.of(naBase, noDelta)) {
+                    if (postagens.ids().length > 0) {
+                        doToken.add(postagens);
+                        origens.add(postagens == naBase);
+                        idfsDoToken.add(idf);
+                    }
+                }
+            }
+            if (doToken.isEmpty()) {
+                return List.of();
+            }
+            listas[t] = doToken.toArray(Postagens[]::new);
+            daBase[t] = new boolean[doToken.size()];
+            idfs[t] = new double[doToken.size()];
+            for (int l = 0; l < doToken.size(); l++) {
+                daBase[t][l] = origens.get(l);
+                idfs[t][l] = idfsDoToken.get(l);
+            }
+        }
+        boolean filtrarBase = !alterados.isEmpty();
+
+        // Os candidatos vêm do token mais raro, em ordem de id; os outros tokens são
+        // percorridos junto, com um cursor por lista que só anda para frente
+        int condutor = 0;
+        for (int t = 1; t < listas.length; t++) {
+            if (tamanho(listas[t]) < tamanho(listas[condutor])) {
+                condutor = t;
+            }
+        }
+        long[] candidatos = uniao(listas[condutor]);
+        int[][] cursores = new int[listas.length][];
+        for (int t = 0; t < listas.length; t++) {
+            cursores[t] = new int[listas[t].length];
+        }
+
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::nota)
+            .thenComparing(Comparator.comparingLong(Resultado::id).reversed()));
+        for (long id : candidatos) {
+            double nota = 0;
+            for (int t = 0; t < listas.length; t++) {
+                double melhorDoToken = 0;
+                for (int l = 0; l < listas[t].length; l++) {
+                    long[] ids = listas[t][l].ids();
+                    int cursor = cursores[t][l];
+                    while (cursor < ids.length && ids[cursor] < id) {
+                        cursor++;
+                    }
+                    cursores[t][l] = cursor;
+                    // Na base, um id alterado é a versão antiga do serviço: não conta
+                    if (cursor < ids.length && ids[cursor] == id && !(filtrarBase && daBase[t][l] && alterados.contains(id))) {
+                        melhorDoToken = Math.max(melhorDoToken, listas[t][l].pesos()[cursor] * idfs[t][l]);
+                    }
+                }
+                if (melhorDoToken == 0) {
+                    nota = 0;
+                    break;
+                }
+                nota += melhorDoToken;
+            }
+            // Os ids chegam em ordem crescente: no empate fica o que entrou antes
+            if (nota > 0 && (melhores.size() < limite || nota > melhores.peek().nota())) {
+                melhores.add(new Resultado(id, nota));
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+        }
+
+        List<ServicoResumoDTO> resultado = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty()) {
+            ServicoResumoDTO servico = servico(melhores.poll().id());
+            if (servico != null) {
+                resultado.add(servico);
+            }
+        }
+        return resultado.reversed();
+    }
+
+    private record Resultado(long id, double nota) {}
+
+    // Nomes de serviço distintos para o autocompletar, na ordem da busca
+    public List<String> sugerir(String prefixo, int limite) {
+        Set<String> nomes = new LinkedHashSet<>();
+        for (ServicoResumoDTO servico : buscar(prefixo, limite * 4)) {
+            nomes.add(servico.getNome());
+            if (nomes.size() == limite) {
+                break;
+            }
+        }
+        return List.copyOf(nomes);
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private ServicoResumoDTO servico(long id) {
+        ServicoResumoDTO noDelta = delta.servicos().get(id);
+        if (noDelta != null || alterados.contains(id)) {
+            return noDelta;
+        }
+        return base.servicos().get(id);
+    }
+
+    // Estimativa: cada termo (string e entrada no mapa) mais 9 bytes por postagem, nas duas
+    // partes, e a entrada de cada id alterado
+    public long bytesEstimados() {
+        long bytes = 48L * alterados.size();
+        for (Segmento segmento : List.of(base, delta)) {
+            for (Map.Entry<String, Postagens> termo : segmento.termos().entrySet()) {
+                bytes += 40 + termo.getKey().length() + 64 + 32 + 9L * termo.getValue().ids().length;
+            }
+        }
+        return bytes;
+    }
+
+    static List<String> termos(String texto) {
+        return termos(texto, false);
+    }
+
+    private static List<String> termos(String texto, boolean manterUltimo) {
+        if (texto == null) {
+            return List.of();
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        String[] palavras = SEPARADORES.split(normalizado);
+        List<String> termos = new ArrayList<>();
+        for (int i = 0; i < palavras.length; i++) {
+            String palavra = palavras[i];
+            boolean ultimo = manterUltimo && i == palavras.length - 1;
+            if (!palavra.isEmpty() && (ultimo || !STOPWORDS.contains(palavra))) {
+                termos.add(singular(palavra));
+            }
+        }
+        return termos;
+    }
+
+    // Plural simples do português: "unhas" -> "unha", "pes" -> "pe", "maos" -> "mao"
+    private static String singular(String palavra) {
+        if (palavra.length() > 2 && palavra.endsWith("s") && !palavra.endsWith("ss")) {
+            return palavra.substring(0, palavra.length() - 1);
+        }
+        return palavra;
+    }
+
+    private static long tamanho(Postagens[] listas) {
+        long tamanho = 0;
+        for (Postagens postagens : listas) {
+            tamanho += postagens.ids().length;
+        }
+        return tamanho;
+    }
+
+    private static long[] uniao(Postagens[] listas) {
+        if (listas.length == 1) {
+            return listas[0].ids();
+        }
+        return Arrays.stream(listas).flatMapToLong(postagens -> Arrays.stream(postagens.ids())).sorted().distinct().toArray();
+    }
+
+    // Os primeiros termos com o prefixo, juntando base e delta em ordem alfabética
+    private List<String> comPrefixo(String prefixo) {
+        TreeSet<String> encontrados = new TreeSet<>();
+        for (Segmento segmento : List.of(base, delta)) {
+            segmento.termos().subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).keySet().stream()
+                .limit(MAX_TERMOS_POR_PREFIXO)
+                .forEach(encontrados::add);
+        }
+        return encontrados.stream().limit(MAX_TERMOS_POR_PREFIXO).toList();
+    }
+
+    // Aplica as mudanças nas cópias recebidas, que só depois viram o segmento novo
+    private static Segmento aplicar(NavigableMap<String, Postagens> termos, Map<Long, ServicoResumoDTO> indexados,
+            Collection<Long> alterados, Collection<ServicoResumoDTO> servicos) {
+        // Junta as mudanças por termo para refazer cada lista uma vez só
+        Map<String, Set<Long>> remocoes = new HashMap<>();
+        Map<String, Map<Long, Integer>> insercoes = new HashMap<>();
+        for (Long id : alterados) {
+            ServicoResumoDTO antigo = indexados.get(id);
+            if (antigo != null) {
+                for (String termo : pesos(antigo).keySet()) {
+                    remocoes.computeIfAbsent(termo, t -> new HashSet<>()).add(id);
+                }
+            }
+        }
+        for (ServicoResumoDTO servico : servicos) {
+            if (servico.isAgendado()) {
+                continue;
+            }
+            for (Map.Entry<String, Integer> peso : pesos(servico).entrySet()) {
+                insercoes.computeIfAbsent(peso.getKey(), t -> new HashMap<>()).put(servico.getId(), peso.getValue());
+            }
+        }
+
+        Set<String> afetados = new HashSet<>(remocoes.keySet());
+        afetados.addAll(insercoes.keySet());
+        for (String termo : afetados) {
+            Postagens nova = mesclar(termos.getOrDefault(termo, Postagens.VAZIA),
+                remocoes.getOrDefault(termo, Set.of()), insercoes.getOrDefault(termo, Map.of()));
+            if (nova.ids().length == 0) {
+                termos.remove(termo);
+            } else {
+                termos.put(termo, nova);
+            }
+        }
+
+        for (Long id : alterados) {
+            indexados.remove(id);
+        }
+        for (ServicoResumoDTO servico : servicos) {
+            if (!servico.isAgendado()) {
+                indexados.put(servico.getId(), servico);
+            }
+        }
+        return new Segmento(Collections.unmodifiableNavigableMap(termos), Collections.unmodifiableMap(indexados));
+    }
+
+    private static Map<String, Integer> pesos(ServicoResumoDTO servico) {
+        Map<String, Integer> pesos = new HashMap<>();
+        for (String termo : termos(servico.getNome())) {
+            pesos.merge(termo, PESO_NOME, Integer::sum);
+        }
+        for (String termo : termos(servico.getCategoria())) {
+            pesos.merge(termo, PESO_CATEGORIA, Integer::sum);
+        }
+        for (String termo : termos(servico.getDescricao())) {
+            pesos.merge(termo, PESO_DESCRICAO, Integer::sum);
+        }
+        return pesos;
+    }
+
+    // Intercala a lista atual (já ordenada) com os inseridos ordenados, sem as remoções
+    private static Postagens mesclar(Postagens atual, Set<Long> removidos, Map<Long, Integer> inseridos) {
+        long[] novosIds = inseridos.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] ids = new long[atual.ids().length + novosIds.length];
+        byte[] pesos = new byte[ids.length];
+        int tamanho = 0;
+        int i = 0;
+        int j = 0;
+        while (i < atual.ids().length || j < novosIds.length) {
+            long id;
+            int peso;
+            if (j == novosIds.length || (i < atual.ids().length && atual.ids()[i] < novosIds[j])) {
+                id = atual.ids()[i];
+                peso = atual.pesos()[i++];
+                if (removidos.contains(id) || inseridos.containsKey(id)) {
+                    continue;
+                }
+            } else {
+                id = novosIds[j++];
+                peso = Math.min(Byte.MAX_VALUE, inseridos.get(id));
+                if (i < atual.ids().length && atual.ids()[i] == id) {
+                    i++;
+                }
+            }
+            ids[tamanho] = id;
+            pesos[tamanho++] = (byte) peso;
+        }
+        return new Postagens(Arrays.copyOf(ids, tamanho), Arrays.copyOf(pesos, tamanho));
+    }
+}
@@ -0,0 +1,133 @@
+package com.agendafacil.backend.service;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+// Lista imutável em ordem crescente de id, guardada em blocos de até 2 * BLOCO itens.
+// substituir devolve outra lista que compartilha os blocos não tocados: trocar alguns
+// serviços copia os blocos deles e o vetor de blocos, nunca a lista inteira
+final class ListaPorId<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int BLOCO = 512;
+
+    private final ToLongFunction<T> id;
+    private final List<List<T>> blocos;
+    // Posição do primeiro item de cada bloco; a última é o tamanho. Não há bloco vazio
+    private final int[] inicios;
+
+    private ListaPorId(ToLongFunction<T> id, List<List<T>> blocos) {
+        this.id = id;
+        this.blocos = blocos;
+        this.inicios = new int[blocos.size() + 1];
+        for (int b = 0; b < blocos.size(); b++) {
+            inicios[b + 1] = inicios[b] + blocos.get(b).size();
+        }
+    }
+
+    static <T> ListaPorId<T> vazia(ToLongFunction<T> id) {
+        return new ListaPorId<>(id, List.of());
+    }
+
+    // itens já em ordem crescente de id, sem repetidos
+    static <T> ListaPorId<T> de(List<T> itens, ToLongFunction<T> id) {
+        List<List<T>> blocos = new ArrayList<>(itens.size() / BLOCO + 1);
+        for (int inicio = 0; inicio < itens.size(); inicio += BLOCO) {
+            blocos.add(List.copyOf(itens.subList(inicio, Math.min(itens.size(), inicio + BLOCO))));
+        }
+        return new ListaPorId<>(id, blocos);
+    }
+
+    @Override
+    public T get(int indice) {
+        Objects.checkIndex(indice, size());
+        int bloco = Arrays.binarySearch(inicios, 0, blocos.size(), indice);
+        if (bloco < 0) {
+            bloco = -bloco - 2;
+        }
+        return blocos.get(bloco).get(indice - inicios[bloco]);
+    }
+
+    @Override
+    public int size() {
+        return inicios[blocos.size()];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return blocos.stream().flatMap(List::stream).iterator();
+    }
+
+    // Sem os ids removidos e com os novos, que também substituem quem tiver o mesmo id
+    ListaPorId<T> substituir(Collection<Long> removidos, Collection<T> novos) {
+        if (removidos.isEmpty() && novos.isEmpty()) {
+            return this;
+        }
+        Set<Long> saem = new HashSet<>(removidos);
+        // Cada mudança cai no bloco que cobre o id dela; os blocos em ordem para remontar a lista
+        Map<Integer, List<T>> entram = new TreeMap<>();
+        for (Long removido : removidos) {
+            entram.putIfAbsent(bloco(removido), new ArrayList<>());
+        }
+        for (T novo : novos) {
+            long idNovo = id.applyAsLong(novo);
+            saem.add(idNovo);
+            entram.computeIfAbsent(bloco(idNovo), b -> new ArrayList<>()).add(novo);
+        }
+
+        List<List<T>> resultado = new ArrayList<>(blocos.size() + entram.size());
+        int seguinte = 0;
+        for (Map.Entry<Integer, List<T>> mudanca : entram.entrySet()) {
+            int bloco = mudanca.getKey();
+            List<T> atual = bloco < blocos.size() ? blocos.get(bloco) : List.of();
+            resultado.addAll(blocos.subList(seguinte, Math.min(bloco, blocos.size())));
+            seguinte = Math.min(bloco + 1, blocos.size());
+
+            List<T> itens = new ArrayList<>(atual.size() + mudanca.getValue().size());
+            for (T item : atual) {
+                if (!saem.contains(id.applyAsLong(item))) {
+                    itens.add(item);
+                }
+            }
+            if (!mudanca.getValue().isEmpty()) {
+                itens.addAll(mudanca.getValue());
+                itens.sort(Comparator.comparingLong(id));
+            }
+            // Bloco que cresceu demais se divide; o que esvaziou some
+            int partes = itens.size() > 2 * BLOCO ? BLOCO : Math.max(1, itens.size());
+            for (int inicio = 0; inicio < itens.size(); inicio += partes) {
+                resultado.add(List.copyOf(itens.subList(inicio, Math.min(itens.size(), inicio + partes))));
+            }
+        }
+        resultado.addAll(blocos.subList(seguinte, blocos.size()));
+        return new ListaPorId<>(id, resultado);
+    }
+
+    // Último bloco cujo primeiro id não passa de id (o primeiro bloco, se id vier antes de todos)
+    private int bloco(long procurado) {
+        int achado = 0;
+        int baixo = 0;
+        int alto = blocos.size() - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (id.applyAsLong(blocos.get(meio).get(0)) <= procurado) {
+                achado = meio;
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return achado;
+    }
+}
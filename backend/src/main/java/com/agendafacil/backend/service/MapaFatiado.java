@@ -0,0 +1,101 @@
+package com.agendafacil.backend.service;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Mapa imutável repartido em FATIAS HashMaps pelo hash da chave. com devolve outro mapa
+// que copia só as fatias das chaves alteradas e compartilha as outras. Não guarda null
+final class MapaFatiado<K, V> extends AbstractMap<K, V> {
+
+    private static final int FATIAS = 256;
+    private static final MapaFatiado<?, ?> VAZIO = new MapaFatiado<>(Collections.nCopies(FATIAS, Map.of()), 0);
+
+    private final List<Map<K, V>> fatias;
+    private final int tamanho;
+
+    private MapaFatiado(List<Map<K, V>> fatias, int tamanho) {
+        this.fatias = fatias;
+        this.tamanho = tamanho;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> MapaFatiado<K, V> vazio() {
+        return (MapaFatiado<K, V>) VAZIO;
+    }
+
+    static <K, V> MapaFatiado<K, V> de(Map<K, V> entradas) {
+        List<Map<K, V>> fatias = new ArrayList<>(FATIAS);
+        for (int f = 0; f < FATIAS; f++) {
+            fatias.add(new HashMap<>());
+        }
+        entradas.forEach((chave, valor) -> fatias.get(fatia(chave)).put(chave, valor));
+        fatias.replaceAll(Collections::unmodifiableMap);
+        return new MapaFatiado<>(fatias, entradas.size());
+    }
+
+    // Valor null em alteracoes remove a chave
+    MapaFatiado<K, V> com(Map<K, V> alteracoes) {
+        if (alteracoes.isEmpty()) {
+            return this;
+        }
+        List<Map<K, V>> novas = new ArrayList<>(fatias);
+        Map<Integer, Map<K, V>> copiadas = new HashMap<>();
+        int novoTamanho = tamanho;
+        for (Map.Entry<K, V> alteracao : alteracoes.entrySet()) {
+            int f = fatia(alteracao.getKey());
+            Map<K, V> copia = copiadas.computeIfAbsent(f, i -> new HashMap<>(fatias.get(i)));
+            V anterior = alteracao.getValue() == null
+                ? copia.remove(alteracao.getKey())
+                : copia.put(alteracao.getKey(), alteracao.getValue());
+            if (anterior == null && alteracao.getValue() != null) {
+                novoTamanho++;
+            } else if (anterior != null && alteracao.getValue() == null) {
+                novoTamanho--;
+            }
+        }
+        copiadas.forEach((f, copia) -> novas.set(f, Collections.unmodifiableMap(copia)));
+        return new MapaFatiado<>(novas, novoTamanho);
+    }
+
+    @Override
+    public V get(Object chave) {
+        return chave == null ? null : fatias.get(fatia(chave)).get(chave);
+    }
+
+    @Override
+    public boolean containsKey(Object chave) {
+        return get(chave) != null;
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return fatias.stream().flatMap(fatia -> fatia.entrySet().stream()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return tamanho;
+            }
+        };
+    }
+
+    private static int fatia(Object chave) {
+        int hash = chave.hashCode();
+        return (hash ^ (hash >>> 16)) & (FATIAS - 1);
+    }
+}
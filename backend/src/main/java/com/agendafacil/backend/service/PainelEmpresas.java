@@ -0,0 +1,148 @@
+package com.agendafacil.backend.service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntSupplier;
+
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.PainelCategoria;
+import com.agendafacil.backend.model.PainelDia;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.repository.PainelCategoriaRepository;
+import com.agendafacil.backend.repository.PainelDiaRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+// Mantém os totais do painel (painel_categorias e painel_dias) dentro da transação de quem
+// cadastra, reserva ou apaga serviço: cada escrita soma seu delta com um UPDATE atômico, então
+// o painel nunca mostra uma reserva que foi desfeita. Divergências (escritas fora daqui,
+// reservas antigas sem dia) são corrigidas pela ReconciliacaoPainel.
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class PainelEmpresas {
+    private static final int TENTATIVAS = 3;
+    private static final Comparator<PainelCategoria.Chave> ORDEM_CATEGORIAS =
+        Comparator.comparing(PainelCategoria.Chave::empresaId).thenComparing(PainelCategoria.Chave::categoria);
+    private static final Comparator<PainelDia.Chave> ORDEM_DIAS = Comparator.comparing(PainelDia.Chave::empresaId)
+        .thenComparing(PainelDia.Chave::dia).thenComparing(PainelDia.Chave::categoria);
+    private static final String CHAVE_DUPLICADA = "23505";
+    private static final String CRIAR_CATEGORIA = "insert into painel_categorias "
+        + "(empresa_id, categoria, servicos, reservas, receita, minutos) values (?, ?, 0, 0, 0, 0)";
+    private static final String CRIAR_DIA = "insert into painel_dias "
+        + "(empresa_id, dia, categoria, reservas, receita, minutos) values (?, ?, ?, 0, 0, 0)";
+
+    private record Soma(long reservas, BigDecimal receita, long minutos) {
+        Soma mais(Soma outra) {
+            return new Soma(reservas + outra.reservas, receita.add(outra.receita), minutos + outra.minutos);
+        }
+    }
+
+    private final PainelCategoriaRepository painelCategoriaRepository;
+    private final PainelDiaRepository painelDiaRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void servicoCriado(Servico servico) {
+        servicosCriados(servico.getEmpresa().getId(), servico.getCategoria(), 1);
+    }
+
+    // Cadastro em lote: um UPDATE por categoria, não por serviço
+    public void servicosCriados(Long empresaId, String categoria, long quantidade) {
+        somarCategoria(empresaId, categoria, quantidade, 0, BigDecimal.ZERO, 0);
+    }
+
+    public void servicoReservado(Servico servico) {
+        servicosReservados(List.of(servico));
+    }
+
+    // Reserva em lote: uma soma por categoria e por dia. As linhas do painel são travadas sempre
+    // na mesma ordem (empresa, dia, categoria), como os serviços, para dois lotes não se travarem
+    public void servicosReservados(Collection<Servico> servicos) {
+        Map<PainelCategoria.Chave, Soma> porCategoria = new TreeMap<>(ORDEM_CATEGORIAS);
+        Map<PainelDia.Chave, Soma> porDia = new TreeMap<>(ORDEM_DIAS);
+        for (Servico servico : servicos) {
+            Soma soma = new Soma(1, servico.getPreco(), servico.getDuracao_minutos());
+            Long empresaId = servico.getEmpresa().getId();
+            porCategoria.merge(new PainelCategoria.Chave(empresaId, servico.getCategoria()), soma, Soma::mais);
+            porDia.merge(new PainelDia.Chave(empresaId, servico.getReservadoEm().toLocalDate(), servico.getCategoria()), soma, Soma::mais);
+        }
+        porCategoria.forEach((chave, soma) ->
+            somarCategoria(chave.empresaId(), chave.categoria(), 0, soma.reservas(), soma.receita(), soma.minutos()));
+        porDia.forEach((chave, soma) ->
+            somarDia(chave.empresaId(), chave.dia(), chave.categoria(), soma.reservas(), soma.receita(), soma.minutos()));
+    }
+
+    // Serviço reservado sai também das reservas; reservadoEm null só em reserva anterior ao painel
+    public void servicoRemovido(ServicoResumoDTO servico, LocalDateTime reservadoEm) {
+        if (!servico.isAgendado()) {
+            somarCategoria(servico.getEmpresaId(), servico.getCategoria(), -1, 0, BigDecimal.ZERO, 0);
+            return;
+        }
+        somarCategoria(servico.getEmpresaId(), servico.getCategoria(), -1, -1, servico.getPreco().negate(),
+            -servico.getDuracao_minutos());
+        if (reservadoEm != null) {
+            somarDia(servico.getEmpresaId(), reservadoEm.toLocalDate(), servico.getCategoria(), -1, servico.getPreco().negate(),
+                -servico.getDuracao_minutos());
+        }
+    }
+
+    private void somarCategoria(Long empresaId, String categoria, long servicos, long reservas, BigDecimal receita, long minutos) {
+        somar(() -> painelCategoriaRepository.somar(empresaId, categoria, servicos, reservas, receita, minutos),
+            CRIAR_CATEGORIA, empresaId, categoria);
+    }
+
+    private void somarDia(Long empresaId, LocalDate dia, String categoria, long reservas, BigDecimal receita, long minutos) {
+        somar(() -> painelDiaRepository.somar(empresaId, dia, categoria, reservas, receita, minutos),
+            CRIAR_DIA, empresaId, Date.valueOf(dia), categoria);
+    }
+
+    // A linha só falta na primeira escrita da categoria (ou do dia), e duas escritas simultâneas
+    // podem tentar criá-la juntas. O INSERT da linha zerada vai atrás de um savepoint: a chave
+    // duplicada desfaz só ele (no Postgres, um erro sem savepoint perderia a transação inteira),
+    // e quando o outro INSERT é confirmado a soma é refeita e encontra a linha
+    private void somar(IntSupplier atualizar, String criar, Object... chave) {
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            if (atualizar.getAsInt() > 0) {
+                return;
+            }
+            entityManager.unwrap(Session.class).doWork(conexao -> criarSeFaltar(conexao, criar, chave));
+        }
+        throw new IllegalStateException("Linha do painel não encontrada depois de " + TENTATIVAS + " tentativas");
+    }
+
+    private static void criarSeFaltar(Connection conexao, String criar, Object... chave) throws SQLException {
+        Savepoint savepoint = conexao.setSavepoint();
+        try (PreparedStatement comando = conexao.prepareStatement(criar)) {
+            for (int i = 0; i < chave.length; i++) {
+                comando.setObject(i + 1, chave[i]);
+            }
+            comando.executeUpdate();
+            conexao.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            conexao.rollback(savepoint);
+            // 23505: outra transação criou a mesma linha
+            if (!CHAVE_DUPLICADA.equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+    }
+}
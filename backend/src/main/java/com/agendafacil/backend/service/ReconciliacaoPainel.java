@@ -0,0 +1,129 @@
+package com.agendafacil.backend.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.agendafacil.backend.model.PainelCategoria;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.PainelCategoriaRepository;
+import com.agendafacil.backend.repository.PainelDiaRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Refaz o painel de cada empresa a partir de servicos, a cada painel.reconciliacao.intervalo.
+// Cada empresa vai numa transação: apaga as linhas dela e regrava com GROUP BY. Uma reserva
+// concorrente que não entrou na contagem ainda soma na linha nova, porque o upsert dela
+// espera o commit da reconciliação. Quando os totais por categoria mudam, a diferença é
+// logada e contada (painel.divergencias): o incremental deixou passar alguma escrita.
+@Component
+public class ReconciliacaoPainel {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliacaoPainel.class);
+    private static final int TAMANHO_PAGINA = 500;
+
+    private record Totais(long servicos, long reservas, BigDecimal receita, long minutos) {}
+
+    private final EmpresaRepository empresaRepository;
+    private final PainelCategoriaRepository painelCategoriaRepository;
+    private final PainelDiaRepository painelDiaRepository;
+    private final TransactionTemplate transacao;
+    // null com painel.reconciliacao.habilitado=false: só reconcilia quem chamar
+    private final ScheduledExecutorService execucoes;
+
+    private final LongAdder divergencias = new LongAdder();
+
+    public ReconciliacaoPainel(EmpresaRepository empresaRepository, PainelCategoriaRepository painelCategoriaRepository,
+            PainelDiaRepository painelDiaRepository, PlatformTransactionManager transactionManager,
+            @Value("${painel.reconciliacao.habilitado:true}") boolean habilitado,
+            @Value("${painel.reconciliacao.intervalo:6h}") Duration intervalo) {
+        this.empresaRepository = empresaRepository;
+        this.painelCategoriaRepository = painelCategoriaRepository;
+        this.painelDiaRepository = painelDiaRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        if (habilitado) {
+            this.execucoes = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("painel-reconciliacao").daemon().factory());
+            this.execucoes.scheduleWithFixedDelay(this::rodar, intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            this.execucoes = null;
+        }
+    }
+
+    // Todas as empresas, em páginas de ids; devolve quantas divergiam
+    public int reconciliarTodas() {
+        int divergentes = 0;
+        List<Long> ids = List.of();
+        do {
+            Long apos = ids.isEmpty() ? 0L : ids.get(ids.size() - 1);
+            ids = transacao.execute(status -> empresaRepository.findIdsApos(apos, Limit.of(TAMANHO_PAGINA)));
+            for (Long empresaId : ids) {
+                if (reconciliar(empresaId)) {
+                    divergentes++;
+                }
+            }
+        } while (ids.size() == TAMANHO_PAGINA);
+        return divergentes;
+    }
+
+    // true quando os totais por categoria estavam diferentes do que servicos diz
+    public boolean reconciliar(Long empresaId) {
+        boolean divergia = transacao.execute(status -> {
+            Map<String, Totais> antes = totais(empresaId);
+            painelCategoriaRepository.apagarDaEmpresa(empresaId);
+            painelDiaRepository.apagarDaEmpresa(empresaId);
+            painelCategoriaRepository.recalcular(empresaId);
+            painelDiaRepository.recalcular(empresaId);
+            Map<String, Totais> depois = totais(empresaId);
+            if (antes.equals(depois)) {
+                return false;
+            }
+            log.warn("Painel da empresa {} divergia de servicos e foi refeito: {} -> {}", empresaId, antes, depois);
+            return true;
+        });
+        if (divergia) {
+            divergencias.increment();
+        }
+        return divergia;
+    }
+
+    public long divergencias() {
+        return divergencias.sum();
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        if (execucoes != null) {
+            execucoes.shutdown();
+            execucoes.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void rodar() {
+        try {
+            reconciliarTodas();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reconciliar o painel das empresas: {}", e.getMessage());
+        }
+    }
+
+    // Categorias zeradas ficam de fora, como no painel; receita sem a escala para comparar
+    private Map<String, Totais> totais(Long empresaId) {
+        return painelCategoriaRepository.findByEmpresaIdOrderByCategoria(empresaId).stream()
+            .filter(p -> p.getServicos() != 0 || p.getReservas() != 0)
+            .collect(Collectors.toMap(PainelCategoria::getCategoria,
+                p -> new Totais(p.getServicos(), p.getReservas(), p.getReceita().stripTrailingZeros(), p.getMinutos())));
+    }
+}
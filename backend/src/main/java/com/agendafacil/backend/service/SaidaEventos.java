@@ -0,0 +1,82 @@
+package com.agendafacil.backend.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.agendafacil.backend.DTO.AgendamentoDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.EventoSaida;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.repository.EventoSaidaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+// Grava os eventos do outbox dentro da transação de quem chama (reserva, agendamento,
+// cadastro e remoção de serviço): o evento existe se, e só se, a escrita foi confirmada.
+// Nada sai daqui para fora; quem entrega é o DespachanteEventos, acordado no commit.
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class SaidaEventos {
+
+    record Reserva(ServicoResumoDTO servico, Long usuarioId) {}
+
+    private final EventoSaidaRepository eventoSaidaRepository;
+    private final DespachanteEventos despachante;
+    private final ObjectMapper objectMapper;
+
+    public void servicoCriado(Servico servico) {
+        registrar(EventoSaida.SERVICO_CRIADO, servico.getId(), servico.getEmpresa().getId(), resumo(servico));
+    }
+
+    public void servicoReservado(Servico servico, Long usuarioId) {
+        registrar(EventoSaida.SERVICO_RESERVADO, servico.getId(), servico.getEmpresa().getId(),
+            new Reserva(resumo(servico), usuarioId));
+    }
+
+    // Estado do serviço antes de sair do banco
+    public void servicoRemovido(ServicoResumoDTO servico) {
+        registrar(EventoSaida.SERVICO_REMOVIDO, servico.getId(), servico.getEmpresaId(), servico);
+    }
+
+    public void agendamentoCriado(AgendamentoDTO agendamento, Long empresaId) {
+        registrar(EventoSaida.AGENDAMENTO_CRIADO, agendamento.getId(), empresaId, agendamento);
+    }
+
+    private void registrar(String tipo, Long agregadoId, Long empresaId, Object dados) {
+        eventoSaidaRepository.save(new EventoSaida(tipo, agregadoId, empresaId, json(dados), LocalDateTime.now()));
+        // Uma sincronização por transação, mesmo no cadastro em lote
+        if (!TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SaidaEventos.this);
+                    if (status == STATUS_COMMITTED) {
+                        despachante.acordar();
+                    }
+                }
+            });
+        }
+    }
+
+    private static ServicoResumoDTO resumo(Servico servico) {
+        return new ServicoResumoDTO(servico.getId(), servico.getNome(), servico.getCategoria(), servico.getDescricao(),
+            servico.getDuracao_minutos(), servico.getPreco(), servico.isAgendado(), servico.getEmpresa().getId());
+    }
+
+    private String json(Object dados) {
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,78 +1,392 @@
 package com.agendafacil.backend.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.agendafacil.backend.DTO.FiltroServicosDTO;
+import com.agendafacil.backend.DTO.ItemReservaLoteDTO;
+import com.agendafacil.backend.DTO.LinhaLoteDTO;
+import com.agendafacil.backend.DTO.PaginaCursorDTO;
+import com.agendafacil.backend.DTO.PaginaDTO;
+import com.agendafacil.backend.DTO.ResultadoLoteDTO;
+import com.agendafacil.backend.DTO.ResultadoReservaLoteDTO;
+import com.agendafacil.backend.DTO.ServicoDTO;
+import com.agendafacil.backend.DTO.ServicoDetalheDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.event.ServicosAlteradosEvent;
+import com.agendafacil.backend.model.PainelCategoria;
 import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.repository.AgendamentoRepository;
+import com.agendafacil.backend.repository.CursorServicos;
+import com.agendafacil.backend.repository.OrdemServicos;
+import com.agendafacil.backend.repository.ServicoFiltros;
 import com.agendafacil.backend.repository.ServicoRepository;
 import com.agendafacil.backend.model.Empresa;
 import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.UserRepository;
 
 import com.agendafacil.backend.model.User;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class ServicoService {
+    public static final int LIMITE_PAGINA = 500;
+    public static final int LIMITE_LOTE = 5000;
+    public static final int LIMITE_BUSCA = 100;
+    public static final int LIMITE_RESERVA_LOTE = 20;
+    // Igual ao hibernate.jdbc.batch_size: a cada bloco o contexto é descarregado e limpo
+    private static final int TAMANHO_BATCH = 50;
+
     @Autowired
     private ServicoRepository servicoRepository;
     
     @Autowired
     private EmpresaRepository empresaRepository;
     @Autowired
-    private UserService userService;
-
+    private UserRepository userRepository;
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+    @Autowired
+    private CatalogoServicos catalogoServicos;
+    @Autowired
+    private CentralEventosServicos centralEventos;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ConsistenciaLeitura consistenciaLeitura;
+    @Autowired
+    private SaidaEventos saidaEventos;
+    @Autowired
+    private PainelEmpresas painelEmpresas;
+    @PersistenceContext
+    private EntityManager entityManager;
 
 
+    @Transactional
     public Servico cadastrar(Servico servico, Long empresaId){
         Empresa empresa = empresaRepository.findById(empresaId)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada!"));
         
         servico.setEmpresa(empresa);
-        return servicoRepository.save(servico);
+        Servico salvo = servicoRepository.save(servico);
+        saidaEventos.servicoCriado(salvo);
+        painelEmpresas.servicoCriado(salvo);
+        eventPublisher.publishEvent(ServicosAlteradosEvent.de(salvo.getId()));
+        return salvo;
+    }
+
+    // Chamada interna não passa pelo proxy: a transação tem de começar aqui
+    @Transactional
+    public ResultadoLoteDTO cadastrarLote(List<ServicoDTO> servicos){
+        return cadastrarLote(servicos, Map.of());
+    }
+
+    // Valida todas as linhas antes de gravar e consulta as empresas citadas uma vez só.
+    // As linhas válidas são inseridas em batch; as inválidas voltam no relatório com o erro.
+    // errosLeitura: erro de leitura por posição da linha (CSV que não converteu), que vale
+    // mais que a validação
+    @Transactional
+    public ResultadoLoteDTO cadastrarLote(List<ServicoDTO> servicos, Map<Integer, String> errosLeitura){
+        if(servicos.size() > LIMITE_LOTE){
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Lote maior que " + LIMITE_LOTE + " linhas");
+        }
+        Set<Long> empresaIds = servicos.stream()
+            .filter(Objects::nonNull)
+            .map(ServicoDTO::getEmpresaId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> empresasExistentes = empresaIds.isEmpty() ? Set.of() : new HashSet<>(empresaRepository.findIdsExistentes(empresaIds));
+
+        String[] erros = new String[servicos.size()];
+        for(int i = 0; i < servicos.size(); i++){
+            erros[i] = errosLeitura.containsKey(i) ? errosLeitura.get(i) : validar(servicos.get(i), empresasExistentes);
+        }
+
+        List<LinhaLoteDTO> linhas = new ArrayList<>(servicos.size());
+        List<Long> inseridos = new ArrayList<>();
+        Map<PainelCategoria.Chave, Long> novosPorCategoria = new HashMap<>();
+        for(int i = 0; i < servicos.size(); i++){
+            if(erros[i] != null){
+                linhas.add(new LinhaLoteDTO(i + 1, null, erros[i]));
+                continue;
+            }
+            ServicoDTO dto = servicos.get(i);
+            Servico servico = new Servico(dto.getNome(), dto.getCategoria(), dto.getDescricao(), dto.getDuracao_minutos(), dto.getPreco(),
+                empresaRepository.getReferenceById(dto.getEmpresaId()));
+            Long id = servicoRepository.save(servico).getId();
+            saidaEventos.servicoCriado(servico);
+            linhas.add(new LinhaLoteDTO(i + 1, id, null));
+            inseridos.add(id);
+            novosPorCategoria.merge(new PainelCategoria.Chave(dto.getEmpresaId(), dto.getCategoria()), 1L, Long::sum);
+            if(inseridos.size() % TAMANHO_BATCH == 0){
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        novosPorCategoria.forEach((chave, quantidade) ->
+            painelEmpresas.servicosCriados(chave.empresaId(), chave.categoria(), quantidade));
+        if(!inseridos.isEmpty()){
+            eventPublisher.publishEvent(new ServicosAlteradosEvent(inseridos));
+        }
+        return ResultadoLoteDTO.de(linhas);
+    }
+
+    private String validar(ServicoDTO dto, Set<Long> empresasExistentes){
+        if(dto == null){
+            return "Linha vazia";
+        }
+        if(vazio(dto.getNome()) || dto.getNome().length() > 150){
+            return "Nome obrigatório (até 150 caracteres)";
+        }
+        if(vazio(dto.getCategoria()) || dto.getCategoria().length() > 100){
+            return "Categoria obrigatória (até 100 caracteres)";
+        }
+        if(vazio(dto.getDescricao()) || dto.getDescricao().length() > 255){
+            return "Descrição obrigatória (até 255 caracteres)";
+        }
+        if(dto.getDuracao_minutos() <= 0){
+            return "Duração deve ser maior que zero";
+        }
+        if(dto.getPreco() == null || dto.getPreco().signum() < 0){
+            return "Preço obrigatório e não negativo";
+        }
+        if(dto.getEmpresaId() == null || !empresasExistentes.contains(dto.getEmpresaId())){
+            return "Empresa não encontrada!";
+        }
+        return null;
     }
 
+    private static boolean vazio(String valor){
+        return valor == null || valor.isBlank();
+    }
+
+    public List<ServicoResumoDTO> buscar(String consulta, int limit){
+        return catalogoServicos.buscar(consulta, Math.max(1, Math.min(limit, LIMITE_BUSCA)));
+    }
+
+    public List<String> sugerir(String prefixo, int limit){
+        return catalogoServicos.sugerir(prefixo, Math.max(1, Math.min(limit, LIMITE_BUSCA)));
+    }
+
+    // Com nomes repetidos devolve o primeiro cadastrado
     public Servico findByNome(String nome){
-        return servicoRepository.findByNome(nome)
+        return servicoRepository.findFirstByNomeOrderByIdAsc(nome)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Nenhum servico encontrado com esse nome!"));
     }
 
-    public List<Servico> findByCategoria(String categoria){
-        return servicoRepository.findByCategoria(categoria);
+    // findByCategoria, findAll e findByEmpresaId respondem do catálogo em memória (que lê do
+    // primário) e ficam sem transação: abrir uma só para ler memória prenderia conexão à toa
+    public List<ServicoResumoDTO> findByCategoria(String categoria){
+        return catalogoServicos.porCategoria(categoria);
+    }
+
+    public List<ServicoResumoDTO> findAll(){
+        return catalogoServicos.disponiveis();
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<ServicoResumoDTO> findDisponiveis(Long after, int limit){
+        int tamanho = Math.max(1, Math.min(limit, LIMITE_PAGINA));
+        List<ServicoResumoDTO> itens = servicoRepository.findDisponiveisApos(after == null ? 0L : after, Limit.of(tamanho));
+        Long proximo = itens.size() == tamanho ? itens.get(itens.size() - 1).getId() : null;
+        return new PaginaDTO<>(itens, proximo);
+    }
+
+    // Serviços livres por categoria, empresa, faixa de preço e duração máxima, direto no banco
+    // (índices de V5__indices_filtro_servicos), paginados pelo cursor da ordem pedida
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<ServicoResumoDTO> filtrar(FiltroServicosDTO filtro){
+        OrdemServicos ordem = OrdemServicos.de(filtro.getOrdem());
+        if(ordem == null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ordem deve ser preco, -preco, duracao ou -duracao");
+        }
+        if((filtro.getPrecoMin() != null && filtro.getPrecoMin().signum() < 0)
+            || (filtro.getPrecoMax() != null && filtro.getPrecoMax().signum() < 0)
+            || (filtro.getPrecoMin() != null && filtro.getPrecoMax() != null && filtro.getPrecoMin().compareTo(filtro.getPrecoMax()) > 0)){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Faixa de preço inválida");
+        }
+        if(filtro.getDuracaoMax() != null && filtro.getDuracaoMax() <= 0){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duração máxima deve ser maior que zero");
+        }
+        CursorServicos apos = null;
+        if(filtro.getAfter() != null && !filtro.getAfter().isBlank()){
+            try {
+                apos = CursorServicos.de(filtro.getAfter());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+            }
+        }
+
+        Specification<Servico> condicoes = ServicoFiltros.livres();
+        if(filtro.getCategoria() != null){
+            condicoes = condicoes.and(ServicoFiltros.daCategoria(filtro.getCategoria()));
+        }
+        if(filtro.getEmpresaId() != null){
+            condicoes = condicoes.and(ServicoFiltros.daEmpresa(filtro.getEmpresaId()));
+        }
+        if(filtro.getPrecoMin() != null){
+            condicoes = condicoes.and(ServicoFiltros.precoMinimo(filtro.getPrecoMin()));
+        }
+        if(filtro.getPrecoMax() != null){
+            condicoes = condicoes.and(ServicoFiltros.precoMaximo(filtro.getPrecoMax()));
+        }
+        if(filtro.getDuracaoMax() != null){
+            condicoes = condicoes.and(ServicoFiltros.duracaoMaxima(filtro.getDuracaoMax()));
+        }
+
+        int tamanho = Math.max(1, Math.min(filtro.getLimit(), LIMITE_PAGINA));
+        List<ServicoResumoDTO> itens = servicoRepository.filtrar(condicoes, ordem, apos, tamanho);
+        String proximo = itens.size() == tamanho ? CursorServicos.de(itens.get(itens.size() - 1)).toString() : null;
+        return new PaginaCursorDTO<>(itens, proximo);
     }
 
-    public List<Servico> findAll(){
-        return servicoRepository.findByAgendadoFalse();
+    // Percorre os serviços livres direto do cursor JDBC, sem montar a lista
+    @Transactional(readOnly = true)
+    public void paraCadaDisponivel(Consumer<ServicoResumoDTO> consumidor){
+        try (Stream<ServicoResumoDTO> servicos = servicoRepository.streamDisponiveis()) {
+            servicos.forEach(consumidor);
+        }
     }
 
+    @Transactional(readOnly = true)
     public Servico findById(Long id){
         return servicoRepository.findById(id)
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Servico não encontrado"));
     }
 
-    public List<Servico> findByEmpresaId(Long empresaId){
-        Empresa empresa = empresaRepository.findById(empresaId)
-            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada"));
-        return servicoRepository.findByEmpresa(empresa);
+    public List<ServicoDetalheDTO> findByEmpresaId(Long empresaId){
+        List<ServicoDetalheDTO> servicos = catalogoServicos.porEmpresa(empresaId);
+        // Empresa sem serviços não aparece no catálogo: só então confere no banco
+        if(servicos.isEmpty() && !empresaRepository.existsById(empresaId)){
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada");
+        }
+        return servicos;
     }
 
-    public void deletar(Long id){
-        servicoRepository.deleteById(id);
+    // Conexão SSE que recebe as mudanças confirmadas dos serviços (de uma empresa ou de todas)
+    public SseEmitter acompanhar(Long empresaId){
+        if(empresaId != null && !empresaRepository.existsById(empresaId)){
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada");
+        }
+        return centralEventos.assinar(empresaId);
     }
 
+    // Só a empresa dona apaga o serviço
+    @Transactional
+    public void deletar(Long id, Long empresaId){
+        ServicoResumoDTO servico = servicoRepository.findResumoById(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado"));
+        if(!servico.getEmpresaId().equals(empresaId)){
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Serviço pertence a outra empresa");
+        }
+        // Agendamentos guardam o histórico do cliente: serviço com agendamento não é apagado
+        if(agendamentoRepository.existsByServicoId(id)){
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Serviço tem agendamentos e não pode ser removido");
+        }
+        LocalDateTime reservadoEm = servico.isAgendado() ? servicoRepository.findReservadoEmById(id).orElse(null) : null;
+        try {
+            servicoRepository.deleteById(id);
+            // Agendamento criado depois da conferência: a chave estrangeira recusa aqui, e não no commit
+            servicoRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Serviço tem agendamentos e não pode ser removido");
+        }
+        saidaEventos.servicoRemovido(servico);
+        painelEmpresas.servicoRemovido(servico, reservadoEm);
+        eventPublisher.publishEvent(ServicosAlteradosEvent.de(id));
+    }
+
+    @Transactional
     public Servico reservarServico(Long servicoId, Long userId){
-        Servico servico = servicoRepository.findById(servicoId)
-            .orElseThrow(() -> new RuntimeException("Serviço não encontrado"));
-        if(servico.isAgendado()){
-            throw new RuntimeException("Serviço já agendado!");
+        // O id vem de um token assinado: usa só a referência, sem SELECT do usuário.
+        // Se o usuário tiver sido apagado depois do login, a chave estrangeira recusa o UPDATE.
+        User user = userRepository.getReferenceById(userId);
+
+        // Um único UPDATE condicional decide o vencedor, sem lock pessimista
+        int reservados;
+        try {
+            reservados = servicoRepository.reservarSeLivre(servicoId, user, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+        }
+        if(reservados == 0){
+            if(!servicoRepository.existsById(servicoId)){
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Serviço já agendado!");
         }
-        User user = userService.findById(userId)
-            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        servico.setAgendado(true);
-        servico.setUsuarioAgendado(user);
-        return servicoRepository.save(servico);
+        Servico reservado = findById(servicoId);
+        saidaEventos.servicoReservado(reservado, userId);
+        painelEmpresas.servicoReservado(reservado);
+        eventPublisher.publishEvent(ServicosAlteradosEvent.de(servicoId));
+        // Por banco.leitura-propria.janela as leituras deste usuário vão ao primário
+        consistenciaLeitura.registrarEscrita(userId);
+        return reservado;
     }
 
+    // Reserva todos os serviços da lista ou nenhum, numa transação: trava as linhas em ordem de
+    // id, confere se estão livres e reserva com um UPDATE só. Se algum não puder ser reservado
+    // nada é gravado e o resultado diz a situação de cada um
+    @Transactional
+    public ResultadoReservaLoteDTO reservarLote(List<Long> servicoIds, Long userId){
+        if(servicoIds == null || servicoIds.isEmpty() || servicoIds.size() > LIMITE_RESERVA_LOTE){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O lote deve ter de 1 a " + LIMITE_RESERVA_LOTE + " serviços");
+        }
+        if(servicoIds.stream().anyMatch(Objects::isNull) || new HashSet<>(servicoIds).size() != servicoIds.size()){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Serviço vazio ou repetido no lote");
+        }
+
+        Map<Long, Servico> travados = servicoRepository.travarPorIds(servicoIds).stream()
+            .collect(Collectors.toMap(Servico::getId, servico -> servico));
+        List<ItemReservaLoteDTO> itens = new ArrayList<>(servicoIds.size());
+        for(Long id : servicoIds){
+            Servico servico = travados.get(id);
+            String situacao = servico == null ? ItemReservaLoteDTO.NAO_ENCONTRADO
+                : servico.isAgendado() ? ItemReservaLoteDTO.INDISPONIVEL : ItemReservaLoteDTO.LIVRE;
+            itens.add(new ItemReservaLoteDTO(id, situacao));
+        }
+        if(itens.stream().anyMatch(item -> !item.getSituacao().equals(ItemReservaLoteDTO.LIVRE))){
+            return new ResultadoReservaLoteDTO(false, itens);
+        }
+
+        int reservados;
+        try {
+            reservados = servicoRepository.reservarTodosSeLivres(servicoIds, userRepository.getReferenceById(userId), LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+        }
+        // Com as linhas travadas não acontece; se acontecer, a exceção desfaz o lote inteiro
+        if(reservados != servicoIds.size()){
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Serviço já agendado!");
+        }
+        List<Servico> reservadosNoLote = servicoRepository.findAllById(servicoIds);
+        reservadosNoLote.forEach(servico -> saidaEventos.servicoReservado(servico, userId));
+        painelEmpresas.servicosReservados(reservadosNoLote);
+        eventPublisher.publishEvent(new ServicosAlteradosEvent(servicoIds));
+        consistenciaLeitura.registrarEscrita(userId);
+        itens.forEach(item -> item.setSituacao(ItemReservaLoteDTO.RESERVADO));
+        return new ResultadoReservaLoteDTO(true, itens);
+    }
 }
@@ -0,0 +1,155 @@
+package com.agendafacil.backend.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.DTO.TokensDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Emite e confere tokens de sessão no formato JWT (HS256), sem estado no servidor:
+// o token leva o id, o papel (usuário ou empresa), o tipo e a validade, e a
+// assinatura HMAC prova que foi emitido aqui. Conferir um token não vai ao banco.
+// O token de acesso dura pouco; o de renovação serve só para pedir um par novo.
+@Component
+public class TokenService {
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String CABECALHO = base64("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final String ACESSO = "acesso";
+    private static final String RENOVACAO = "renovacao";
+    private static final int TAMANHO_MINIMO_CHAVE = 32;
+
+    public enum Papel { USUARIO, EMPRESA }
+
+    // Quem fez a requisição, como veio no token
+    public record Autenticado(Long id, Papel papel) {}
+
+    private final ObjectMapper objectMapper;
+    private final Duration validadeAcesso;
+    private final Duration validadeRenovacao;
+    // A chave é montada uma vez; cada assinatura usa um clone do Mac já inicializado
+    private final Mac prototipo;
+
+    // Sem segredo a subida falha: com várias instâncias, cada uma sortearia a sua chave e recusaria
+    // os tokens das outras. A chave aleatória só vale com auth.token.chave-aleatoria (testes, dev local)
+    public TokenService(ObjectMapper objectMapper,
+            @Value("${auth.token.segredo:}") String segredo,
+            @Value("${auth.token.chave-aleatoria:false}") boolean chaveAleatoria,
+            @Value("${auth.token.validade-acesso:15m}") Duration validadeAcesso,
+            @Value("${auth.token.validade-renovacao:7d}") Duration validadeRenovacao) throws GeneralSecurityException {
+        this.objectMapper = objectMapper;
+        this.validadeAcesso = validadeAcesso;
+        this.validadeRenovacao = validadeRenovacao;
+        byte[] chave;
+        if (segredo.isBlank()) {
+            if (!chaveAleatoria) {
+                throw new IllegalStateException("Defina auth.token.segredo (AUTH_TOKEN_SEGREDO), com pelo menos "
+                    + TAMANHO_MINIMO_CHAVE + " bytes");
+            }
+            log.warn("auth.token.segredo não definido: usando chave aleatória, as sessões caem a cada reinício");
+            chave = new byte[TAMANHO_MINIMO_CHAVE];
+            new SecureRandom().nextBytes(chave);
+        } else {
+            chave = segredo.getBytes(StandardCharsets.UTF_8);
+            // HS256 pede chave do tamanho do hash; mais curta, a assinatura fica fácil de forçar
+            if (chave.length < TAMANHO_MINIMO_CHAVE) {
+                throw new IllegalStateException("auth.token.segredo tem " + chave.length + " bytes; o mínimo é "
+                    + TAMANHO_MINIMO_CHAVE);
+            }
+        }
+        this.prototipo = Mac.getInstance("HmacSHA256");
+        this.prototipo.init(new SecretKeySpec(chave, "HmacSHA256"));
+    }
+
+    public TokensDTO emitir(Autenticado autenticado) {
+        long agora = System.currentTimeMillis() / 1000;
+        long expiraEm = agora + validadeAcesso.toSeconds();
+        return new TokensDTO(
+            assinar(autenticado, ACESSO, agora, expiraEm),
+            assinar(autenticado, RENOVACAO, agora, agora + validadeRenovacao.toSeconds()),
+            expiraEm);
+    }
+
+    // Token de acesso válido -> quem é; qualquer problema (assinatura, validade, formato) -> vazio
+    public Optional<Autenticado> verificarAcesso(String token) {
+        return verificar(token, ACESSO);
+    }
+
+    // Troca um token de renovação válido por um par novo
+    public TokensDTO renovar(String tokenRenovacao) {
+        return verificar(tokenRenovacao, RENOVACAO)
+            .map(this::emitir)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sessão expirada, faça login novamente"));
+    }
+
+    private String assinar(Autenticado autenticado, String tipo, long emitidoEm, long expiraEm) {
+        Map<String, Object> corpo = Map.of(
+            "sub", autenticado.id().toString(),
+            "papel", autenticado.papel().name(),
+            "tipo", tipo,
+            "iat", emitidoEm,
+            "exp", expiraEm);
+        try {
+            String conteudo = CABECALHO + "." + base64(objectMapper.writeValueAsBytes(corpo));
+            return conteudo + "." + base64(hmac(conteudo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Optional<Autenticado> verificar(String token, String tipoEsperado) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int fimCabecalho = token.indexOf('.');
+        int fimCorpo = token.lastIndexOf('.');
+        if (fimCabecalho <= 0 || fimCorpo <= fimCabecalho || !token.substring(0, fimCabecalho).equals(CABECALHO)) {
+            return Optional.empty();
+        }
+        try {
+            byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(fimCorpo + 1));
+            if (!MessageDigest.isEqual(assinatura, hmac(token.substring(0, fimCorpo)))) {
+                return Optional.empty();
+            }
+            Map<?, ?> corpo = objectMapper.readValue(Base64.getUrlDecoder().decode(token.substring(fimCabecalho + 1, fimCorpo)), Map.class);
+            long expiraEm = ((Number) corpo.get("exp")).longValue();
+            if (!tipoEsperado.equals(corpo.get("tipo")) || expiraEm <= System.currentTimeMillis() / 1000) {
+                return Optional.empty();
+            }
+            return Optional.of(new Autenticado(Long.valueOf((String) corpo.get("sub")), Papel.valueOf((String) corpo.get("papel"))));
+        } catch (IllegalArgumentException | ClassCastException | NullPointerException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] hmac(String conteudo) {
+        try {
+            Mac mac = (Mac) prototipo.clone();
+            return mac.doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.agendafacil.backend.model.User;
@@ -17,6 +18,8 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    // Na mesma transação a conferência do email vai ao primário, não à réplica
+    @Transactional
     public User register(User user) throws Exception{
         if(userRepository.findByEmail(user.getEmail()).isPresent()){
             throw new Exception("Email já cadastrado!");
@@ -26,12 +29,6 @@ public class UserService {
 
     public User login(String email, String senha) throws Exception{
         Optional<User> userOpt = userRepository.findByEmail(email);
-        System.out.println("Email do usuário: " + userOpt.get().getEmail());
-        System.out.println("Email enviado: " + email);
-        System.out.println("Senha do usuário: " + userOpt.get().getSenha());
-        System.out.println("Senha enviada: " + senha);
-
-        System.out.println("Usuário encontrado: " + userOpt);
         if (userOpt.isEmpty() || !userOpt.get().getSenha().equals(senha)){
             //throw new Exception("Email ou senha inválidos");
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Email ou senha inválidos");
@@ -40,10 +37,12 @@ public class UserService {
         return userOpt.get();
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id){
         return userRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         return userRepository.findAll();
     }
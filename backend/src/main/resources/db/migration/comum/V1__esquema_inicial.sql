@@ -0,0 +1,40 @@
+-- Esquema que o Hibernate criava com ddl-auto=update.
+-- Bancos que já existiam entram com baseline na versão 1 e pulam este script.
+
+create sequence empresas_seq start with 1 increment by 50;
+
+create table empresas (
+    id bigint not null,
+    cnpj varchar(255),
+    email varchar(255),
+    nome varchar(255) not null,
+    razao_social varchar(255) not null unique,
+    senha varchar(255),
+    telefone varchar(255),
+    primary key (id)
+);
+
+create table usuarios (
+    id bigint generated by default as identity,
+    email varchar(255) not null unique,
+    nome_completo varchar(255),
+    senha varchar(255),
+    telefone varchar(255),
+    primary key (id)
+);
+
+create table servicos (
+    id bigint generated by default as identity,
+    agendado boolean not null,
+    duracao_minutos integer not null,
+    preco numeric(38,2) not null,
+    empresa_id bigint not null,
+    usuario_agendado_id bigint,
+    categoria varchar(100) not null,
+    nome varchar(150) not null,
+    descricao varchar(255) not null,
+    primary key (id)
+);
+
+alter table servicos add constraint fk_servicos_empresa foreign key (empresa_id) references empresas;
+alter table servicos add constraint fk_servicos_usuario_agendado foreign key (usuario_agendado_id) references usuarios;
@@ -0,0 +1,32 @@
+-- Agendamentos por horário. Cada agendamento ocupa as faixas de
+-- agenda.granularidade-minutos da empresa em horarios_ocupados; a chave única
+-- (empresa_id, dia, slot) é o que impede dois agendamentos sobrepostos.
+
+create table agendamentos (
+    id bigint generated by default as identity,
+    servico_id bigint not null,
+    empresa_id bigint not null,
+    usuario_id bigint not null,
+    inicio timestamp(6) not null,
+    fim timestamp(6) not null,
+    primary key (id)
+);
+
+alter table agendamentos add constraint fk_agendamentos_servico foreign key (servico_id) references servicos;
+alter table agendamentos add constraint fk_agendamentos_empresa foreign key (empresa_id) references empresas;
+alter table agendamentos add constraint fk_agendamentos_usuario foreign key (usuario_id) references usuarios;
+
+create index idx_agendamentos_empresa_inicio on agendamentos (empresa_id, inicio);
+create index idx_agendamentos_usuario on agendamentos (usuario_id);
+
+create table horarios_ocupados (
+    id bigint generated by default as identity,
+    empresa_id bigint not null,
+    dia date not null,
+    slot integer not null,
+    agendamento_id bigint not null,
+    primary key (id),
+    constraint uk_horarios_ocupados unique (empresa_id, dia, slot)
+);
+
+alter table horarios_ocupados add constraint fk_horarios_ocupados_agendamento foreign key (agendamento_id) references agendamentos;
@@ -0,0 +1,23 @@
+-- Outbox: eventos gravados na mesma transação da reserva, do agendamento ou do
+-- cadastro/remoção de serviço, e entregues depois pelo DespachanteEventos.
+-- Só ficam aqui os eventos ainda não entregues: o despachante apaga o que enviou.
+-- proxima_tentativa nula = tentativas esgotadas (o evento fica parado para análise).
+-- Ids por sequência com incremento 50, como em servicos, para o insert em batch.
+
+create sequence eventos_saida_seq start with 1 increment by 50;
+
+create table eventos_saida (
+    id bigint not null,
+    tipo varchar(50) not null,
+    agregado_id bigint not null,
+    empresa_id bigint,
+    payload varchar(4000) not null,
+    criado_em timestamp(6) not null,
+    tentativas integer not null,
+    proxima_tentativa timestamp(6),
+    ultimo_erro varchar(500),
+    primary key (id)
+);
+
+-- Fila do despachante: pendentes vencidos em ordem de proxima_tentativa, id
+create index idx_eventos_saida_fila on eventos_saida (proxima_tentativa, id);
@@ -0,0 +1,37 @@
+-- Totais do painel da empresa, mantidos na mesma transação de cadastrar, reservar e
+-- apagar serviço (PainelEmpresas) e conferidos de tempos em tempos com servicos
+-- (ReconciliacaoPainel). A leitura do painel não depende de quantos serviços a empresa tem.
+-- painel_categorias: serviços cadastrados e reservas (quantidade, receita pelo preço e
+-- minutos ocupados) por categoria; painel_dias: as reservas por dia da reserva e categoria.
+-- O dia vem de servicos.reservado_em; reservas feitas antes desta versão não têm dia
+-- e só entram em painel_categorias.
+
+alter table servicos add column reservado_em timestamp(6);
+
+create table painel_categorias (
+    empresa_id bigint not null,
+    categoria varchar(100) not null,
+    servicos bigint not null,
+    reservas bigint not null,
+    receita numeric(38,2) not null,
+    minutos bigint not null,
+    primary key (empresa_id, categoria)
+);
+
+create table painel_dias (
+    empresa_id bigint not null,
+    dia date not null,
+    categoria varchar(100) not null,
+    reservas bigint not null,
+    receita numeric(38,2) not null,
+    minutos bigint not null,
+    primary key (empresa_id, dia, categoria)
+);
+
+insert into painel_categorias (empresa_id, categoria, servicos, reservas, receita, minutos)
+select empresa_id, categoria, count(*),
+    sum(case when agendado then 1 else 0 end),
+    sum(case when agendado then preco else 0 end),
+    sum(case when agendado then duracao_minutos else 0 end)
+from servicos
+group by empresa_id, categoria;
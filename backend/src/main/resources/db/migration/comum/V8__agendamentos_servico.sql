@@ -0,0 +1,3 @@
+-- Remover um serviço confere antes se ele tem agendamentos (a chave estrangeira
+-- fk_agendamentos_servico recusaria o DELETE); sem índice a conferência varre a tabela
+create index idx_agendamentos_servico on agendamentos (servico_id);
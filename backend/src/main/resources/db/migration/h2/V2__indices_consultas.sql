@@ -0,0 +1,11 @@
+-- Mesmos índices da versão do Postgres. O H2 não tem índice parcial,
+-- então os índices "where agendado = false" viram índices compostos.
+
+create index idx_servicos_livres on servicos (agendado, id);
+create index idx_servicos_categoria_agendado on servicos (categoria, agendado);
+create index idx_servicos_nome on servicos (nome);
+create index idx_servicos_empresa on servicos (empresa_id);
+create index idx_servicos_empresa_livres on servicos (empresa_id, agendado);
+create index idx_servicos_usuario_agendado on servicos (usuario_agendado_id);
+create unique index uk_empresas_cnpj on empresas (cnpj);
+create index idx_empresas_email on empresas (email);
@@ -0,0 +1,8 @@
+-- Mesma troca da versão do Postgres: servicos.id passa a vir de uma sequência
+-- com incremento 50 em vez de identity.
+
+create sequence servicos_seq start with 1 increment by 50;
+alter sequence servicos_seq restart with (select coalesce(max(id), 0) from servicos) + 50;
+
+alter table servicos alter column id drop identity;
+alter table servicos alter column id set default next value for servicos_seq;
@@ -0,0 +1,7 @@
+-- Mesmos índices da versão do Postgres. Como em V2, o "where agendado = false"
+-- vira a coluna agendado no índice (o H2 não tem índice parcial).
+
+create index idx_servicos_filtro_preco on servicos (categoria, agendado, preco, duracao_minutos, id);
+create index idx_servicos_filtro_duracao on servicos (categoria, agendado, duracao_minutos, preco, id);
+create index idx_servicos_faixa_preco on servicos (agendado, preco, duracao_minutos, id);
+create index idx_servicos_faixa_duracao on servicos (agendado, duracao_minutos, preco, id);
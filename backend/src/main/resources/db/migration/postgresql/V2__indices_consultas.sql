@@ -0,0 +1,23 @@
+-- Índices para os finders dos repositórios
+
+-- findByAgendadoFalse e a paginação por cursor (where agendado = false and id > ? order by id)
+create index idx_servicos_livres on servicos (id) where agendado = false;
+
+-- findByCategoria / filtro por categoria só dos livres
+create index idx_servicos_categoria_agendado on servicos (categoria, agendado);
+
+-- findByNome
+create index idx_servicos_nome on servicos (nome);
+
+-- findByEmpresaId / findByEmpresa / detalhe da empresa
+create index idx_servicos_empresa on servicos (empresa_id);
+
+-- serviços livres de uma empresa
+create index idx_servicos_empresa_livres on servicos (empresa_id) where agendado = false;
+
+-- FK das reservas (evita varrer servicos ao apagar um usuário)
+create index idx_servicos_usuario_agendado on servicos (usuario_agendado_id);
+
+-- findByCnpj (o cadastro já não aceita CNPJ repetido) e findByEmail
+create unique index uk_empresas_cnpj on empresas (cnpj);
+create index idx_empresas_email on empresas (email);
@@ -0,0 +1,10 @@
+-- Serviços passam a usar sequência com incremento 50 (ids reservados em bloco
+-- pelo Hibernate), o que permite agrupar os inserts em batch JDBC.
+-- A coluna deixa de ser identity e usa a mesma sequência como default, então
+-- inserts feitos direto no banco continuam funcionando sem colidir com os blocos.
+
+create sequence servicos_seq start with 1 increment by 50;
+select setval('servicos_seq', (select coalesce(max(id), 0) from servicos) + 50, false);
+
+alter table servicos alter column id drop identity;
+alter table servicos alter column id set default nextval('servicos_seq');
@@ -0,0 +1,11 @@
+-- Filtro por faixa do GET /servicos/filtro: categoria igual, preço entre min e max e
+-- duração até um máximo, só dos livres, em ordem de preço ou de duração com cursor (keyset).
+-- A primeira coluna depois da categoria é a da ordem: o índice dá a faixa e a ordem sem sort,
+-- a outra coluna do filtro é conferida no próprio índice e o id desempata o cursor.
+
+create index idx_servicos_filtro_preco on servicos (categoria, preco, duracao_minutos, id) where agendado = false;
+create index idx_servicos_filtro_duracao on servicos (categoria, duracao_minutos, preco, id) where agendado = false;
+
+-- Mesmo filtro sem categoria
+create index idx_servicos_faixa_preco on servicos (preco, duracao_minutos, id) where agendado = false;
+create index idx_servicos_faixa_duracao on servicos (duracao_minutos, preco, id) where agendado = false;
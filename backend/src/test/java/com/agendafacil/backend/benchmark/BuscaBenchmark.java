@@ -0,0 +1,124 @@
+package com.agendafacil.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.service.IndiceBusca;
+
+// Latência da busca por texto no índice em memória, sem banco, e da atualização do índice
+// a cada escrita (reserva ou cadastro de um serviço) e da compactação que roda à parte.
+// Os textos saem de um vocabulário fixo, como num catálogo real de salões.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class BuscaBenchmark {
+
+    private static final String[] TIPOS = { "Corte", "Escova", "Hidratação", "Manicure", "Pedicure", "Depilação",
+        "Massagem", "Limpeza de pele", "Maquiagem", "Coloração", "Progressiva", "Barba", "Sobrancelha", "Luzes" };
+    private static final String[] DETALHES = { "Masculino", "Feminino", "Infantil", "Express", "Completa", "Premium",
+        "com Cera", "Relaxante", "Modeladora", "Francesinha" };
+    private static final String[] CATEGORIAS = { "Cabelo", "Unhas", "Estética", "Barbearia", "Maquiagem", "Spa" };
+    private static final String[] DESCRICOES = { "Atendimento com hora marcada e produtos profissionais",
+        "Inclui lavagem e finalização", "Realizado por especialista certificado", "Produtos veganos e hipoalergênicos",
+        "Pacote com retorno em quinze dias", "Ideal para noivas e eventos" };
+
+    @Param({ "100000", "1000000" })
+    public int servicos;
+
+    private IndiceBusca indice;
+    private List<ServicoResumoDTO> catalogo;
+    // Índice que recebe as escritas; volta ao original quando pediria compactação
+    private IndiceBusca escrito;
+    private IndiceBusca paraCompactar;
+    private Random escritas;
+
+    @Setup
+    public void indexar() {
+        Random aleatorio = new Random(42);
+        catalogo = new ArrayList<>(servicos);
+        for (int i = 0; i < servicos; i++) {
+            catalogo.add(servico(aleatorio, (long) i + 1));
+        }
+        indice = IndiceBusca.construir(catalogo);
+        escrito = indice;
+        escritas = new Random(7);
+        paraCompactar = indice;
+        while (!paraCompactar.precisaCompactar()) {
+            paraCompactar = escrever(paraCompactar);
+        }
+    }
+
+    private static ServicoResumoDTO servico(Random aleatorio, long id) {
+        String nome = TIPOS[aleatorio.nextInt(TIPOS.length)] + " " + DETALHES[aleatorio.nextInt(DETALHES.length)];
+        return new ServicoResumoDTO(id, nome, CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)],
+            DESCRICOES[aleatorio.nextInt(DESCRICOES.length)], 30, new BigDecimal("50.00"), false, id % 5000);
+    }
+
+    // Metade reserva um serviço existente, metade cadastra um novo
+    private IndiceBusca escrever(IndiceBusca atual) {
+        if (escritas.nextBoolean()) {
+            ServicoResumoDTO reservado = catalogo.get(escritas.nextInt(catalogo.size()));
+            ServicoResumoDTO agendado = new ServicoResumoDTO(reservado.getId(), reservado.getNome(), reservado.getCategoria(),
+                reservado.getDescricao(), 30, reservado.getPreco(), true, reservado.getEmpresaId());
+            return atual.atualizar(List.of(reservado.getId()), List.of(agendado));
+        }
+        ServicoResumoDTO novo = servico(escritas, (long) servicos + 1 + escritas.nextInt(servicos));
+        return atual.atualizar(List.of(novo.getId()), List.of(novo));
+    }
+
+    @Benchmark
+    public List<ServicoResumoDTO> termoRaro() {
+        return indice.buscar("francesinha ", 20);
+    }
+
+    @Benchmark
+    public List<ServicoResumoDTO> doisTermos() {
+        return indice.buscar("corte masculino ", 20);
+    }
+
+    @Benchmark
+    public List<ServicoResumoDTO> semAcento() {
+        return indice.buscar("depilacao com cera ", 20);
+    }
+
+    @Benchmark
+    public List<String> sugestao() {
+        return indice.sugerir("hidr", 10);
+    }
+
+    // Custo de uma escrita no índice, com o delta entre vazio e o limite de compactação
+    @Benchmark
+    public IndiceBusca atualizacao() {
+        escrito = escrever(escrito);
+        if (escrito.precisaCompactar()) {
+            escrito = indice;
+        }
+        return escrito;
+    }
+
+    // Roda fora da escrita, uma vez a cada LIMITE_ALTERADOS mudanças
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IndiceBusca compactacao() {
+        return paraCompactar.compactar();
+    }
+}
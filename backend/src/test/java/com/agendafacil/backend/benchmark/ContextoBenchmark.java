@@ -0,0 +1,54 @@
+package com.agendafacil.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.agendafacil.backend.AgendaFacilApplication;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.repository.EmpresaRepository;
+
+// Sobe a aplicação (porta aleatória) no H2 dos testes e popula um catálogo
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+
+    public static final int SERVICOS_POR_EMPRESA = 1000;
+
+    public ConfigurableApplicationContext contexto;
+    public Long empresaId;
+
+    @Setup(Level.Trial)
+    public void subir() {
+        contexto = new SpringApplicationBuilder(AgendaFacilApplication.class)
+            .run("--server.port=0", "--logging.level.root=warn");
+        Empresa empresa = contexto.getBean(EmpresaRepository.class).save(new Empresa("Benchmark", "Benchmark LTDA",
+            "99999999000199", "benchmark@ltda.com", "3500000000", "senha"));
+        empresaId = empresa.getId();
+        inserirServicos(empresaId, SERVICOS_POR_EMPRESA);
+    }
+
+    public List<Long> inserirServicos(Long empresaId, int quantidade) {
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            linhas.add(new Object[] { "Servico " + i, "Categoria " + (i % 20), "Descricao do servico " + i, 30 + i % 90,
+                10 + i % 200, empresaId });
+        }
+        jdbc.batchUpdate("insert into servicos (nome, categoria, descricao, duracao_minutos, preco, agendado, empresa_id) "
+            + "values (?, ?, ?, ?, ?, false, ?)", linhas);
+        return jdbc.queryForList("select id from servicos where empresa_id = ? order by id", Long.class, empresaId);
+    }
+
+    @TearDown(Level.Trial)
+    public void derrubar() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.agendafacil.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.agendafacil.backend.DTO.EmpresaDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.service.ConsultarCnpjAPI;
+import com.agendafacil.backend.service.EmpresaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Benchmarks que não precisam do banco
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmpresaBenchmark {
+
+    @Param({ "10", "200" })
+    public int servicos;
+
+    private EmpresaService empresaService;
+    private Empresa empresa;
+    private ObjectMapper objectMapper;
+
+    // Responde sem rede, para medir só o caminho do EmpresaService
+    static class ConsultarCnpjStub extends ConsultarCnpjAPI {
+        private final Map<String, Object> resposta = Map.of(
+            "razao_social", "Empresa Benchmark LTDA",
+            "nome_fantasia", "Empresa Benchmark",
+            "email", "contato@benchmark.com",
+            "ddd_telefone_1", "3500000000");
+
+        ConsultarCnpjStub() {
+            super("http://localhost/", Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMinutes(1), 1, 1,
+                Duration.ofSeconds(1));
+        }
+
+        @Override
+        public Map<String, Object> buscarCnpj(String cnpj) {
+            return resposta;
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        empresaService = new EmpresaService(null, null, null, null, new ConsultarCnpjStub());
+        objectMapper = new ObjectMapper();
+        empresa = new Empresa("Benchmark", "Benchmark LTDA", "99999999000199", "benchmark@ltda.com", "3500000000", "senha");
+        empresa.setId(1L);
+        for (long i = 0; i < servicos; i++) {
+            Servico servico = new Servico("Servico " + i, "Cabelo", "Descricao do servico " + i, 45,
+                new BigDecimal("59.90"), empresa);
+            servico.setId(i);
+            empresa.getServicos().add(servico);
+        }
+    }
+
+    @Benchmark
+    public EmpresaDTO consultaCnpj() {
+        return empresaService.consultaCnpj("99.999.999/0001-99");
+    }
+
+    @Benchmark
+    public byte[] serializarEmpresaComServicos() throws Exception {
+        return objectMapper.writeValueAsBytes(empresa);
+    }
+}
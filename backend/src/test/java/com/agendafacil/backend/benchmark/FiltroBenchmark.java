@@ -0,0 +1,118 @@
+package com.agendafacil.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.agendafacil.backend.DTO.FiltroServicosDTO;
+import com.agendafacil.backend.DTO.PaginaCursorDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.service.CatalogoServicos;
+import com.agendafacil.backend.service.ServicoService;
+
+// Primeira página do filtro por faixa (GET /servicos/filtro) direto no banco, contra o que o
+// frontend faz hoje: a lista inteira de livres filtrada e ordenada na memória.
+// O setup falha se o plano das consultas não usar os índices de V5__indices_filtro_servicos.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class FiltroBenchmark {
+
+    private static final BigDecimal PRECO_MAXIMO = new BigDecimal("100");
+    private static final int DURACAO_MAXIMA = 60;
+
+    @Param({ "100000", "1000000" })
+    public int servicos;
+
+    private ServicoService servicoService;
+    private CatalogoServicos catalogoServicos;
+
+    @Setup(Level.Trial)
+    public void preparar(ContextoBenchmark ctx) throws Exception {
+        Empresa empresa = ctx.contexto.getBean(EmpresaRepository.class).save(new Empresa("Filtro", "Filtro LTDA",
+            "77777777000177", "filtro@ltda.com", "", "senha"));
+        // 20 categorias, preço de 10 a 209 e duração de 30 a 119 minutos (ver ContextoBenchmark)
+        ctx.inserirServicos(empresa.getId(), servicos);
+        servicoService = ctx.contexto.getBean(ServicoService.class);
+        catalogoServicos = ctx.contexto.getBean(CatalogoServicos.class);
+        catalogoServicos.recarregar();
+
+        try (Connection conexao = ctx.contexto.getBean(DataSource.class).getConnection();
+                Statement stmt = conexao.createStatement()) {
+            stmt.execute("analyze");
+            exigirIndice(stmt, "IDX_SERVICOS_FILTRO_", "select * from servicos where agendado = false "
+                + "and categoria = 'Categoria 7' and preco <= 100 and duracao_minutos <= 60 "
+                + "order by preco, duracao_minutos, id fetch first 50 rows only");
+            exigirIndice(stmt, "IDX_SERVICOS_FAIXA_", "select * from servicos where agendado = false "
+                + "and preco <= 100 and duracao_minutos <= 60 order by duracao_minutos, preco, id fetch first 50 rows only");
+        }
+    }
+
+    // Basta um dos índices do filtro: com faixa nas duas colunas o banco escolhe a mais seletiva
+    private static void exigirIndice(Statement stmt, String indice, String sql) throws Exception {
+        StringBuilder plano = new StringBuilder();
+        try (ResultSet rs = stmt.executeQuery("explain " + sql)) {
+            while (rs.next()) {
+                plano.append(rs.getString(1));
+            }
+        }
+        if (!plano.toString().toUpperCase().contains(indice)) {
+            throw new IllegalStateException("Plano sem " + indice + ":\n" + plano);
+        }
+    }
+
+    private static FiltroServicosDTO filtro(String categoria, String ordem) {
+        FiltroServicosDTO filtro = new FiltroServicosDTO();
+        filtro.setCategoria(categoria);
+        filtro.setPrecoMax(PRECO_MAXIMO);
+        filtro.setDuracaoMax(DURACAO_MAXIMA);
+        filtro.setOrdem(ordem);
+        filtro.setLimit(50);
+        return filtro;
+    }
+
+    @Benchmark
+    public PaginaCursorDTO<ServicoResumoDTO> bancoComCategoria() {
+        return servicoService.filtrar(filtro("Categoria 7", "preco"));
+    }
+
+    @Benchmark
+    public PaginaCursorDTO<ServicoResumoDTO> bancoSemCategoria() {
+        return servicoService.filtrar(filtro(null, "duracao"));
+    }
+
+    @Benchmark
+    public List<ServicoResumoDTO> memoriaComCategoria() {
+        return catalogoServicos.disponiveis().stream()
+            .filter(s -> s.getCategoria().equals("Categoria 7") && s.getPreco().compareTo(PRECO_MAXIMO) <= 0
+                && s.getDuracao_minutos() <= DURACAO_MAXIMA)
+            .sorted(Comparator.comparing(ServicoResumoDTO::getPreco).thenComparingInt(ServicoResumoDTO::getDuracao_minutos)
+                .thenComparing(ServicoResumoDTO::getId))
+            .limit(50)
+            .toList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.agendafacil.backend.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.agendafacil.backend.DTO.ResultadoLoteDTO;
+import com.agendafacil.backend.DTO.ServicoDTO;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.service.ServicoService;
+
+// Linhas gravadas por segundo: cadastro um a um (POST /servicos/cadastrar) x lote
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportacaoBenchmark {
+
+    static final int LINHAS = 500;
+
+    private ServicoService servicoService;
+    private Long empresaId;
+    private List<ServicoDTO> lote;
+
+    @Setup(Level.Trial)
+    public void preparar(ContextoBenchmark ctx) {
+        servicoService = ctx.contexto.getBean(ServicoService.class);
+        empresaId = ctx.empresaId;
+        lote = new ArrayList<>();
+        for (int i = 0; i < LINHAS; i++) {
+            ServicoDTO dto = new ServicoDTO();
+            dto.setNome("Importado " + i);
+            dto.setCategoria("Categoria " + (i % 20));
+            dto.setDescricao("Descricao do servico importado " + i);
+            dto.setDuracao_minutos(30 + i % 90);
+            dto.setPreco(new BigDecimal(10 + i % 200));
+            dto.setEmpresaId(empresaId);
+            lote.add(dto);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public Servico umPorUm() {
+        Servico ultimo = null;
+        for (ServicoDTO dto : lote) {
+            ultimo = servicoService.cadastrar(new Servico(dto.getNome(), dto.getCategoria(), dto.getDescricao(),
+                dto.getDuracao_minutos(), dto.getPreco()), empresaId);
+        }
+        return ultimo;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public ResultadoLoteDTO emLote() {
+        return servicoService.cadastrarLote(lote);
+    }
+}
@@ -0,0 +1,154 @@
+package com.agendafacil.backend.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Tempo do processo novo até a primeira resposta 200 de GET /api/servicos, e a RSS
+// nesse momento, para cada forma de subir o backend. Usa os artefatos do build:
+//   mvn -Prapido package -DskipTests
+//   mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=InicializacaoBenchmark
+// Cada subida usa um H2 em memória novo. A RSS sai como métrica secundária (·rssMb), em MB.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InicializacaoBenchmark {
+
+    private static final Path ALVO = Path.of(System.getProperty("inicializacao.alvo", "target"));
+    private static final Duration LIMITE = Duration.ofMinutes(2);
+
+    // padrao: jar do build, como hoje; rapido: perfil rapido (lazy init, sem seed);
+    // aot: jar extraído com o código gerado pelo Spring AOT; cds: mais o arquivo CDS do treino
+    @Param({ "padrao", "rapido", "rapido-aot", "rapido-aot-cds" })
+    public String configuracao;
+
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private Process processo;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memoria {
+        public double rssMb;
+    }
+
+    @Setup(Level.Trial)
+    public void conferirBuild() {
+        Path necessario = configuracao.startsWith("rapido-aot") ? ALVO.resolve("rapido/app.jsa") : jarCompleto();
+        if (!Files.exists(necessario)) {
+            throw new IllegalStateException(necessario + " não existe: rode antes mvn -Prapido package -DskipTests");
+        }
+    }
+
+    @Benchmark
+    public int primeiraRequisicao(Memoria memoria) throws Exception {
+        int porta;
+        try (ServerSocket livre = new ServerSocket(0)) {
+            porta = livre.getLocalPort();
+        }
+        processo = new ProcessBuilder(comando(porta))
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/servicos"))
+            .timeout(Duration.ofSeconds(5))
+            .build();
+        long limite = System.nanoTime() + LIMITE.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException("Backend saiu com código " + processo.exitValue());
+            }
+            try {
+                int status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    memoria.rssMb = rssKb(processo.pid()) / 1024.0;
+                    return status;
+                }
+            } catch (IOException e) {
+                // Porta ainda fechada
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Backend não respondeu em " + LIMITE);
+    }
+
+    @TearDown(Level.Invocation)
+    public void derrubar() throws InterruptedException {
+        if (processo != null) {
+            processo.destroyForcibly();
+            processo.waitFor();
+        }
+    }
+
+    private List<String> comando(int porta) {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        switch (configuracao) {
+            case "rapido-aot-cds" -> {
+                comando.add("-XX:SharedArchiveFile=" + ALVO.resolve("rapido/app.jsa"));
+                comando.add("-Dspring.aot.enabled=true");
+            }
+            case "rapido-aot" -> comando.add("-Dspring.aot.enabled=true");
+            default -> {}
+        }
+        comando.add("-jar");
+        comando.add(configuracao.startsWith("rapido-aot") ? ALVO.resolve("rapido/app.jar").toString() : jarCompleto().toString());
+        if (configuracao.startsWith("rapido")) {
+            comando.add("--spring.profiles.active=rapido");
+        }
+        comando.add("--server.port=" + porta);
+        comando.add("--spring.datasource.url=jdbc:h2:mem:inicializacao");
+        comando.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        comando.add("--spring.datasource.username=sa");
+        comando.add("--spring.datasource.password=");
+        comando.add("--spring.jpa.show-sql=false");
+        comando.add("--auth.token.chave-aleatoria=true");
+        return comando;
+    }
+
+    private static Path jarCompleto() {
+        try (var jars = Files.list(ALVO)) {
+            return jars.filter(jar -> jar.getFileName().toString().matches("backend-.*(?<!-plain)\\.jar"))
+                .findFirst()
+                .orElse(ALVO.resolve("backend.jar"));
+        } catch (IOException e) {
+            return ALVO.resolve("backend.jar");
+        }
+    }
+
+    // Linux: VmRSS de /proc/<pid>/status
+    private static long rssKb(long pid) throws IOException {
+        for (String linha : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (linha.startsWith("VmRSS:")) {
+                return Long.parseLong(linha.replaceAll("[^0-9]", ""));
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.agendafacil.backend.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.agendafacil.backend.config.LimitadorRequisicoes;
+import com.agendafacil.backend.config.LimitadorRequisicoes.Grupo;
+
+// Custo de LimitadorRequisicoes.consumir com várias threads ao mesmo tempo: todas no mesmo
+// balde (pior caso de disputa do CAS) ou espalhadas entre muitos clientes, contra um balde
+// de fichas com synchronized, que é o jeito ingênuo de fazer o mesmo
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LimitadorBenchmark {
+
+    @Param({ "1", "10000" })
+    public int clientes;
+
+    private LimitadorRequisicoes limitador;
+    private String[] ids;
+    private final BaldeSincronizado sincronizado = new BaldeSincronizado(1_000_000, 1_000_000);
+
+    @Setup
+    public void preparar() {
+        // Taxa alta: mede o caminho de quem passa, que é o da maioria das requisições
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("limite.leitura.taxa", "1000000000")
+            .withProperty("limite.leitura.rajada", "1000000");
+        limitador = new LimitadorRequisicoes(environment, true, 100_000, Duration.ofMinutes(10));
+        ids = new String[clientes];
+        for (int i = 0; i < clientes; i++) {
+            ids[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long gcra() {
+        return limitador.consumir(Grupo.LEITURA, ids[ThreadLocalRandom.current().nextInt(clientes)]);
+    }
+
+    @Benchmark
+    public boolean sincronizado() {
+        return sincronizado.consumir();
+    }
+
+    static class BaldeSincronizado {
+        private final double taxaPorNano;
+        private final double capacidade;
+        private double fichas;
+        private long ultimo = System.nanoTime();
+
+        BaldeSincronizado(double taxaPorSegundo, double capacidade) {
+            this.taxaPorNano = taxaPorSegundo / TimeUnit.SECONDS.toNanos(1);
+            this.capacidade = capacidade;
+            this.fichas = capacidade;
+        }
+
+        synchronized boolean consumir() {
+            long agora = System.nanoTime();
+            fichas = Math.min(capacidade, fichas + (agora - ultimo) * taxaPorNano);
+            ultimo = agora;
+            if (fichas < 1) {
+                return false;
+            }
+            fichas--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.agendafacil.backend.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.agendafacil.backend.DTO.ServicoDetalheDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.UserRepository;
+import com.agendafacil.backend.service.ServicoService;
+import com.agendafacil.backend.service.UserService;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServicoBenchmark {
+
+    // Serviços só para a reserva: cada iteração começa com todos livres
+    @State(Scope.Benchmark)
+    public static class Reservas {
+        static final int TAMANHO = 50_000;
+
+        ServicoService servicoService;
+        JdbcTemplate jdbc;
+        List<Long> servicos;
+        Long empresaId;
+        Long userId;
+        int proximo;
+
+        @Setup(Level.Trial)
+        public void preparar(ContextoBenchmark ctx) {
+            servicoService = ctx.contexto.getBean(ServicoService.class);
+            jdbc = ctx.contexto.getBean(JdbcTemplate.class);
+            Empresa empresa = ctx.contexto.getBean(EmpresaRepository.class).save(new Empresa("Reservas", "Reservas LTDA",
+                "88888888000188", "reservas@ltda.com", "", "senha"));
+            empresaId = empresa.getId();
+            servicos = ctx.inserirServicos(empresaId, TAMANHO);
+            userId = ctx.contexto.getBean(UserRepository.class)
+                .save(new User("Cliente Benchmark", "cliente@benchmark.com", "", "senha")).getId();
+        }
+
+        @Setup(Level.Iteration)
+        public void liberar() {
+            jdbc.update("update servicos set agendado = false, usuario_agendado_id = null where empresa_id = ?", empresaId);
+            proximo = 0;
+        }
+
+        synchronized Long proximoServico() {
+            return servicos.get(proximo++ % servicos.size());
+        }
+    }
+
+    @Benchmark
+    public List<ServicoResumoDTO> findAll(ContextoBenchmark ctx) {
+        return ctx.contexto.getBean(ServicoService.class).findAll();
+    }
+
+    @Benchmark
+    public List<ServicoDetalheDTO> findByEmpresaId(ContextoBenchmark ctx) {
+        return ctx.contexto.getBean(ServicoService.class).findByEmpresaId(ctx.empresaId);
+    }
+
+    @Benchmark
+    public Servico reservarServico(Reservas reservas) {
+        return reservas.servicoService.reservarServico(reservas.proximoServico(), reservas.userId);
+    }
+
+    @Benchmark
+    public User login(ContextoBenchmark ctx) throws Exception {
+        // usuário criado pelo LoadDatabase
+        return ctx.contexto.getBean(UserService.class).login("marcelo123@email.com", "senha123");
+    }
+}
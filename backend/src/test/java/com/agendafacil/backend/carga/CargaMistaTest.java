@@ -0,0 +1,398 @@
+package com.agendafacil.backend.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.agendafacil.backend.AgendaFacilApplication;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Carga mista de ponta a ponta pelo HTTP (mvn -Pcarga test, ou mvn test -Dcarga=true -Dtest=CargaMistaTest):
+// sobe a aplicação inteira (H2 em memória ou o Postgres de carga.banco.url), cria empresas, serviços
+// e usuários e, por carga.duracao segundos, carga.clientes clientes em laço fechado navegam o catálogo,
+// abrem /empresas/{id} e fazem login; em paralelo, a cada carga.rajada.intervalo ms, carga.rajada
+// usuários disputam o mesmo serviço em /servicos/{id}/reservar.
+// Vazão e percentis de cada operação vão para target/carga/resultado.json. O teste falha se passar
+// do orçamento (carga/orcamento.properties), se o p99 ou a vazão piorarem além da tolerância em
+// relação à linha de base (carga/linha-base.json), se houver erro demais ou se alguma disputa tiver
+// mais ou menos de um vencedor. -Dcarga.atualizar-linha-base=true grava o resultado como linha de base.
+// Sem linha de base comparável (outra máquina, outro banco, outra carga) vale só o orçamento, com aviso.
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaMistaTest {
+    private static final Logger log = LoggerFactory.getLogger(CargaMistaTest.class);
+
+    private static final int EMPRESAS = 20;
+    private static final int SERVICOS_POR_EMPRESA = 100;
+    private static final int CATEGORIAS = 20;
+    private static final int USUARIOS = 200;
+    private static final String SENHA = "senha-carga";
+    private static final Path ORCAMENTO = Path.of("src/test/resources/carga/orcamento.properties");
+
+    enum Operacao { CATALOGO, EMPRESA, LOGIN, RESERVA }
+
+    record Percentis(long requisicoes, long erros, double vazao, double p50, double p95, double p99, double max) {}
+
+    record Resultado(String banco, int processadores, int clientes, int duracaoSegundos, double vazaoTotal,
+            Map<String, Percentis> operacoes) {
+
+        // Linha de base de outra máquina ou de outra carga não serve de comparação
+        boolean comparavelCom(Resultado outro) {
+            return banco.equals(outro.banco) && processadores == outro.processadores && clientes == outro.clientes;
+        }
+    }
+
+    // Latências em microssegundos das requisições que começaram entre o fim do aquecimento e o fim da rodada
+    static final class Medicao {
+        final Map<Operacao, ConcurrentHistogram> latencias = new EnumMap<>(Operacao.class);
+        final Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+        final long inicio;
+        final long fim;
+
+        Medicao(long inicio, long fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+            for (Operacao operacao : Operacao.values()) {
+                latencias.put(operacao, new ConcurrentHistogram(3));
+                erros.put(operacao, new LongAdder());
+            }
+        }
+
+        void registrar(Operacao operacao, long inicioNanos, boolean ok) {
+            if (inicioNanos < inicio || inicioNanos >= fim) {
+                return;
+            }
+            latencias.get(operacao).recordValue(Math.max(1, (System.nanoTime() - inicioNanos) / 1000));
+            if (!ok) {
+                erros.get(operacao).increment();
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient cliente = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    private String base;
+    private List<Long> empresaIds;
+    private List<String> emails;
+    private List<String> tokens;
+    private List<Long> disputados;
+
+    @Test
+    void trafegoMistoDentroDoOrcamento() throws Exception {
+        int clientes = Integer.getInteger("carga.clientes", 32);
+        int duracao = Integer.getInteger("carga.duracao", 20);
+        int aquecimento = Integer.getInteger("carga.aquecimento", 5);
+        int rajada = Integer.getInteger("carga.rajada", 16);
+        int intervaloRajada = Integer.getInteger("carga.rajada.intervalo", 500);
+        String url = System.getProperty("carga.banco.url", "jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1");
+        boolean postgres = url.startsWith("jdbc:postgresql:");
+
+        // Sem limite de requisições: aqui todo o tráfego sai do mesmo IP
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AgendaFacilApplication.class).run(
+            "--server.port=0",
+            "--spring.datasource.url=" + url,
+            "--spring.datasource.driver-class-name=" + (postgres ? "org.postgresql.Driver" : "org.h2.Driver"),
+            "--spring.datasource.username=" + System.getProperty("carga.banco.usuario", postgres ? "usuario" : "sa"),
+            "--spring.datasource.password=" + System.getProperty("carga.banco.senha", postgres ? "senha" : ""),
+            "--limite.habilitado=false",
+            "--banco.seed.enabled=false",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=warn",
+            "--logging.level.com.agendafacil.backend.carga=info");
+        Resultado resultado;
+        try {
+            base = "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort() + "/api";
+            popular(contexto, duracao + aquecimento, intervaloRajada);
+            resultado = rodar(postgres ? "PostgreSQL" : "H2", clientes, duracao, aquecimento, rajada, intervaloRajada);
+        } finally {
+            contexto.close();
+        }
+
+        Path arquivo = Path.of(System.getProperty("carga.resultado", "target/carga/resultado.json"));
+        Files.createDirectories(arquivo.getParent());
+        objectMapper.writeValue(arquivo.toFile(), resultado);
+        log.info("Resultado em {}:\n{}", arquivo, objectMapper.writeValueAsString(resultado));
+
+        Properties orcamento = new Properties();
+        try (InputStream entrada = Files.newInputStream(Path.of(System.getProperty("carga.orcamento", ORCAMENTO.toString())))) {
+            orcamento.load(entrada);
+        }
+        List<String> violacoes = new ArrayList<>(violacoesDoOrcamento(resultado, orcamento));
+        Path linhaBase = Path.of(System.getProperty("carga.linha-base", "src/test/resources/carga/linha-base.json"));
+        String semComparacao = null;
+        if (Boolean.getBoolean("carga.atualizar-linha-base")) {
+            objectMapper.writeValue(linhaBase.toFile(), resultado);
+            log.info("Linha de base gravada em {}", linhaBase);
+        } else if (!Files.exists(linhaBase)) {
+            semComparacao = "Sem linha de base em " + linhaBase;
+        } else {
+            Resultado anterior = objectMapper.readValue(linhaBase.toFile(), Resultado.class);
+            if (resultado.comparavelCom(anterior)) {
+                violacoes.addAll(violacoesDaLinhaBase(resultado, anterior, orcamento));
+            } else {
+                semComparacao = String.format("Linha de base de outro ambiente (%s, %d CPUs, %d clientes; aqui %s, %d CPUs, %d clientes)",
+                    anterior.banco(), anterior.processadores(), anterior.clientes(),
+                    resultado.banco(), resultado.processadores(), resultado.clientes());
+            }
+        }
+        if (semComparacao != null) {
+            log.warn("{}: só o orçamento foi conferido (grave uma nesta máquina com -Dcarga.atualizar-linha-base=true)",
+                semComparacao);
+        }
+        assertTrue(violacoes.isEmpty(), "Carga fora do orçamento:\n" + String.join("\n", violacoes));
+    }
+
+    // Dados próprios da rodada (sufixo no email), para rodar de novo no mesmo Postgres
+    private void popular(ConfigurableApplicationContext contexto, int segundos, int intervaloRajada) throws Exception {
+        EmpresaRepository empresaRepository = contexto.getBean(EmpresaRepository.class);
+        ServicoRepository servicoRepository = contexto.getBean(ServicoRepository.class);
+        UserRepository userRepository = contexto.getBean(UserRepository.class);
+        String rodada = Long.toString(System.currentTimeMillis(), 36);
+
+        empresaIds = new ArrayList<>();
+        List<Servico> servicos = new ArrayList<>();
+        for (int e = 0; e < EMPRESAS; e++) {
+            Empresa empresa = empresaRepository.save(new Empresa("Carga " + e, "Carga " + rodada + " " + e + " LTDA", null,
+                "carga" + e + "-" + rodada + "@ltda.com", "", SENHA));
+            empresaIds.add(empresa.getId());
+            for (int s = 0; s < SERVICOS_POR_EMPRESA; s++) {
+                int i = e * SERVICOS_POR_EMPRESA + s;
+                servicos.add(new Servico("Corte " + i, "Categoria " + (i % CATEGORIAS), "Servico de carga", 15 + 15 * (i % 8),
+                    new BigDecimal(20 + i % 180), empresa));
+            }
+        }
+        servicoRepository.saveAll(servicos);
+        // Um serviço por rajada, disputado só por ela
+        disputados = new ArrayList<>();
+        int rajadas = segundos * 1000 / intervaloRajada + 10;
+        List<Servico> paraDisputa = new ArrayList<>();
+        for (int r = 0; r < rajadas; r++) {
+            paraDisputa.add(new Servico("Disputado " + r, "Disputa", "Servico disputado", 30, new BigDecimal("50"),
+                empresaRepository.getReferenceById(empresaIds.get(r % EMPRESAS))));
+        }
+        servicoRepository.saveAll(paraDisputa).forEach(servico -> disputados.add(servico.getId()));
+
+        emails = new ArrayList<>();
+        List<User> usuarios = new ArrayList<>();
+        for (int u = 0; u < USUARIOS; u++) {
+            String email = "carga" + u + "-" + rodada + "@email.com";
+            emails.add(email);
+            usuarios.add(new User("Cliente Carga " + u, email, "", SENHA));
+        }
+        userRepository.saveAll(usuarios);
+
+        // Token de cada usuário pelo próprio login, como faria o frontend
+        tokens = new ArrayList<>();
+        for (String email : emails) {
+            HttpResponse<String> resposta = cliente.send(post("/login", login(email), null), HttpResponse.BodyHandlers.ofString());
+            tokens.add(objectMapper.readTree(resposta.body()).get("token").asText());
+        }
+    }
+
+    private Resultado rodar(String banco, int clientes, int duracao, int aquecimento, int rajada, int intervaloRajada)
+            throws InterruptedException {
+        long inicioMedicao = System.nanoTime() + TimeUnit.SECONDS.toNanos(aquecimento);
+        long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(duracao);
+        Medicao medicao = new Medicao(inicioMedicao, fim);
+        Map<Long, AtomicInteger> vencedores = new ConcurrentHashMap<>();
+
+        // O close espera os clientes e as últimas rajadas terminarem
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                threads.submit(() -> {
+                    while (System.nanoTime() < fim) {
+                        navegar(medicao);
+                    }
+                });
+            }
+            for (int r = 0; System.nanoTime() < fim; r++) {
+                disputar(threads, medicao, disputados.get(r % disputados.size()), rajada, vencedores);
+                Thread.sleep(intervaloRajada);
+            }
+        }
+        // Cada serviço disputado tem exatamente um dono, mesmo com a rajada toda ao mesmo tempo
+        vencedores.forEach((servicoId, vitorias) -> {
+            if (vitorias.get() != 1) {
+                medicao.erros.get(Operacao.RESERVA).increment();
+                log.error("Serviço {} com {} reservas aceitas", servicoId, vitorias.get());
+            }
+        });
+
+        Map<String, Percentis> operacoes = new LinkedHashMap<>();
+        double vazaoTotal = 0;
+        for (Operacao operacao : Operacao.values()) {
+            ConcurrentHistogram latencias = medicao.latencias.get(operacao);
+            long requisicoes = latencias.getTotalCount();
+            double vazao = requisicoes / (double) duracao;
+            vazaoTotal += vazao;
+            operacoes.put(operacao.name().toLowerCase(), new Percentis(requisicoes, medicao.erros.get(operacao).sum(), arredondar(vazao),
+                ms(latencias.getValueAtPercentile(50)), ms(latencias.getValueAtPercentile(95)),
+                ms(latencias.getValueAtPercentile(99)), ms(latencias.getMaxValue())));
+        }
+        return new Resultado(banco, Runtime.getRuntime().availableProcessors(), clientes, duracao, arredondar(vazaoTotal), operacoes);
+    }
+
+    // Uma requisição de um cliente que navega: 60% catálogo, 25% empresa, 15% login
+    private void navegar(Medicao medicao) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int sorteio = aleatorio.nextInt(100);
+        long inicio = System.nanoTime();
+        if (sorteio < 60) {
+            String caminho = switch (aleatorio.nextInt(4)) {
+                case 0 -> "/servicos?limit=50&after=" + aleatorio.nextInt(EMPRESAS * SERVICOS_POR_EMPRESA);
+                case 1 -> "/servicos/categoria/Categoria%20" + aleatorio.nextInt(CATEGORIAS);
+                case 2 -> "/servicos/filtro?categoria=Categoria%20" + aleatorio.nextInt(CATEGORIAS) + "&precoMax=100&duracaoMax=60";
+                default -> "/servicos/busca?q=corte%20" + aleatorio.nextInt(EMPRESAS * SERVICOS_POR_EMPRESA);
+            };
+            medicao.registrar(Operacao.CATALOGO, inicio, enviar(get(caminho)) == 200);
+        } else if (sorteio < 85) {
+            Long empresaId = empresaIds.get(aleatorio.nextInt(empresaIds.size()));
+            medicao.registrar(Operacao.EMPRESA, inicio, enviar(get("/empresas/" + empresaId)) == 200);
+        } else {
+            String email = emails.get(aleatorio.nextInt(emails.size()));
+            medicao.registrar(Operacao.LOGIN, inicio, enviar(post("/login", login(email), null)) == 200);
+        }
+    }
+
+    // Rajada: usuários diferentes largam juntos para o mesmo serviço; 200 para um, 409 para o resto
+    private void disputar(ExecutorService threads, Medicao medicao, Long servicoId, int rajada, Map<Long, AtomicInteger> vencedores) {
+        CountDownLatch largada = new CountDownLatch(1);
+        int primeiro = ThreadLocalRandom.current().nextInt(tokens.size());
+        AtomicInteger vitorias = vencedores.computeIfAbsent(servicoId, id -> new AtomicInteger());
+        for (int r = 0; r < rajada; r++) {
+            String token = tokens.get((primeiro + r) % tokens.size());
+            threads.submit(() -> {
+                largada.await();
+                long inicio = System.nanoTime();
+                int status = enviar(post("/servicos/" + servicoId + "/reservar", "", token));
+                if (status == 200) {
+                    vitorias.incrementAndGet();
+                }
+                medicao.registrar(Operacao.RESERVA, inicio, status == 200 || status == 409);
+                return null;
+            });
+        }
+        largada.countDown();
+    }
+
+    private static List<String> violacoesDoOrcamento(Resultado resultado, Properties orcamento) {
+        List<String> violacoes = new ArrayList<>();
+        double errosMaximos = Double.parseDouble(orcamento.getProperty("erros.maximo", "0.01"));
+        resultado.operacoes().forEach((nome, percentis) -> {
+            for (String percentil : List.of("p95", "p99")) {
+                String limite = orcamento.getProperty(nome + "." + percentil);
+                double valor = percentil.equals("p95") ? percentis.p95() : percentis.p99();
+                if (limite != null && valor > Double.parseDouble(limite)) {
+                    violacoes.add(nome + " " + percentil + " " + valor + " ms > orçamento de " + limite + " ms");
+                }
+            }
+            if (percentis.requisicoes() == 0) {
+                violacoes.add(nome + " sem requisições");
+            } else if (percentis.erros() > percentis.requisicoes() * errosMaximos) {
+                violacoes.add(nome + " com " + percentis.erros() + " erros em " + percentis.requisicoes() + " requisições");
+            }
+        });
+        String vazaoMinima = orcamento.getProperty("vazao.minima");
+        if (vazaoMinima != null && resultado.vazaoTotal() < Double.parseDouble(vazaoMinima)) {
+            violacoes.add("vazão " + resultado.vazaoTotal() + " req/s < mínimo de " + vazaoMinima + " req/s");
+        }
+        return violacoes;
+    }
+
+    // p99 acima de base * (1 + tolerancia) + folga, ou vazão abaixo de base * (1 - tolerancia)
+    private static List<String> violacoesDaLinhaBase(Resultado resultado, Resultado linhaBase, Properties orcamento) {
+        double tolerancia = Double.parseDouble(orcamento.getProperty("linha-base.tolerancia", "0.5"));
+        double folgaMs = Double.parseDouble(orcamento.getProperty("linha-base.folga-ms", "10"));
+        List<String> violacoes = new ArrayList<>();
+        resultado.operacoes().forEach((nome, percentis) -> {
+            Percentis base = linhaBase.operacoes().get(nome);
+            if (base != null && percentis.p99() > base.p99() * (1 + tolerancia) + folgaMs) {
+                violacoes.add(nome + " p99 " + percentis.p99() + " ms contra " + base.p99() + " ms da linha de base");
+            }
+        });
+        if (resultado.vazaoTotal() < linhaBase.vazaoTotal() * (1 - tolerancia)) {
+            violacoes.add("vazão " + resultado.vazaoTotal() + " req/s contra " + linhaBase.vazaoTotal() + " req/s da linha de base");
+        }
+        return violacoes;
+    }
+
+    private String login(String email) {
+        return "{\"email\":\"" + email + "\",\"senha\":\"" + SENHA + "\"}";
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(URI.create(base + caminho)).timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private HttpRequest post(String caminho, String corpo, String token) {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(corpo));
+        if (token != null) {
+            requisicao.header("Authorization", "Bearer " + token);
+        }
+        return requisicao.build();
+    }
+
+    private int enviar(HttpRequest requisicao) {
+        try {
+            return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static double ms(long micros) {
+        return arredondar(micros / 1000.0);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 10) / 10.0;
+    }
+}
@@ -0,0 +1,185 @@
+package com.agendafacil.backend.carga;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.agendafacil.backend.AgendaFacilApplication;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.service.CentralEventosServicos;
+import com.agendafacil.backend.service.ServicoService;
+
+// Soak do stream SSE (mvn test -Dcarga=true -Dtest=StreamSseCargaTest [-Dcarga.conexoes=5000]):
+// milhares de conexões paradas num Tomcat com 16 threads, recebendo escritas contínuas
+// por DURACAO; mede entregas, descartes, threads vivas e heap. Junto, carga.travados conexões
+// que nunca leem (buffers de socket mínimos): têm de ser fechadas pelo envio-timeout sem
+// atrasar as outras
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class StreamSseCargaTest {
+    private static final Logger log = LoggerFactory.getLogger(StreamSseCargaTest.class);
+
+    private static final Duration DURACAO = Duration.ofSeconds(30);
+    private static final int ESCRITAS_POR_SEGUNDO = 10;
+
+    static final class Leitor implements Flow.Subscriber<String> {
+        private final AtomicLong eventos;
+        private final AtomicInteger conectados;
+        volatile Flow.Subscription assinatura;
+
+        Leitor(AtomicLong eventos, AtomicInteger conectados) {
+            this.eventos = eventos;
+            this.conectados = conectados;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            this.assinatura = assinatura;
+            assinatura.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String linha) {
+            if (linha.startsWith(":conectado")) {
+                conectados.incrementAndGet();
+            } else if (linha.startsWith("event:")) {
+                eventos.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable erro) {}
+
+        @Override
+        public void onComplete() {}
+    }
+
+    @Test
+    void milharesDeConexoesParadasRecebemEscritasContinuas() throws Exception {
+        int conexoes = Integer.getInteger("carga.conexoes", 2000);
+        int travados = Integer.getInteger("carga.travados", 50);
+        // Buffer de envio pequeno no servidor: quem não lê trava o send depois de poucos eventos
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AgendaFacilApplication.class)
+            .initializers(inicio -> inicio.getBeanFactory().registerSingleton("bufferEnvioPequeno",
+                (WebServerFactoryCustomizer<TomcatServletWebServerFactory>) fabrica -> fabrica.addConnectorCustomizers(
+                    conector -> conector.setProperty("socket.txBufSize", "2048"))))
+            .run(
+            "--server.port=0",
+            "--server.tomcat.threads.max=16",
+            "--servicos.stream.envio-timeout=2s",
+            "--logging.level.root=warn",
+            "--logging.level.com.agendafacil.backend.carga=info");
+        List<Leitor> leitores = new ArrayList<>();
+        List<Socket> parados = new ArrayList<>();
+        try {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            CentralEventosServicos central = contexto.getBean(CentralEventosServicos.class);
+            ServicoService servicoService = contexto.getBean(ServicoService.class);
+            Empresa empresa = contexto.getBean(EmpresaRepository.class).save(
+                new Empresa("Soak", "Soak " + System.nanoTime() + " LTDA", null, "soak@ltda.com", "", "senha"));
+
+            HttpClient cliente = HttpClient.newHttpClient();
+            AtomicLong eventos = new AtomicLong();
+            AtomicInteger conectados = new AtomicInteger();
+            URI uri = URI.create("http://localhost:" + porta + "/api/servicos/stream?empresaId=" + empresa.getId());
+            for (int i = 0; i < conexoes; i++) {
+                Leitor leitor = new Leitor(eventos, conectados);
+                leitores.add(leitor);
+                cliente.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.fromLineSubscriber(leitor))
+                    .exceptionally(erro -> null);
+            }
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+            while (conectados.get() < conexoes && System.nanoTime() < limite) {
+                Thread.sleep(100);
+            }
+            assertEquals(conexoes, conectados.get());
+            long threadsParadas = Thread.activeCount();
+            for (int i = 0; i < travados; i++) {
+                parados.add(semLer(porta, empresa.getId()));
+            }
+            limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (central.estatisticas().assinantes() < conexoes + travados && System.nanoTime() < limite) {
+                Thread.sleep(100);
+            }
+            assertEquals(conexoes + travados, central.estatisticas().assinantes());
+
+            // Escritas contínuas: cadastra e remove, dois eventos por par
+            int escritas = 0;
+            long fim = System.nanoTime() + DURACAO.toNanos();
+            while (System.nanoTime() < fim) {
+                Long id = servicoService.cadastrar(new Servico("Soak", "Soak", "Descricao", 30, new BigDecimal("10.00")),
+                    empresa.getId()).getId();
+                servicoService.deletar(id, empresa.getId());
+                escritas += 2;
+                Thread.sleep(2000 / ESCRITAS_POR_SEGUNDO);
+            }
+            long esperados = (long) escritas * conexoes;
+            limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            while (eventos.get() + central.estatisticas().descartados() < esperados && System.nanoTime() < limite) {
+                Thread.sleep(100);
+            }
+
+            Runtime runtime = Runtime.getRuntime();
+            log.info("Conexões: {}, escritas: {}, eventos entregues: {} de {}, descartados: {}, travadas fechadas: {} de {}",
+                conexoes, escritas, eventos.get(), esperados, central.estatisticas().descartados(),
+                central.estatisticas().travados(), travados);
+            log.info("Threads vivas: {} (com as conexões paradas: {}), heap usado: {} MB", Thread.activeCount(),
+                threadsParadas, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+
+            // As travadas saem pelo envio-timeout; as outras recebem tudo (ou descartam por fila cheia)
+            assertEquals(travados, central.estatisticas().travados());
+            assertEquals(conexoes, central.estatisticas().assinantes());
+            assertEquals(esperados, eventos.get() + central.estatisticas().descartados());
+            // Conexão parada não custa thread: bem menos threads que conexões
+            assertTrue(threadsParadas < conexoes / 4, "threads: " + threadsParadas);
+        } finally {
+            for (Socket socket : parados) {
+                socket.close();
+            }
+            leitores.forEach(leitor -> {
+                if (leitor.assinatura != null) {
+                    leitor.assinatura.cancel();
+                }
+            });
+            contexto.close();
+        }
+    }
+
+    // Abre o stream e nunca lê: com a janela de recepção mínima o servidor logo para de conseguir escrever
+    private static Socket semLer(int porta, Long empresaId) throws IOException {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(1024);
+        socket.connect(new InetSocketAddress("localhost", porta));
+        socket.getOutputStream().write(("GET /api/servicos/stream?empresaId=" + empresaId + " HTTP/1.1\r\n"
+            + "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+}
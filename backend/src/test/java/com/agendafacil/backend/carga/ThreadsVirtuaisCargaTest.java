@@ -0,0 +1,152 @@
+package com.agendafacil.backend.carga;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.agendafacil.backend.AgendaFacilApplication;
+import com.sun.net.httpserver.HttpServer;
+
+// Teste de carga (mvn test -Dcarga=true -Dtest=ThreadsVirtuaisCargaTest):
+// rajada de consultas de CNPJ lentas junto com leituras do catálogo, com o
+// Tomcat limitado a poucas threads, com e sem threads virtuais
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class ThreadsVirtuaisCargaTest {
+    private static final Logger log = LoggerFactory.getLogger(ThreadsVirtuaisCargaTest.class);
+
+    private static final Duration DURACAO = Duration.ofSeconds(10);
+    private static final int CLIENTES_CNPJ = 200;
+    private static final int CLIENTES_CATALOGO = 20;
+
+    private HttpServer brasilApiLenta;
+
+    record Resultado(int catalogo, long catalogoP99Ms, int cnpjOk, int cnpjRejeitadas) {}
+
+    @BeforeEach
+    void subirStub() throws IOException {
+        brasilApiLenta = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        brasilApiLenta.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        brasilApiLenta.createContext("/", exchange -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] corpo = "{\"razao_social\":\"Lenta LTDA\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, corpo.length);
+            exchange.getResponseBody().write(corpo);
+            exchange.close();
+        });
+        brasilApiLenta.start();
+    }
+
+    @AfterEach
+    void derrubarStub() {
+        brasilApiLenta.stop(0);
+    }
+
+    @Test
+    void comparaVazaoComESemThreadsVirtuais() throws Exception {
+        Resultado plataforma = rodar(false);
+        Resultado virtuais = rodar(true);
+
+        log.info("Threads de plataforma: {}", plataforma);
+        log.info("Threads virtuais:      {}", virtuais);
+        log.info("Catálogo: {} req/s -> {} req/s", plataforma.catalogo() / DURACAO.toSeconds(),
+            virtuais.catalogo() / DURACAO.toSeconds());
+
+        assertTrue(plataforma.catalogo() > 0 && virtuais.catalogo() > 0);
+    }
+
+    private Resultado rodar(boolean threadsVirtuais) throws Exception {
+        // argumentos de linha de comando têm prioridade sobre o application.properties
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AgendaFacilApplication.class).run(
+            "--server.port=0",
+            "--server.tomcat.threads.max=16",
+            "--spring.threads.virtual.enabled=" + threadsVirtuais,
+            "--brasilapi.url=http://localhost:" + brasilApiLenta.getAddress().getPort() + "/",
+            "--brasilapi.bulkhead.max-concorrentes=20",
+            "--brasilapi.bulkhead.espera-maxima=500ms",
+            "--logging.level.root=warn",
+            "--logging.level.com.agendafacil.backend.carga=info");
+        try {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            return gerarCarga("http://localhost:" + porta + "/api");
+        } finally {
+            contexto.close();
+        }
+    }
+
+    private Resultado gerarCarga(String base) throws InterruptedException {
+        HttpClient cliente = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long fim = System.nanoTime() + DURACAO.toNanos();
+        AtomicInteger proximoCnpj = new AtomicInteger();
+        AtomicInteger cnpjOk = new AtomicInteger();
+        AtomicInteger cnpjRejeitadas = new AtomicInteger();
+        List<Long> latenciasCatalogo = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < CLIENTES_CNPJ; i++) {
+            clientes.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    int status = get(cliente, base + "/empresas/cnpj/" + proximoCnpj.incrementAndGet());
+                    (status == 200 ? cnpjOk : cnpjRejeitadas).incrementAndGet();
+                }
+            });
+        }
+        for (int i = 0; i < CLIENTES_CATALOGO; i++) {
+            clientes.submit(() -> {
+                while (System.nanoTime() < fim) {
+                    long inicio = System.nanoTime();
+                    if (get(cliente, base + "/servicos?limit=50") == 200) {
+                        latenciasCatalogo.add((System.nanoTime() - inicio) / 1_000_000);
+                    }
+                }
+            });
+        }
+        clientes.shutdown();
+        clientes.awaitTermination(DURACAO.toSeconds() + 30, TimeUnit.SECONDS);
+
+        List<Long> ordenadas = new ArrayList<>(latenciasCatalogo);
+        Collections.sort(ordenadas);
+        long p99 = ordenadas.isEmpty() ? -1 : ordenadas.get((int) (ordenadas.size() * 0.99));
+        return new Resultado(ordenadas.size(), p99, cnpjOk.get(), cnpjRejeitadas.get());
+    }
+
+    private int get(HttpClient cliente, String url) {
+        try {
+            HttpRequest requisicao = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).build();
+            return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
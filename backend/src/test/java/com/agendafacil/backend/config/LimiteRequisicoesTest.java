@@ -0,0 +1,151 @@
+package com.agendafacil.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.agendafacil.backend.config.LimitadorRequisicoes.Grupo;
+
+@SpringBootTest(properties = {
+    "limite.habilitado=true",
+    "limite.conta.taxa=0.01",
+    "limite.conta.rajada=3",
+    "limite.leitura.concorrentes=2"
+})
+@AutoConfigureMockMvc
+class LimiteRequisicoesTest {
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private LimitadorRequisicoes limitador;
+
+    private MockHttpServletResponse login(String ip) throws Exception {
+        MockHttpServletRequestBuilder requisicao = post("/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"marcelo123@email.com\",\"senha\":\"errada\"}")
+            .with(r -> {
+                r.setRemoteAddr(ip);
+                return r;
+            });
+        return mockMvc.perform(requisicao).andReturn().getResponse();
+    }
+
+    @Test
+    void passouDaRajadaRecebe429ComRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertNotEquals(429, login("10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse recusada = login("10.0.0.1");
+        assertEquals(429, recusada.getStatus());
+        // 0,01 ficha por segundo: a próxima sai em 100 s
+        long retryAfter = Long.parseLong(recusada.getHeader("Retry-After"));
+        assertTrue(retryAfter > 90 && retryAfter <= 100, "Retry-After: " + retryAfter);
+
+        // Outro cliente tem o próprio balde; outro grupo de rotas também
+        assertNotEquals(429, login("10.0.0.2").getStatus());
+        assertEquals(200, mockMvc.perform(get("/servicos").with(r -> {
+            r.setRemoteAddr("10.0.0.1");
+            return r;
+        })).andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    void grupoLotadoRecusaSemEsperar() {
+        assertTrue(limitador.entrar(Grupo.LEITURA));
+        assertTrue(limitador.entrar(Grupo.LEITURA));
+        assertFalse(limitador.entrar(Grupo.LEITURA));
+        limitador.sair(Grupo.LEITURA);
+        assertTrue(limitador.entrar(Grupo.LEITURA));
+        limitador.sair(Grupo.LEITURA);
+        limitador.sair(Grupo.LEITURA);
+        assertEquals(2, limitador.estatisticas(Grupo.LEITURA).vagasLivres());
+    }
+
+    @Test
+    void rotasCaemNoGrupoCerto() {
+        assertEquals(Grupo.CNPJ, LimiteRequisicoesFilter.grupo("GET", "/empresas/cnpj/12345678000195"));
+        assertEquals(Grupo.STREAM, LimiteRequisicoesFilter.grupo("GET", "/servicos/stream"));
+        assertEquals(Grupo.LEITURA, LimiteRequisicoesFilter.grupo("GET", "/servicos/7"));
+        assertEquals(Grupo.CONTA, LimiteRequisicoesFilter.grupo("POST", "/empresas/login"));
+        assertEquals(Grupo.RESERVA, LimiteRequisicoesFilter.grupo("POST", "/servicos/7/reservar"));
+        assertEquals(Grupo.RESERVA, LimiteRequisicoesFilter.grupo("POST", "/servicos/reservar-lote"));
+        assertEquals(Grupo.RESERVA, LimiteRequisicoesFilter.grupo("POST", "/agendamentos"));
+        assertEquals(Grupo.ESCRITA, LimiteRequisicoesFilter.grupo("PUT", "/servicos/7"));
+    }
+
+    @Test
+    void baldeEncheNoRitmoDaTaxa() {
+        AtomicLong balde = new AtomicLong(Long.MIN_VALUE);
+        long intervalo = SEGUNDO / 10;
+        long tolerancia = intervalo * 5;
+        long agora = 1_000 * SEGUNDO;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, LimitadorRequisicoes.consumir(balde, agora, intervalo, tolerancia));
+        }
+        assertEquals(intervalo, LimitadorRequisicoes.consumir(balde, agora, intervalo, tolerancia));
+        // Depois de um intervalo volta uma ficha, não mais
+        assertEquals(0, LimitadorRequisicoes.consumir(balde, agora + intervalo, intervalo, tolerancia));
+        assertTrue(LimitadorRequisicoes.consumir(balde, agora + intervalo, intervalo, tolerancia) > 0);
+        // Parado por muito tempo, o balde só enche até a rajada
+        long depois = agora + 60 * SEGUNDO;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, LimitadorRequisicoes.consumir(balde, depois, intervalo, tolerancia));
+        }
+        assertTrue(LimitadorRequisicoes.consumir(balde, depois, intervalo, tolerancia) > 0);
+    }
+
+    @Test
+    void disputaNoMesmoBaldeNaoPassaDaRajada() throws Exception {
+        AtomicLong balde = new AtomicLong(Long.MIN_VALUE);
+        long agora = System.nanoTime();
+        int threads = 32;
+        int rajada = 1000;
+        AtomicInteger admitidas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Runnable> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 200; i++) {
+                    if (LimitadorRequisicoes.consumir(balde, agora, SEGUNDO, SEGUNDO * rajada) == 0) {
+                        admitidas.incrementAndGet();
+                    }
+                }
+            });
+        }
+        tarefas.forEach(executor::execute);
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        // 6400 tentativas no mesmo instante: passam exatamente as fichas do balde cheio
+        assertEquals(rajada, admitidas.get());
+    }
+}
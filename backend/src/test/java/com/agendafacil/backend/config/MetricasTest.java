@@ -0,0 +1,37 @@
+package com.agendafacil.backend.config;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void endpointPrometheusExpoeMetricasDeRotaBancoEPool() throws Exception {
+        mockMvc.perform(get("/servicos")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+            .andExpect(content().string(containsString("http_server_requests_queries_count{method=\"GET\",uri=\"/servicos\"}")))
+            .andExpect(content().string(containsString("spring_data_repository_invocations_seconds")))
+            .andExpect(content().string(containsString("hibernate_query_slow")))
+            .andExpect(content().string(containsString("hibernate_statements_total")))
+            .andExpect(content().string(containsString("hikaricp_connections_active")))
+            .andExpect(content().string(containsString("brasilapi_cache_requests_total")));
+    }
+}
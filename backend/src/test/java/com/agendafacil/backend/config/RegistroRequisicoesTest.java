@@ -0,0 +1,102 @@
+package com.agendafacil.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+@SpringBootTest(properties = "log.requisicoes.amostragem=1")
+@AutoConfigureMockMvc
+class RegistroRequisicoesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("requisicoes");
+    private final ListAppender<ILoggingEvent> linhas = new ListAppender<>();
+
+    @BeforeEach
+    void capturar() {
+        linhas.start();
+        logger.addAppender(linhas);
+    }
+
+    @AfterEach
+    void soltar() {
+        logger.detachAppender(linhas);
+    }
+
+    @Test
+    void idDaRequisicaoVoltaNoCabecalhoEVaiParaOLog() throws Exception {
+        MockHttpServletResponse propria = mockMvc.perform(get("/servicos/busca").param("q", "corte")
+            .header(RegistroRequisicoesFilter.CABECALHO, "pedido-42.a_b")).andReturn().getResponse();
+        assertEquals("pedido-42.a_b", propria.getHeader(RegistroRequisicoesFilter.CABECALHO));
+        assertEquals("pedido-42.a_b", linhas.list.get(0).getMDCPropertyMap().get(RegistroRequisicoesFilter.MDC_ID));
+
+        // Id com quebra de linha (forjaria linhas de log) é trocado por um gerado
+        MockHttpServletResponse forjada = mockMvc.perform(get("/servicos/busca").param("q", "corte")
+            .header(RegistroRequisicoesFilter.CABECALHO, "x\nINFO falso")).andReturn().getResponse();
+        String gerado = forjada.getHeader(RegistroRequisicoesFilter.CABECALHO);
+        assertTrue(gerado.matches("[0-9a-f]{16}"), gerado);
+        assertNotEquals(gerado, mockMvc.perform(get("/servicos/busca").param("q", "corte")).andReturn().getResponse()
+            .getHeader(RegistroRequisicoesFilter.CABECALHO));
+    }
+
+    @Test
+    void requisicaoAmostradaSaiComSpansESemDadosSensiveis() throws Exception {
+        mockMvc.perform(post("/login?email=marcelo123@email.com&origem=app")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"marcelo123@email.com\",\"senha\":\"segredo-do-teste\"}")).andReturn();
+
+        assertEquals(1, linhas.list.size());
+        String linha = linhas.list.get(0).getFormattedMessage();
+        assertTrue(linha.startsWith("POST /login?email=***&origem=app status=401 ms="), linha);
+        assertTrue(linha.contains(" >controller:UserController.login="), linha);
+        assertTrue(linha.contains(" >>service:UserService.login="), linha);
+        assertTrue(linha.contains(" >>>repositorio:UserRepository.findByEmail="), linha);
+        assertFalse(linha.contains("marcelo123"), linha);
+        assertFalse(linha.contains("segredo-do-teste"), linha);
+    }
+
+    @Test
+    void semRotaDoMapeamentoOCaminhoSaiMascarado() throws Exception {
+        // Sem token a segurança responde antes do controller: não há rota, só a URI
+        mockMvc.perform(post("/servicos/4242/reservar")).andReturn();
+
+        String linha = linhas.list.get(0).getFormattedMessage();
+        assertTrue(linha.startsWith("POST /servicos/*/reservar status=401 ms="), linha);
+
+        StringBuilder saida = new StringBuilder();
+        RegistroRequisicoesFilter.mascarar("/empresas/cnpj/12.345.678/0001-90", saida);
+        assertEquals("/empresas/cnpj/*/*", saida.toString());
+        saida.setLength(0);
+        RegistroRequisicoesFilter.mascarar("/users/email/a%40b.com/", saida);
+        assertEquals("/users/email/*/", saida.toString());
+    }
+
+    @Test
+    void redigeSoOsCamposSensiveis() {
+        StringBuilder saida = new StringBuilder();
+        RegistroRequisicoesFilter.redigir("Token=abc&pagina=2&email=&senha=x&cnpj", Set.of("token", "email", "senha", "cnpj"), saida);
+        assertEquals("Token=***&pagina=2&email=***&senha=***&cnpj", saida.toString());
+    }
+}
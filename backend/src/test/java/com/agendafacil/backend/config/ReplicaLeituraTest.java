@@ -0,0 +1,145 @@
+package com.agendafacil.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.UserRepository;
+import com.agendafacil.backend.service.ServicoService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+import com.agendafacil.backend.service.TokenService.Papel;
+import com.agendafacil.backend.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Dois H2 no lugar de primário e réplica. Não há replicação entre eles: o que só existe
+// num dos bancos mostra para onde cada leitura foi, e a réplica parece infinitamente atrasada
+// para tudo que foi gravado depois. Sem o cache de segundo nível, que responderia antes de
+// qualquer um dos dois
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "banco.replica.url=jdbc:h2:mem:agendafacil_replica;DB_CLOSE_DELAY=-1",
+    "banco.replica.username=sa",
+    "banco.replica.password=",
+    "banco.replica.consulta-atraso=SELECT segundos FROM atraso_replica",
+    "banco.replica.atraso-maximo=2s",
+    "banco.replica.verificacao=1h",
+    "banco.leitura-propria.janela=1m"
+})
+class ReplicaLeituraTest {
+
+    @Autowired
+    private ReplicaLeitura replicaLeitura;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    private JdbcTemplate naReplica;
+    private MonitorReplica monitorReplica;
+
+    @BeforeEach
+    void preparar() {
+        HikariDataSource replica = replicaLeitura.dataSource();
+        monitorReplica = replicaLeitura.monitor();
+        Flyway.configure()
+            .dataSource(replica)
+            .locations("classpath:db/migration/comum", "classpath:db/migration/h2")
+            .load()
+            .migrate();
+        naReplica = new JdbcTemplate(replica);
+        naReplica.execute("create table if not exists atraso_replica (segundos double precision)");
+        atraso(0);
+    }
+
+    @AfterEach
+    void limpar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void atraso(double segundos) {
+        naReplica.update("delete from atraso_replica");
+        naReplica.update("insert into atraso_replica values (?)", segundos);
+        monitorReplica.verificar();
+    }
+
+    private User usuarioNoPrimario() {
+        long n = System.nanoTime();
+        return userRepository.save(new User("Primario " + n, "primario" + n + "@replica.com", "", "senha"));
+    }
+
+    @Test
+    void leituraSomenteLeituraVaiParaReplica() {
+        User gravado = usuarioNoPrimario();
+        long n = System.nanoTime();
+        naReplica.update("insert into usuarios (email, nome_completo, senha, telefone) values (?, ?, 'senha', '')",
+            "replica" + n + "@replica.com", "So na replica " + n);
+        Long idNaReplica = naReplica.queryForObject("select id from usuarios where email = ?", Long.class, "replica" + n + "@replica.com");
+
+        assertTrue(monitorReplica.emDia());
+        assertTrue(userService.findById(gravado.getId()).isEmpty());
+        assertEquals("So na replica " + n, userService.findById(idNaReplica).orElseThrow().getNome_completo());
+        List<User> todos = userService.findAll();
+        assertTrue(todos.stream().anyMatch(user -> user.getId().equals(idNaReplica)));
+        assertTrue(todos.stream().noneMatch(user -> user.getId().equals(gravado.getId())));
+    }
+
+    @Test
+    void replicaAtrasadaDevolveLeiturasAoPrimario() {
+        User gravado = usuarioNoPrimario();
+
+        atraso(10);
+        assertFalse(monitorReplica.emDia());
+        assertTrue(userService.findById(gravado.getId()).isPresent());
+
+        atraso(1);
+        assertTrue(userService.findById(gravado.getId()).isEmpty());
+    }
+
+    @Test
+    void quemReservouLeDoPrimarioDentroDaJanela() {
+        long n = System.nanoTime();
+        Empresa empresa = empresaRepository.save(new Empresa("Replica", "Replica " + n + " LTDA", null, "replica" + n + "@ltda.com", "", "senha"));
+        Long servicoId = servicoService.cadastrar(new Servico("Corte", "Cabelo", "Descricao", 30, new BigDecimal("20.00")), empresa.getId()).getId();
+        User cliente = usuarioNoPrimario();
+        User outro = usuarioNoPrimario();
+
+        entrarComo(cliente);
+        assertTrue(userService.findById(cliente.getId()).isEmpty());
+
+        servicoService.reservarServico(servicoId, cliente.getId());
+        // O serviço reservado e a própria conta só existem no primário
+        assertTrue(servicoService.findById(servicoId).isAgendado());
+        assertTrue(userService.findById(cliente.getId()).isPresent());
+
+        entrarComo(outro);
+        assertTrue(userService.findById(outro.getId()).isEmpty());
+    }
+
+    private static void entrarComo(User user) {
+        Autenticado autenticado = new Autenticado(user.getId(), Papel.USUARIO);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(autenticado, null, List.of()));
+    }
+}
@@ -0,0 +1,247 @@
+package com.agendafacil.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+import com.agendafacil.backend.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AutenticacaoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Empresa empresa;
+    private User cliente;
+    private Long servicoId;
+
+    @BeforeEach
+    void preparar() {
+        long n = System.nanoTime();
+        empresa = empresaRepository.save(new Empresa("Sessao", "Sessao " + n + " LTDA", null, "sessao" + n + "@ltda.com", "", "senha"));
+        cliente = userRepository.save(new User("Cliente Sessao", "cliente" + n + "@sessao.com", "", "senha"));
+        servicoId = servicoRepository.save(new Servico("Escova", "Cabelo", "Escova simples", 30, new BigDecimal("35.00"), empresa)).getId();
+    }
+
+    private JsonNode login(String url, String email) throws Exception {
+        String json = mockMvc.perform(post(url).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("email", email, "senha", "senha"))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private static String bearer(JsonNode sessao) {
+        return "Bearer " + sessao.get("token").asText();
+    }
+
+    @Test
+    void loginDevolveTokensESemSenha() throws Exception {
+        JsonNode sessao = login("/login", cliente.getEmail());
+
+        assertEquals(cliente.getId(), sessao.get("id").asLong());
+        assertEquals("USUARIO", sessao.get("papel").asText());
+        assertTrue(sessao.hasNonNull("token"));
+        assertTrue(sessao.hasNonNull("refreshToken"));
+        assertFalse(sessao.has("senha"));
+
+        JsonNode sessaoEmpresa = login("/empresas/login", empresa.getEmail());
+        assertEquals("EMPRESA", sessaoEmpresa.get("papel").asText());
+        assertFalse(sessaoEmpresa.has("senha"));
+    }
+
+    @Test
+    void nenhumaRespostaTemSenha() throws Exception {
+        long n = System.nanoTime();
+        String segredo = "segredo" + n;
+        List<String> respostas = new ArrayList<>();
+        respostas.add(mockMvc.perform(post("/register").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("nome_completo", "Novo", "email", "novo" + n + "@sessao.com",
+                    "telefone", "", "senha", segredo))))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        respostas.add(mockMvc.perform(post("/empresas/cadastrar").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("nome", "Nova", "razao_social", "Nova " + n + " LTDA",
+                    "cnpj", Long.toString(n), "email", "nova" + n + "@ltda.com", "telefone", "", "senha", segredo))))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        respostas.add(mockMvc.perform(post("/servicos/{id}/reservar", servicoId).header("Authorization", bearer(login("/login", cliente.getEmail()))))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        respostas.add(mockMvc.perform(get("/servicos/{id}", servicoId))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        respostas.add(mockMvc.perform(get("/servicos/nome/{nome}", "Escova"))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        respostas.add(mockMvc.perform(get("/users"))
+            .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+
+        // A reserva sai com quem agendou, mas só id e nome
+        assertEquals(cliente.getNome_completo(), objectMapper.readTree(respostas.get(2)).get("usuarioAgendadoNome").asText());
+        for (String resposta : respostas) {
+            assertFalse(resposta.contains("\"senha\""), resposta);
+            assertFalse(resposta.contains(segredo), resposta);
+        }
+    }
+
+    @Test
+    void reservaUsaOUsuarioDoToken() throws Exception {
+        JsonNode sessao = login("/login", cliente.getEmail());
+
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId)).andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId)
+                .header("Authorization", bearer(login("/empresas/login", empresa.getEmail()))))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId).header("Authorization", bearer(sessao)))
+            .andExpect(status().isOk());
+
+        assertEquals(cliente.getId(), servicoRepository.findDetalhesByEmpresaId(empresa.getId()).get(0).getUsuarioAgendadoId());
+    }
+
+    @Test
+    void reservaEmLoteUsaOUsuarioDoToken() throws Exception {
+        String lote = objectMapper.writeValueAsString(List.of(servicoId));
+        mockMvc.perform(post("/servicos/reservar-lote").contentType(MediaType.APPLICATION_JSON).content(lote)
+                .header("Authorization", bearer(login("/empresas/login", empresa.getEmail()))))
+            .andExpect(status().isForbidden());
+        String autorizacao = bearer(login("/login", cliente.getEmail()));
+        mockMvc.perform(post("/servicos/reservar-lote").contentType(MediaType.APPLICATION_JSON).content(lote)
+                .header("Authorization", autorizacao))
+            .andExpect(status().isOk());
+        String json = mockMvc.perform(post("/servicos/reservar-lote").contentType(MediaType.APPLICATION_JSON).content(lote)
+                .header("Authorization", autorizacao))
+            .andExpect(status().isConflict())
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals("indisponivel", objectMapper.readTree(json).get("itens").get(0).get("situacao").asText());
+        assertEquals(cliente.getId(), servicoRepository.findDetalhesByEmpresaId(empresa.getId()).get(0).getUsuarioAgendadoId());
+    }
+
+    @Test
+    void empresaSoApagaOsPropriosServicos() throws Exception {
+        long n = System.nanoTime();
+        Empresa outra = empresaRepository.save(new Empresa("Outra", "Outra " + n + " LTDA", null, "outra" + n + "@ltda.com", "", "senha"));
+
+        mockMvc.perform(delete("/servicos/{id}", servicoId).header("Authorization", bearer(login("/empresas/login", outra.getEmail()))))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/servicos/{id}", servicoId).header("Authorization", bearer(login("/empresas/login", empresa.getEmail()))))
+            .andExpect(status().isOk());
+        assertFalse(servicoRepository.existsById(servicoId));
+    }
+
+    @Test
+    void painelEDaEmpresaDoToken() throws Exception {
+        JsonNode sessao = login("/login", cliente.getEmail());
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId).header("Authorization", bearer(sessao)))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/empresas/painel")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/empresas/painel").header("Authorization", bearer(sessao))).andExpect(status().isForbidden());
+        String json = mockMvc.perform(get("/empresas/painel").header("Authorization", bearer(login("/empresas/login", empresa.getEmail()))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode painel = objectMapper.readTree(json);
+        assertEquals(empresa.getId(), painel.get("empresaId").asLong());
+        assertEquals(1, painel.get("reservas").asLong());
+        assertEquals("Cabelo", painel.get("dias").get(0).get("categoria").asText());
+    }
+
+    @Test
+    void tokenAdulteradoOuDeRenovacaoERecusado() throws Exception {
+        JsonNode sessao = login("/login", cliente.getEmail());
+        String[] partes = sessao.get("token").asText().split("\\.");
+        String corpo = new String(Base64.getUrlDecoder().decode(partes[1]))
+            .replace("\"sub\":\"" + cliente.getId() + "\"", "\"sub\":\"1\"");
+        String adulterado = partes[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(corpo.getBytes()) + "." + partes[2];
+
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId).header("Authorization", "Bearer " + adulterado))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().string("WWW-Authenticate", "Bearer error=\"invalid_token\""));
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId).header("Authorization", "Bearer " + sessao.get("refreshToken").asText()))
+            .andExpect(status().isUnauthorized());
+        // Rota pública ignora o token recusado e responde como anônima
+        mockMvc.perform(get("/servicos/{id}", servicoId).header("Authorization", "Bearer " + adulterado))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void tokenVencidoNaoValeEORenovacaoEmiteOutro() throws Exception {
+        TokenService curto = new TokenService(objectMapper, "segredo-de-teste-com-32-bytes-ou-mais", false, Duration.ZERO, Duration.ofMinutes(5));
+        TokenService.Autenticado autenticado = new TokenService.Autenticado(cliente.getId(), TokenService.Papel.USUARIO);
+        assertTrue(curto.verificarAcesso(curto.emitir(autenticado).getToken()).isEmpty());
+
+        JsonNode sessao = login("/login", cliente.getEmail());
+        String json = mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", sessao.get("refreshToken").asText()))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post("/servicos/{id}/reservar", servicoId).header("Authorization", bearer(objectMapper.readTree(json))))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", sessao.get("token").asText()))))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void segredoCurtoOuAusenteNaoSobe() {
+        assertThrows(IllegalStateException.class,
+            () -> new TokenService(objectMapper, "curto", true, Duration.ofMinutes(5), Duration.ofMinutes(5)));
+        assertThrows(IllegalStateException.class,
+            () -> new TokenService(objectMapper, "", false, Duration.ofMinutes(5), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void conferirTokenNaoVaiAoBanco() throws Exception {
+        String autorizacao = bearer(login("/login", cliente.getEmail()));
+        // Primeira leitura carrega o catálogo; a segunda já sai toda da memória
+        mockMvc.perform(get("/servicos/busca").param("q", "escova").header("Authorization", autorizacao)).andExpect(status().isOk());
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        mockMvc.perform(get("/servicos/busca").param("q", "escova").header("Authorization", autorizacao)).andExpect(status().isOk());
+
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+    }
+}
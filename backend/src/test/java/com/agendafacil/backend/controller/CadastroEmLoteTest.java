@@ -0,0 +1,153 @@
+package com.agendafacil.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.service.ServicoService;
+import com.agendafacil.backend.service.TokenService;
+import com.agendafacil.backend.service.TokenService.Autenticado;
+import com.agendafacil.backend.service.TokenService.Papel;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CadastroEmLoteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private TokenService tokenService;
+
+    private JsonNode enviar(String url, MediaType tipo, String corpo) throws Exception {
+        return enviar(url, tipo, corpo, null);
+    }
+
+    private JsonNode enviar(String url, MediaType tipo, String corpo, Empresa empresa) throws Exception {
+        MockHttpServletRequestBuilder requisicao = post(url).contentType(tipo).content(corpo);
+        if (empresa != null) {
+            requisicao.header("Authorization", "Bearer " + tokenService.emitir(new Autenticado(empresa.getId(), Papel.EMPRESA)).getToken());
+        }
+        String json = mockMvc.perform(requisicao)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    @Test
+    void loteDeServicosGravaValidosEmBatchERelataRecusados() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Franquia", "Franquia LTDA", "66666666000166",
+            "franquia@ltda.com", "", "senha"));
+        List<Map<String, Object>> linhas = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            linhas.add(Map.of("nome", "Servico " + i, "categoria", "Unhas", "descricao", "Descricao",
+                "duracao_minutos", 30, "preco", 25, "empresaId", empresa.getId()));
+        }
+        // A empresa do token vale mais que a do corpo
+        linhas.set(10, Map.of("nome", "Outra empresa", "categoria", "Unhas", "descricao", "Descricao",
+            "duracao_minutos", 30, "preco", 25, "empresaId", -1));
+        linhas.set(20, Map.of("nome", "Sem duracao", "categoria", "Unhas", "descricao", "Descricao",
+            "preco", 25, "empresaId", empresa.getId()));
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        JsonNode resultado = enviar("/servicos/lote", MediaType.APPLICATION_JSON, objectMapper.writeValueAsString(linhas), empresa);
+
+        assertEquals(120, resultado.get("total").asInt());
+        assertEquals(119, resultado.get("inseridos").asInt());
+        assertTrue(resultado.get("linhas").get(10).get("erro").isNull());
+        assertEquals("Duração deve ser maior que zero", resultado.get("linhas").get(20).get("erro").asText());
+        assertEquals(21, resultado.get("linhas").get(20).get("linha").asInt());
+        assertTrue(resultado.get("linhas").get(20).get("id").isNull());
+        assertEquals(119, servicoRepository.findDetalhesByEmpresaId(empresa.getId()).size());
+        // Uma consulta das empresas, poucas chamadas às sequências e um statement por batch
+        // (serviços e eventos_saida), em vez de dois inserts por linha
+        assertTrue(estatisticas.getPrepareStatementCount() < 25, "statements: " + estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void loteJsonAcimaDoLimiteRecusaSemLerOResto() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Excesso", "Excesso LTDA", "88888888000188",
+            "excesso@ltda.com", "", "senha"));
+        // Depois do limite o corpo nem é JSON válido: só dá 413 se a leitura parar antes
+        String corpo = "[" + "{},".repeat(ServicoService.LIMITE_LOTE) + "{} lixo";
+
+        mockMvc.perform(post("/servicos/lote").contentType(MediaType.APPLICATION_JSON).content(corpo)
+                .header("Authorization", "Bearer " + tokenService.emitir(new Autenticado(empresa.getId(), Papel.EMPRESA)).getToken()))
+            .andExpect(status().isPayloadTooLarge());
+        mockMvc.perform(post("/empresas/lote").contentType(MediaType.APPLICATION_JSON).content("[{}, {\"nome\": "))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loteDeServicosAceitaCsv() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Csv", "Csv LTDA", "77777777000177", "csv@ltda.com", "", "senha"));
+        String csv = "nome;categoria;descricao;duracao_minutos;preco\n"
+            + "Corte;Cabelo;\"Corte; lavagem e \"\"finalização\"\"\";45;50.00\n"
+            + "\n"
+            + "Barba;Cabelo;;20;30.00\n"
+            + "Manicure;Unhas;Simples;meia hora;25.00\n"
+            + "Pedicure;Unhas;Simples;40;vinte\n"
+            + "Escova;Cabelo;Simples;30;35.00\n";
+
+        JsonNode resultado = enviar("/servicos/lote", MediaType.valueOf("text/csv"), csv, empresa);
+
+        // Número inválido recusa só a linha, como a validação
+        assertEquals(5, resultado.get("total").asInt());
+        assertEquals(2, resultado.get("inseridos").asInt());
+        assertEquals("Descrição obrigatória (até 255 caracteres)", resultado.get("linhas").get(1).get("erro").asText());
+        assertEquals("Valor inválido em duracao_minutos", resultado.get("linhas").get(2).get("erro").asText());
+        assertEquals("Valor inválido em preco", resultado.get("linhas").get(3).get("erro").asText());
+        assertEquals(5, resultado.get("linhas").get(4).get("linha").asInt());
+        assertTrue(resultado.get("linhas").get(4).hasNonNull("id"));
+        assertEquals("Corte; lavagem e \"finalização\"",
+            servicoRepository.findById(resultado.get("linhas").get(0).get("id").asLong()).orElseThrow().getDescricao());
+    }
+
+    @Test
+    void loteDeEmpresasRecusaCnpjERazaoSocialRepetidos() throws Exception {
+        empresaRepository.save(new Empresa("Existente", "Existente LTDA", "12121212000112", "existente@ltda.com", "", "senha"));
+        String csv = "nome,razao_social,cnpj,email,telefone,senha\n"
+            + "Nova,Nova LTDA,13.131.313/0001-13,nova@ltda.com,,senha\n"
+            + "Repetida,Repetida LTDA,12.121.212/0001-12,,,senha\n"
+            + "Copia,Nova LTDA,14141414000114,,,senha\n"
+            + "Curta,Curta LTDA,123,,,senha\n";
+
+        JsonNode resultado = enviar("/empresas/lote", MediaType.valueOf("text/csv"), csv);
+
+        assertEquals(1, resultado.get("inseridos").asInt());
+        assertEquals("CNPJ já cadastrado!", resultado.get("linhas").get(1).get("erro").asText());
+        assertEquals("Razão social já cadastrada!", resultado.get("linhas").get(2).get("erro").asText());
+        assertEquals("CNPJ deve ter 14 dígitos", resultado.get("linhas").get(3).get("erro").asText());
+        assertTrue(empresaRepository.findByCnpj("13131313000113").isPresent());
+    }
+}
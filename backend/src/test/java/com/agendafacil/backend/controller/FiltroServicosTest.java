@@ -0,0 +1,111 @@
+package com.agendafacil.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FiltroServicosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    // Percorre todas as páginas, de 2 em 2, e devolve os serviços na ordem em que vieram
+    private List<Servico> paginas(List<Servico> criados, Supplier<MockHttpServletRequestBuilder> filtro) throws Exception {
+        List<Servico> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder requisicao = filtro.get().param("limit", "2");
+            if (cursor != null) {
+                requisicao.param("after", cursor);
+            }
+            String json = mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            JsonNode pagina = objectMapper.readTree(json);
+            assertTrue(pagina.get("itens").size() <= 2);
+            for (JsonNode item : pagina.get("itens")) {
+                long id = item.get("id").asLong();
+                vistos.add(criados.stream().filter(s -> s.getId() == id).findFirst().orElseThrow());
+            }
+            cursor = pagina.get("proximo").isNull() ? null : pagina.get("proximo").asText();
+        } while (cursor != null);
+        return vistos;
+    }
+
+    @Test
+    void filtraPorFaixaEPaginaNaOrdemPedida() throws Exception {
+        long n = System.nanoTime();
+        String categoria = "Filtro " + n;
+        Empresa empresa = empresaRepository.save(new Empresa("Filtro", "Filtro " + n + " LTDA", null,
+            "filtro" + n + "@ltda.com", "", "senha"));
+        int[][] precoDuracao = { { 40, 30 }, { 90, 60 }, { 40, 45 }, { 120, 30 }, { 99, 90 }, { 40, 30 }, { 10, 15 },
+            { 100, 60 } };
+        List<Servico> criados = new ArrayList<>();
+        for (int[] pd : precoDuracao) {
+            criados.add(servicoRepository.save(new Servico("Servico " + pd[0], categoria, "Descricao", pd[1],
+                new BigDecimal(pd[0] + ".00"), empresa)));
+        }
+        Servico reservado = criados.get(6);
+        reservado.setAgendado(true);
+        servicoRepository.save(reservado);
+
+        List<Servico> esperados = criados.stream()
+            .filter(s -> !s.isAgendado() && s.getPreco().compareTo(new BigDecimal("100")) <= 0 && s.getDuracao_minutos() <= 60)
+            .sorted(Comparator.comparing(Servico::getPreco).thenComparing(Servico::getDuracao_minutos).thenComparing(Servico::getId))
+            .toList();
+        List<Servico> vistos = paginas(criados, () -> get("/servicos/filtro")
+            .param("categoria", categoria).param("precoMax", "100").param("duracaoMax", "60"));
+        assertEquals(ids(esperados), ids(vistos));
+
+        List<Servico> porDuracao = criados.stream()
+            .filter(s -> !s.isAgendado() && s.getPreco().compareTo(new BigDecimal("40")) >= 0)
+            .sorted(Comparator.comparing(Servico::getDuracao_minutos).thenComparing(Servico::getPreco).thenComparing(Servico::getId)
+                .reversed())
+            .toList();
+        vistos = paginas(criados, () -> get("/servicos/filtro")
+            .param("categoria", categoria).param("empresaId", empresa.getId().toString()).param("precoMin", "40")
+            .param("ordem", "-duracao"));
+        assertEquals(ids(porDuracao), ids(vistos));
+    }
+
+    @Test
+    void parametrosInvalidosDao400() throws Exception {
+        mockMvc.perform(get("/servicos/filtro").param("ordem", "nome")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/servicos/filtro").param("precoMin", "50").param("precoMax", "10")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/servicos/filtro").param("duracaoMax", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/servicos/filtro").param("after", "abc")).andExpect(status().isBadRequest());
+    }
+
+    private static List<Long> ids(List<Servico> servicos) {
+        return servicos.stream().map(Servico::getId).toList();
+    }
+}
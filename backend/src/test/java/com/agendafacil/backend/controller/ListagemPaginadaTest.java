@@ -0,0 +1,90 @@
+package com.agendafacil.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListagemPaginadaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Test
+    void paginacaoPorCursorPercorreTodosOsServicosLivres() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Paginada", "Paginada LTDA", "22222222000122",
+            "paginada@ltda.com", "3500000000", "senha"));
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            criados.add(servicoRepository.save(new Servico("Servico " + i, "Unhas", "Descricao", 45,
+                new BigDecimal("30.00"), empresa)).getId());
+        }
+
+        List<Long> vistos = new ArrayList<>();
+        String cursor = "";
+        do {
+            String json = mockMvc.perform(get("/servicos").param("limit", "3").param("after", cursor))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            JsonNode pagina = objectMapper.readTree(json);
+            assertTrue(pagina.get("itens").size() <= 3);
+            pagina.get("itens").forEach(item -> vistos.add(item.get("id").asLong()));
+            cursor = pagina.get("proximo").isNull() ? null : pagina.get("proximo").asText();
+        } while (cursor != null);
+
+        assertTrue(vistos.containsAll(criados));
+        assertEquals(vistos.stream().sorted().distinct().toList(), vistos);
+
+        MvcResult stream = mockMvc.perform(get("/servicos").param("formato", "ndjson")).andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(stream))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(NdjsonResponse.NDJSON))
+            .andReturn().getResponse().getContentAsString();
+        List<Long> linhas = new ArrayList<>();
+        for (String linha : ndjson.split("\n")) {
+            linhas.add(objectMapper.readTree(linha).get("id").asLong());
+        }
+        assertEquals(vistos, linhas);
+    }
+
+    @Test
+    void empresasPaginadasNaoExpoemSenhaNemServicos() throws Exception {
+        empresaRepository.save(new Empresa("Resumo", "Resumo LTDA", "33333333000133", "resumo@ltda.com", "", "senha"));
+
+        String json = mockMvc.perform(get("/empresas").param("limit", "500"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode primeira = objectMapper.readTree(json).get("itens").get(0);
+
+        assertTrue(primeira.has("razao_social"));
+        assertTrue(!primeira.has("senha") && !primeira.has("servicos"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.agendafacil.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+import com.agendafacil.backend.service.CatalogoServicos;
+import com.agendafacil.backend.service.ServicoService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RespostaCondicionalTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CatalogoServicos catalogoServicos;
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Empresa empresa;
+    private Empresa vizinha;
+
+    @BeforeEach
+    void preparar() {
+        long n = System.nanoTime();
+        empresa = empresaRepository.save(new Empresa("Etag", "Etag " + n + " LTDA", null, "etag" + n + "@ltda.com", "", "senha"));
+        vizinha = empresaRepository.save(new Empresa("Vizinha", "Vizinha " + n + " LTDA", null, "vizinha" + n + "@ltda.com", "", "senha"));
+        catalogoServicos.recarregar();
+    }
+
+    private Servico novoServico(String nome) {
+        return new Servico(nome, "Etag", "Descricao", 30, new BigDecimal("20.00"));
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+    }
+
+    private int statusCom(String url, String etag) throws Exception {
+        return mockMvc.perform(get(url).header("If-None-Match", etag)).andReturn().getResponse().getStatus();
+    }
+
+    @Test
+    void versaoIgualResponde304SemConsultarOBanco() throws Exception {
+        MockHttpServletResponse primeira = mockMvc.perform(get("/servicos")).andExpect(status().isOk()).andReturn().getResponse();
+        String etagCatalogo = primeira.getHeader("ETag");
+        assertTrue(primeira.getHeader("Cache-Control").contains("no-cache"));
+        assertTrue(primeira.getHeader("Cache-Control").contains("public"));
+        String etagEmpresa = etag("/empresas/" + empresa.getId());
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        MockHttpServletResponse catalogo = mockMvc.perform(get("/servicos").header("If-None-Match", etagCatalogo))
+            .andExpect(status().isNotModified()).andReturn().getResponse();
+        MockHttpServletResponse detalhe = mockMvc.perform(get("/empresas/{id}", empresa.getId()).header("If-None-Match", etagEmpresa))
+            .andExpect(status().isNotModified()).andReturn().getResponse();
+
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertEquals(0, catalogo.getContentLength());
+        assertEquals(1, catalogo.getHeaders("ETag").size());
+        assertTrue(detalhe.getHeader("Cache-Control").contains("private"));
+    }
+
+    @Test
+    void escritasTrocamSoAsVersoesAfetadas() throws Exception {
+        String urlEmpresa = "/empresas/" + empresa.getId();
+        String urlVizinha = "/empresas/" + vizinha.getId();
+        String etagCatalogo = etag("/servicos");
+        String etagEmpresa = etag(urlEmpresa);
+        String etagVizinha = etag(urlVizinha);
+
+        Long id = servicoService.cadastrar(novoServico("Cadastro"), empresa.getId()).getId();
+        assertEquals(200, statusCom("/servicos", etagCatalogo));
+        assertEquals(200, statusCom(urlEmpresa, etagEmpresa));
+        assertEquals(304, statusCom(urlVizinha, etagVizinha));
+
+        etagEmpresa = etag(urlEmpresa);
+        assertEquals(304, statusCom("/servicos/empresa/" + empresa.getId(), etag("/servicos/empresa/" + empresa.getId())));
+        User cliente = userRepository.save(new User("Cliente Etag", "cliente" + id + "@etag.com", "", "senha"));
+        servicoService.reservarServico(id, cliente.getId());
+        assertEquals(200, statusCom(urlEmpresa, etagEmpresa));
+
+        etagEmpresa = etag(urlEmpresa);
+        servicoService.deletar(id, empresa.getId());
+        assertEquals(200, statusCom(urlEmpresa, etagEmpresa));
+        assertEquals(304, statusCom(urlVizinha, etagVizinha));
+    }
+
+    @Test
+    void mudancaPorForaEntraNaRecargaCompleta() throws Exception {
+        String etagEmpresa = etag("/empresas/" + empresa.getId());
+        String etagVizinha = etag("/empresas/" + vizinha.getId());
+
+        Servico servico = novoServico("Por fora");
+        servico.setEmpresa(empresa);
+        servicoRepository.save(servico);
+        catalogoServicos.recarregar();
+
+        assertNotEquals(etagEmpresa, etag("/empresas/" + empresa.getId()));
+        assertEquals(etagVizinha, etag("/empresas/" + vizinha.getId()));
+    }
+}
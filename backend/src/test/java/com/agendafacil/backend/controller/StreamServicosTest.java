@@ -0,0 +1,138 @@
+package com.agendafacil.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.UserRepository;
+import com.agendafacil.backend.service.CentralEventosServicos;
+import com.agendafacil.backend.service.ServicoService;
+
+// Várias conexões SSE reais abertas ao mesmo tempo recebendo as escritas confirmadas
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StreamServicosTest {
+    private static final int DA_EMPRESA = 150;
+    private static final int GERAIS = 50;
+
+    @LocalServerPort
+    private int porta;
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private CentralEventosServicos centralEventos;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+    private final List<Leitor> leitores = new ArrayList<>();
+
+    // Guarda os nomes de evento ("event:criado") que chegam pela conexão, sem prender thread
+    static final class Leitor implements Flow.Subscriber<String> {
+        final List<String> eventos = new CopyOnWriteArrayList<>();
+        volatile boolean conectado;
+        volatile Flow.Subscription assinatura;
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            this.assinatura = assinatura;
+            assinatura.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String linha) {
+            if (linha.startsWith(":conectado")) {
+                conectado = true;
+            } else if (linha.startsWith("event:")) {
+                eventos.add(linha.substring("event:".length()));
+            }
+        }
+
+        @Override
+        public void onError(Throwable erro) {}
+
+        @Override
+        public void onComplete() {}
+    }
+
+    @AfterEach
+    void fechar() {
+        leitores.forEach(leitor -> leitor.assinatura.cancel());
+    }
+
+    private Leitor abrir(String query) {
+        Leitor leitor = new Leitor();
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/servicos/stream" + query))
+            .header("Accept", "text/event-stream")
+            .build();
+        CompletableFuture<HttpResponse<Void>> resposta = cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.fromLineSubscriber(leitor));
+        resposta.exceptionally(erro -> null);
+        leitores.add(leitor);
+        return leitor;
+    }
+
+    private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+        assertTrue(condicao.getAsBoolean());
+    }
+
+    @Test
+    void conexoesRecebemAsMudancasConfirmadas() throws Exception {
+        long n = System.nanoTime();
+        Empresa empresa = empresaRepository.save(new Empresa("Stream", "Stream " + n + " LTDA", null, "stream" + n + "@ltda.com", "", "senha"));
+        Empresa outra = empresaRepository.save(new Empresa("Outra", "Outra " + n + " LTDA", null, "outra" + n + "@ltda.com", "", "senha"));
+        int antes = centralEventos.estatisticas().assinantes();
+
+        List<Leitor> daEmpresa = new ArrayList<>();
+        for (int i = 0; i < DA_EMPRESA; i++) {
+            daEmpresa.add(abrir("?empresaId=" + empresa.getId()));
+        }
+        List<Leitor> gerais = new ArrayList<>();
+        for (int i = 0; i < GERAIS; i++) {
+            gerais.add(abrir(""));
+        }
+        esperar(() -> leitores.stream().allMatch(leitor -> leitor.conectado));
+        assertEquals(antes + DA_EMPRESA + GERAIS, centralEventos.estatisticas().assinantes());
+
+        Long id = servicoService.cadastrar(new Servico("Stream", "Cabelo", "Descricao", 30, new BigDecimal("20.00")), empresa.getId()).getId();
+        User cliente = userRepository.save(new User("Cliente Stream", "cliente" + n + "@stream.com", "", "senha"));
+        servicoService.reservarServico(id, cliente.getId());
+        servicoService.deletar(id, empresa.getId());
+        servicoService.cadastrar(new Servico("De outra", "Cabelo", "Descricao", 30, new BigDecimal("20.00")), outra.getId());
+
+        esperar(() -> daEmpresa.stream().allMatch(leitor -> leitor.eventos.size() >= 3)
+            && gerais.stream().allMatch(leitor -> leitor.eventos.size() >= 4));
+        for (Leitor leitor : daEmpresa) {
+            assertEquals(List.of("criado", "agendado", "removido"), leitor.eventos);
+        }
+        for (Leitor leitor : gerais) {
+            assertEquals(List.of("criado", "agendado", "removido", "criado"), leitor.eventos);
+        }
+    }
+}
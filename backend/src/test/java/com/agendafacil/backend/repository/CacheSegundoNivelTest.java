@@ -0,0 +1,87 @@
+package com.agendafacil.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.service.EmpresaService;
+import com.agendafacil.backend.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EmpresaService empresaService;
+
+    private Statistics estatisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void buscasRepetidasNaoVaoAoBanco() throws Exception {
+        long n = System.nanoTime();
+        String cnpj = String.format("%014d", n % 100_000_000_000_000L);
+        User user = userRepository.save(new User("Cache " + n, "cache" + n + "@email.com", "", "senha"));
+        Empresa empresa = empresaRepository.save(new Empresa("Cache", "Cache " + n + " LTDA", cnpj,
+            "cache" + n + "@ltda.com", "", "senha"));
+        // Primeira passada: o que ainda não estiver em cache vem do banco (usuários têm id
+        // por identity, e o Hibernate não põe no cache a linha recém-inserida)
+        userService.login(user.getEmail(), "senha");
+        empresaService.loginEmpresa(empresa.getEmail(), "senha");
+
+        Statistics estatisticas = estatisticas();
+        estatisticas.clear();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(user.getId(), userService.login(user.getEmail(), "senha").getId());
+            assertEquals(user.getId(), userService.findById(user.getId()).orElseThrow().getId());
+            assertEquals(empresa.getId(), empresaRepository.findByCnpj(cnpj).orElseThrow().getId());
+            assertEquals(empresa.getId(), empresaRepository.findById(empresa.getId()).orElseThrow().getId());
+            assertEquals(empresa.getId(), empresaService.loginEmpresa(empresa.getEmail(), "senha").getId());
+        }
+
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertEquals(6, estatisticas.getNaturalIdCacheHitCount());
+        assertEquals(3, estatisticas.getQueryCacheHitCount());
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() >= 12);
+    }
+
+    @Test
+    void alteracaoPeloHibernateAtualizaOCache() {
+        long n = System.nanoTime();
+        User user = userRepository.save(new User("Antes " + n, "antes" + n + "@email.com", "", "senha"));
+        userRepository.findByEmail(user.getEmail()).orElseThrow();
+
+        user.setNome_completo("Depois " + n);
+        user.setEmail("depois" + n + "@email.com");
+        userRepository.save(user);
+
+        assertTrue(userRepository.findByEmail("antes" + n + "@email.com").isEmpty());
+        assertEquals("Depois " + n, userRepository.findByEmail("depois" + n + "@email.com").orElseThrow().getNome_completo());
+        assertEquals("Depois " + n, userRepository.findById(user.getId()).orElseThrow().getNome_completo());
+
+        // Empresa nova com o mesmo email invalida o query cache do login
+        Empresa primeira = empresaRepository.save(new Empresa("Email", "Email " + n + " LTDA", null,
+            "email" + n + "@ltda.com", "", "senha1"));
+        assertEquals(primeira.getId(), empresaRepository.findByEmail(primeira.getEmail()).orElseThrow().getId());
+        primeira.setSenha("senha2");
+        empresaRepository.save(primeira);
+        assertEquals("senha2", empresaRepository.findByEmail(primeira.getEmail()).orElseThrow().getSenha());
+    }
+}
@@ -0,0 +1,104 @@
+package com.agendafacil.backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+
+// Roda EXPLAIN no SQL equivalente a cada finder e falha se o plano
+// precisar varrer a tabela inteira
+@SpringBootTest
+class IndicesConsultasTest {
+
+    private static final Map<String, String> FINDERS = new LinkedHashMap<>();
+
+    static {
+        FINDERS.put("ServicoRepository.findDisponiveisApos",
+            "select * from servicos where agendado = false and id > 10 order by id fetch first 50 rows only");
+        FINDERS.put("ServicoRepository.findFirstByNomeOrderByIdAsc",
+            "select * from servicos where nome = 'Corte'");
+        FINDERS.put("ServicoRepository.findDetalhesByEmpresaId",
+            "select s.id, u.nome_completo from servicos s left join usuarios u on u.id = s.usuario_agendado_id "
+                + "where s.empresa_id = 1 order by s.id");
+        FINDERS.put("ServicoRepository.filtrar (categoria)",
+            "select * from servicos where agendado = false and categoria = 'Cabelo' and preco >= 20 and preco <= 100 "
+                + "and duracao_minutos <= 60 order by preco, duracao_minutos, id fetch first 50 rows only");
+        FINDERS.put("ServicoRepository.filtrar (faixa de preço)",
+            "select * from servicos where agendado = false and preco <= 100 and duracao_minutos <= 60 "
+                + "order by preco, duracao_minutos, id fetch first 50 rows only");
+        FINDERS.put("ServicoRepository.filtrar (duração, com cursor)",
+            "select * from servicos where agendado = false and duracao_minutos >= 30 and (duracao_minutos > 30 "
+                + "or (duracao_minutos = 30 and (preco > 10 or (preco = 10 and id > 5)))) "
+                + "order by duracao_minutos, preco, id fetch first 50 rows only");
+        FINDERS.put("AgendamentoRepository.existsByServicoId",
+            "select 1 from agendamentos where servico_id = 1 fetch first 1 rows only");
+        FINDERS.put("EmpresaRepository.findByCnpj",
+            "select * from empresas where cnpj = '123456789000'");
+        FINDERS.put("EmpresaRepository.findByEmail",
+            "select * from empresas where email = 'teste@ltda.com'");
+        FINDERS.put("UserRepository.findByEmail",
+            "select * from usuarios where email = 'marcelo123@email.com'");
+        FINDERS.put("EventoSaidaRepository.reservarVencidos",
+            "select * from eventos_saida where proxima_tentativa <= current_timestamp "
+                + "order by proxima_tentativa, id fetch first 100 rows only");
+        FINDERS.put("PainelCategoriaRepository.findByEmpresaIdOrderByCategoria",
+            "select * from painel_categorias where empresa_id = 1 order by categoria");
+        FINDERS.put("PainelDiaRepository.findPeriodo",
+            "select * from painel_dias where empresa_id = 1 and dia between date '2026-01-01' and date '2026-01-31' "
+                + "order by dia, categoria");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+
+    @Test
+    void nenhumFinderFazVarreduraSequencial() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Indices", "Indices LTDA", "55555555000155",
+            "indices@ltda.com", "", "senha"));
+        for (int i = 0; i < 200; i++) {
+            servicoRepository.save(new Servico("Servico " + i, "Categoria " + (i % 10), "Descricao", 30,
+                new BigDecimal("10.00"), empresa));
+        }
+
+        try (Connection conexao = dataSource.getConnection(); Statement stmt = conexao.createStatement()) {
+            boolean postgres = conexao.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+            if (postgres) {
+                // Em tabelas pequenas o Postgres prefere seq scan; desliga para ver se existe índice
+                stmt.execute("set enable_seqscan = off");
+            }
+            String varredura = postgres ? "Seq Scan" : "tableScan";
+
+            for (Map.Entry<String, String> finder : FINDERS.entrySet()) {
+                String plano = explicar(stmt, finder.getValue());
+                assertFalse(plano.contains(varredura), finder.getKey() + " sem índice:\n" + plano);
+            }
+        }
+    }
+
+    private String explicar(Statement stmt, String sql) throws Exception {
+        StringBuilder plano = new StringBuilder();
+        try (ResultSet rs = stmt.executeQuery("explain " + sql)) {
+            while (rs.next()) {
+                plano.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plano.toString();
+    }
+}
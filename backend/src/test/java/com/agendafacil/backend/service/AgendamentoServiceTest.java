@@ -0,0 +1,167 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.DTO.AgendamentoDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+@SpringBootTest
+class AgendamentoServiceTest {
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private static final AtomicInteger sequencia = new AtomicInteger();
+    private final LocalDate dia = LocalDate.now().plusDays(7);
+    private Long empresaId;
+    private Long corte;
+    private Long escova;
+    private Long cliente;
+
+    @BeforeEach
+    void criarAgenda() {
+        int n = sequencia.incrementAndGet();
+        Empresa empresa = empresaRepository.save(new Empresa("Agenda " + n, "Agenda " + n + " LTDA", String.format("5550%010d", n),
+            "agenda" + n + "@ltda.com", "", "senha"));
+        empresaId = empresa.getId();
+        corte = servicoRepository.save(new Servico("Corte", "Cabelo", "Corte", 30, new BigDecimal("40.00"), empresa)).getId();
+        escova = servicoRepository.save(new Servico("Escova", "Cabelo", "Escova", 60, new BigDecimal("60.00"), empresa)).getId();
+        cliente = userRepository.save(new User("Cliente", "cliente" + n + "@agenda.com", "", "senha")).getId();
+    }
+
+    private AgendamentoDTO pedido(Long servicoId, LocalDateTime inicio) {
+        AgendamentoDTO dto = new AgendamentoDTO();
+        dto.setServicoId(servicoId);
+        dto.setUserId(cliente);
+        dto.setInicio(inicio);
+        return dto;
+    }
+
+    @Test
+    void horarioSobrepostoDaConflito() {
+        AgendamentoDTO criado = agendamentoService.agendar(pedido(escova, dia.atTime(10, 0)));
+        assertEquals(dia.atTime(11, 0), criado.getFim());
+
+        ResponseStatusException conflito = assertThrows(ResponseStatusException.class,
+            () -> agendamentoService.agendar(pedido(corte, dia.atTime(10, 30))));
+        assertEquals(HttpStatus.CONFLICT, conflito.getStatusCode());
+
+        // Encostado no fim do anterior não sobrepõe
+        agendamentoService.agendar(pedido(corte, dia.atTime(11, 0)));
+    }
+
+    @Test
+    void horariosLivresIgnoramOcupadosEForaDoExpediente() {
+        agendamentoService.agendar(pedido(escova, dia.atTime(9, 0)));
+
+        List<LocalDateTime> livres = agendamentoService.horariosLivres(corte, dia, dia);
+
+        assertEquals(dia.atTime(8, 0), livres.get(0));
+        assertTrue(livres.contains(dia.atTime(8, 30)));
+        assertFalse(livres.contains(dia.atTime(8, 45)));
+        assertFalse(livres.contains(dia.atTime(9, 30)));
+        assertTrue(livres.contains(dia.atTime(10, 0)));
+        assertEquals(dia.atTime(17, 30), livres.get(livres.size() - 1));
+    }
+
+    @Test
+    void proximoHorarioLivrePulaOsOcupados() {
+        agendamentoService.agendar(pedido(corte, dia.atTime(8, 0)));
+        agendamentoService.agendar(pedido(corte, dia.atTime(9, 0)));
+
+        // Entre 08:30 e 09:00 cabe um corte, mas não uma escova
+        assertEquals(dia.atTime(8, 30), agendamentoService.proximoHorarioLivre(corte, dia.atTime(7, 0)));
+        assertEquals(dia.atTime(9, 30), agendamentoService.proximoHorarioLivre(escova, dia.atTime(7, 0)));
+    }
+
+    @Test
+    void horarioDesalinhadoOuForaDoExpedienteEhRecusado() {
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+            () -> agendamentoService.agendar(pedido(corte, dia.atTime(10, 10)))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+            () -> agendamentoService.agendar(pedido(escova, dia.atTime(17, 30)))).getStatusCode());
+    }
+
+    @Test
+    void agendamentosConcorrentesSobrepostosTemUmVencedor() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger vitorias = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        List<LocalDateTime> inicios = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            // Todos os pedidos cobrem 14:45; alguns começam em horários diferentes
+            LocalDateTime inicio = dia.atTime(14, 0).plusMinutes(15L * (t % 4));
+            inicios.add(inicio);
+            executor.submit(() -> {
+                largada.await();
+                try {
+                    agendamentoService.agendar(pedido(escova, inicio));
+                    vitorias.incrementAndGet();
+                } catch (ResponseStatusException e) {
+                    if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                        conflitos.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        assertEquals(1, vitorias.get());
+        assertEquals(threads - 1, conflitos.get());
+        List<LocalDateTime> livres = agendamentoService.horariosLivres(escova, dia, dia);
+        assertTrue(inicios.stream().noneMatch(livres::contains));
+    }
+
+    @Test
+    void servicoComAgendamentoNaoEApagado() {
+        agendamentoService.agendar(pedido(corte, dia.atTime(9, 0)));
+
+        ResponseStatusException conflito = assertThrows(ResponseStatusException.class, () -> servicoService.deletar(corte, empresaId));
+        assertEquals(HttpStatus.CONFLICT, conflito.getStatusCode());
+        assertTrue(servicoRepository.existsById(corte));
+
+        // Sem agendamento o serviço sai normalmente
+        servicoService.deletar(escova, empresaId);
+        assertFalse(servicoRepository.existsById(escova));
+    }
+}
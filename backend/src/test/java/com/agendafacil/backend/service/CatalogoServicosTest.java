@@ -0,0 +1,118 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.agendafacil.backend.DTO.ServicoDetalheDTO;
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class CatalogoServicosTest {
+
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private CatalogoServicos catalogoServicos;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Empresa empresa;
+
+    @BeforeEach
+    void preparar() {
+        // Outros testes gravam direto pelo repositório; parte de um catálogo em dia com o banco
+        catalogoServicos.recarregar();
+        long n = System.nanoTime();
+        empresa = empresaRepository.save(new Empresa("Catalogo", "Catalogo " + n + " LTDA", null, "catalogo@ltda.com", "", "senha"));
+    }
+
+    private Servico novoServico(String nome) {
+        return new Servico(nome, "Catalogo-" + empresa.getId(), "Descricao", 30, new BigDecimal("20.00"));
+    }
+
+    private static boolean contem(List<ServicoResumoDTO> lista, Long id) {
+        return lista.stream().anyMatch(servico -> servico.getId().equals(id));
+    }
+
+    private static boolean contemDetalhe(List<ServicoDetalheDTO> lista, Long id) {
+        return lista.stream().anyMatch(servico -> servico.getId().equals(id));
+    }
+
+    @Test
+    void escritasConfirmadasAparecemNoCatalogo() {
+        String categoria = "Catalogo-" + empresa.getId();
+        Long id = servicoService.cadastrar(novoServico("Hidratacao"), empresa.getId()).getId();
+
+        assertTrue(contem(servicoService.findAll(), id));
+        assertTrue(contem(servicoService.findByCategoria(categoria), id));
+        assertTrue(contemDetalhe(servicoService.findByEmpresaId(empresa.getId()), id));
+
+        User cliente = userRepository.save(new User("Cliente Catalogo", "cliente" + id + "@catalogo.com", "", "senha"));
+        servicoService.reservarServico(id, cliente.getId());
+
+        assertFalse(contem(servicoService.findAll(), id));
+        ServicoDetalheDTO detalhe = servicoService.findByEmpresaId(empresa.getId()).get(0);
+        assertTrue(detalhe.isAgendado());
+        assertEquals("Cliente Catalogo", detalhe.getUsuarioAgendadoNome());
+
+        servicoService.deletar(id, empresa.getId());
+        assertFalse(contem(servicoService.findByCategoria(categoria), id));
+        assertTrue(servicoService.findByEmpresaId(empresa.getId()).isEmpty());
+    }
+
+    @Test
+    void escritaDesfeitaNaoApareceNoCatalogo() {
+        Long id = transactionTemplate.execute(status -> {
+            Long criado = servicoService.cadastrar(novoServico("Desfeito"), empresa.getId()).getId();
+            status.setRollbackOnly();
+            return criado;
+        });
+
+        assertFalse(contem(servicoService.findAll(), id));
+        assertTrue(servicoService.findByEmpresaId(empresa.getId()).isEmpty());
+    }
+
+    @Test
+    void leiturasNaoVaoAoBanco() {
+        servicoService.cadastrar(novoServico("Sem consulta"), empresa.getId());
+        long atualizacoes = catalogoServicos.estatisticas().atualizacoes();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        for (int i = 0; i < 100; i++) {
+            servicoService.findAll();
+            servicoService.findByCategoria("Catalogo-" + empresa.getId());
+            servicoService.findByEmpresaId(empresa.getId());
+        }
+
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        CatalogoServicos.Estatisticas catalogo = catalogoServicos.estatisticas();
+        assertEquals(atualizacoes, catalogo.atualizacoes());
+        assertTrue(catalogo.servicos() > 0 && catalogo.bytesEstimados() > 0);
+    }
+}
@@ -0,0 +1,178 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import com.agendafacil.backend.DTO.EventoServicoDTO;
+import com.agendafacil.backend.event.CatalogoAtualizadoEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CentralEventosServicosTest {
+
+    private final CentralEventosServicos central = new CentralEventosServicos(new ObjectMapper(), null, 4, 20000,
+        Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @AfterEach
+    void encerrar() {
+        central.encerrar();
+    }
+
+    private void publicar(Long empresaId, long servicoId) {
+        central.aoAtualizarCatalogo(new CatalogoAtualizadoEvent(
+            List.of(new EventoServicoDTO(EventoServicoDTO.CRIADO, servicoId, empresaId, null))));
+    }
+
+    // O texto do evento SSE ("id:...\nevent:criado\ndata:{...}") junto num só
+    private static String texto(Set<DataWithMediaType> evento) {
+        StringBuilder texto = new StringBuilder();
+        evento.forEach(parte -> texto.append(parte.getData()));
+        return texto.toString();
+    }
+
+    private static void esperar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicao.getAsBoolean());
+    }
+
+    @Test
+    void clienteLentoPerdeOsEventosMaisAntigos() throws Exception {
+        CountDownLatch entrou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<String> recebidos = new CopyOnWriteArrayList<>();
+        CentralEventosServicos.Assinante lento = central.inscrever(1L, evento -> {
+            entrou.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            recebidos.add(texto(evento));
+        });
+
+        publicar(1L, 1);
+        assertTrue(entrou.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 10; id++) {
+            publicar(1L, id);
+        }
+        liberar.countDown();
+        esperar(() -> recebidos.size() == 5);
+
+        // O primeiro já estava saindo; da fila (capacidade 4) sobram os quatro últimos
+        assertEquals(5, lento.descartados());
+        assertTrue(recebidos.get(0).contains("\"servicoId\":1,"));
+        for (int i = 1; i < 5; i++) {
+            assertTrue(recebidos.get(i).contains("\"servicoId\":" + (6 + i) + ","), recebidos.get(i));
+        }
+        assertEquals(5, central.estatisticas().descartados());
+    }
+
+    @Test
+    void assinanteComEmpresaSoRecebeEventosDela() throws Exception {
+        List<String> daEmpresa = new CopyOnWriteArrayList<>();
+        List<String> geral = new CopyOnWriteArrayList<>();
+        central.inscrever(1L, evento -> daEmpresa.add(texto(evento)));
+        central.inscrever(null, evento -> geral.add(texto(evento)));
+
+        publicar(1L, 100);
+        publicar(2L, 200);
+        publicar(1L, 101);
+        esperar(() -> geral.size() == 3 && daEmpresa.size() == 2);
+
+        assertTrue(daEmpresa.get(0).contains("\"servicoId\":100,"));
+        assertTrue(daEmpresa.get(1).contains("\"servicoId\":101,"));
+        assertTrue(daEmpresa.get(1).contains("event:criado"));
+    }
+
+    @Test
+    void envioTravadoNaoSeguraOsOutrosEFechaAConexao() throws Exception {
+        CentralEventosServicos comPrazo = new CentralEventosServicos(new ObjectMapper(), null, 4, 20000,
+            Duration.ofMillis(200), Duration.ofMinutes(1), Duration.ofMinutes(1));
+        // Mais travados que núcleos: com threads de plataforma fixas ninguém mais receberia
+        int parados = Runtime.getRuntime().availableProcessors() + 2;
+        CountDownLatch encerrados = new CountDownLatch(parados);
+        CountDownLatch liberar = new CountDownLatch(1);
+        for (int i = 0; i < parados; i++) {
+            comPrazo.inscrever(1L, new CentralEventosServicos.Envio() {
+                @Override
+                public void enviar(Set<DataWithMediaType> evento) throws IOException {
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void encerrar() {
+                    encerrados.countDown();
+                }
+            });
+        }
+        List<String> recebidos = new CopyOnWriteArrayList<>();
+        comPrazo.inscrever(1L, evento -> recebidos.add(texto(evento)));
+
+        for (long id = 1; id <= 3; id++) {
+            comPrazo.aoAtualizarCatalogo(new CatalogoAtualizadoEvent(
+                List.of(new EventoServicoDTO(EventoServicoDTO.CRIADO, id, 1L, null))));
+        }
+        esperar(() -> recebidos.size() == 3);
+        assertTrue(encerrados.await(5, TimeUnit.SECONDS));
+        assertEquals(parados, comPrazo.estatisticas().travados());
+        assertEquals(1, comPrazo.estatisticas().assinantes());
+        liberar.countDown();
+        comPrazo.encerrar();
+    }
+
+    @Test
+    void milharesDeAssinantesEmThreadsVirtuais() throws Exception {
+        int quantidade = 10_000;
+        int eventos = 20;
+        // Fila maior que a rajada: nada pode ser descartado
+        CentralEventosServicos grande = new CentralEventosServicos(new ObjectMapper(), null, 32, 20000,
+            Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1));
+        AtomicInteger entregas = new AtomicInteger();
+        AtomicInteger foraDeVirtual = new AtomicInteger();
+        List<CentralEventosServicos.Assinante> assinantes = new ArrayList<>();
+        IntStream.range(0, quantidade).forEach(i ->
+            assinantes.add(grande.inscrever(i % 2 == 0 ? null : (long) (i % 10), evento -> {
+                if (!Thread.currentThread().isVirtual()) {
+                    foraDeVirtual.incrementAndGet();
+                }
+                entregas.incrementAndGet();
+            })));
+        assertEquals(quantidade, grande.estatisticas().assinantes());
+
+        for (int e = 0; e < eventos; e++) {
+            grande.aoAtualizarCatalogo(new CatalogoAtualizadoEvent(
+                List.of(new EventoServicoDTO(EventoServicoDTO.CRIADO, (long) e, (long) (e % 10), null))));
+        }
+        // Metade recebe tudo; a outra metade fica em 5 empresas (1000 cada) e recebe 10 eventos por empresa
+        int esperadas = quantidade / 2 * eventos + quantidade / 2 / 5 * (eventos / 2);
+        esperar(() -> entregas.get() == esperadas);
+        assertEquals(0, grande.estatisticas().descartados());
+        assertEquals(0, foraDeVirtual.get());
+
+        assinantes.forEach(grande::remover);
+        assertEquals(0, grande.estatisticas().assinantes());
+        grande.encerrar();
+    }
+}
@@ -0,0 +1,171 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.sun.net.httpserver.HttpServer;
+
+class ConsultarCnpjAPITest {
+
+    private HttpServer servidor;
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private volatile long atrasoMs = 0;
+    private volatile int status = 200;
+
+    @BeforeEach
+    void subirStub() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/api/cnpj/v1/", exchange -> {
+            chamadas.incrementAndGet();
+            try {
+                Thread.sleep(atrasoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String cnpj = exchange.getRequestURI().getPath().replace("/api/cnpj/v1/", "");
+            byte[] corpo = ("{\"cnpj\":\"" + cnpj + "\",\"razao_social\":\"Empresa " + cnpj + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, corpo.length);
+            exchange.getResponseBody().write(corpo);
+            exchange.close();
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void derrubarStub() {
+        servidor.stop(0);
+    }
+
+    private ConsultarCnpjAPI criarApi(Duration timeoutLeitura) {
+        String url = "http://localhost:" + servidor.getAddress().getPort() + "/api/cnpj/v1/";
+        return new ConsultarCnpjAPI(url, Duration.ofSeconds(1), timeoutLeitura,
+            Duration.ofMinutes(5), 100, 4, Duration.ofMillis(100));
+    }
+
+    @Test
+    void consultaRepetidaUsaCache() {
+        ConsultarCnpjAPI api = criarApi(Duration.ofSeconds(2));
+
+        Map<String, Object> primeira = api.buscarCnpj("123");
+        Map<String, Object> segunda = api.buscarCnpj("123");
+
+        assertEquals("Empresa 123", primeira.get("razao_social"));
+        assertEquals(primeira, segunda);
+        assertEquals(1, chamadas.get());
+        assertEquals(1, api.estatisticas().acertos());
+        assertEquals(1, api.estatisticas().ausencias());
+        assertEquals(1, api.estatisticas().chamadasExternas());
+    }
+
+    @Test
+    void consultasConcorrentesDoMesmoCnpjFazemUmaChamada() throws Exception {
+        atrasoMs = 200;
+        ConsultarCnpjAPI api = criarApi(Duration.ofSeconds(2));
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Map<String, Object>>> resultados = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return api.buscarCnpj("456");
+            }));
+        }
+        largada.countDown();
+        for (Future<Map<String, Object>> resultado : resultados) {
+            assertEquals("Empresa 456", resultado.get().get("razao_social"));
+        }
+        executor.shutdown();
+
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void timeoutDeLeituraViraErroENaoFicaNoCache() throws InterruptedException {
+        atrasoMs = 500;
+        ConsultarCnpjAPI api = criarApi(Duration.ofMillis(100));
+
+        assertThrows(IllegalArgumentException.class, () -> api.buscarCnpj("789"));
+        Thread.sleep(600); // deixa o stub terminar a resposta atrasada
+
+        atrasoMs = 0;
+        assertEquals("Empresa 789", api.buscarCnpj("789").get("razao_social"));
+        assertEquals(2, chamadas.get());
+        assertEquals(1, api.estatisticas().errosExternos());
+    }
+
+    @Test
+    void erroDaApiNaoFicaNoCache() {
+        status = 404;
+        ConsultarCnpjAPI api = criarApi(Duration.ofSeconds(2));
+        assertThrows(IllegalArgumentException.class, () -> api.buscarCnpj("000"));
+
+        status = 200;
+        assertEquals("Empresa 000", api.buscarCnpj("000").get("razao_social"));
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void bulkheadRejeitaChamadasAlemDoLimite() throws Exception {
+        atrasoMs = 500;
+        ConsultarCnpjAPI api = criarApi(Duration.ofSeconds(2));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            String cnpj = "10" + i;
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    api.buscarCnpj(cnpj);
+                    return 200;
+                } catch (ResponseStatusException e) {
+                    return e.getStatusCode().value();
+                }
+            }));
+        }
+        largada.countDown();
+        int sucesso = 0;
+        int rejeitadas = 0;
+        for (Future<Integer> resultado : resultados) {
+            if (resultado.get() == 200) {
+                sucesso++;
+            } else if (resultado.get() == 503) {
+                rejeitadas++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(4, sucesso);
+        assertEquals(4, rejeitadas);
+        assertEquals(4, api.estatisticas().rejeitadas());
+        // As recusadas não chegaram à BrasilAPI: ficam fora da base da latência média
+        assertEquals(8, api.estatisticas().ausencias());
+        assertEquals(4, api.estatisticas().chamadasExternas());
+        assertTrue(api.estatisticas().latenciaMediaMs() >= 500, "latência média: " + api.estatisticas().latenciaMediaMs());
+    }
+}
@@ -0,0 +1,71 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EmpresaDetalheConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CatalogoServicos catalogoServicos;
+
+    @Test
+    void detalheDaEmpresaUsaNumeroFixoDeConsultas() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Detalhe", "Detalhe LTDA", "44444444000144",
+            "detalhe@ltda.com", "3500000000", "senhaEmpresa"));
+        for (int i = 0; i < 10; i++) {
+            Servico servico = new Servico("Servico " + i, "Barba", "Descricao", 20, new BigDecimal("25.00"), empresa);
+            if (i % 2 == 0) {
+                servico.setAgendado(true);
+                servico.setUsuarioAgendado(userRepository.save(
+                    new User("Cliente " + i, "detalhe" + i + "@cliente.com", "", "senhaCliente")));
+            }
+            servicoRepository.save(servico);
+        }
+
+        // A ETag vem do catálogo em memória; carregado antes, sobram só as consultas do detalhe
+        catalogoServicos.recarregar();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        String json = mockMvc.perform(get("/empresas/" + empresa.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+        assertFalse(json.contains("senha"));
+    }
+}
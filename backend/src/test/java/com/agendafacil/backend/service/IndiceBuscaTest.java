@@ -0,0 +1,130 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.agendafacil.backend.DTO.ServicoResumoDTO;
+
+class IndiceBuscaTest {
+
+    private IndiceBusca indice;
+
+    private static ServicoResumoDTO servico(long id, String nome, String categoria, String descricao) {
+        return new ServicoResumoDTO(id, nome, categoria, descricao, 30, new BigDecimal("30.00"), false, 1L);
+    }
+
+    private static List<Long> ids(List<ServicoResumoDTO> servicos) {
+        return servicos.stream().map(ServicoResumoDTO::getId).toList();
+    }
+
+    @BeforeEach
+    void indexar() {
+        indice = IndiceBusca.construir(List.of(
+            servico(1, "Corte Masculino", "Cabelo", "Corte com máquina e tesoura"),
+            servico(2, "Escova Progressiva", "Cabelo", "Alisamento com escova"),
+            servico(3, "Manicure e Pés", "Unhas", "Cutilagem e esmaltação das mãos"),
+            servico(4, "Hidratação", "Cabelo", "Hidratação após o corte"),
+            servico(5, "Depilação", "Estética", "Depilação com cera")));
+    }
+
+    @Test
+    void ignoraAcentoPluralEMaiusculas() {
+        assertEquals(List.of(3L), ids(indice.buscar("MAO ", 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("pé manicure ", 10)));
+        assertEquals(List.of(4L), ids(indice.buscar("hidratacao ", 10)));
+    }
+
+    @Test
+    void nomePesaMaisQueDescricao() {
+        assertEquals(List.of(1L, 4L), ids(indice.buscar("cortes ", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("corte maquina ", 10)));
+    }
+
+    @Test
+    void ultimoTermoValeComoPrefixo() {
+        assertEquals(List.of(5L), ids(indice.buscar("depil", 10)));
+        assertEquals(List.of(5L), ids(indice.buscar("de", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("escova prog", 10)));
+        assertEquals(List.of("Escova Progressiva"), indice.sugerir("esc", 5));
+        assertTrue(indice.buscar("de ", 10).isEmpty());
+    }
+
+    @Test
+    void atualizacaoIncrementalTiraReservadosEIndexaNovos() {
+        ServicoResumoDTO reservado = servico(1, "Corte Masculino", "Cabelo", "Corte com máquina e tesoura");
+        reservado.setAgendado(true);
+        IndiceBusca atualizado = indice.atualizar(List.of(1L, 6L),
+            List.of(reservado, servico(6, "Corte Infantil", "Cabelo", "Corte para crianças")));
+
+        assertEquals(List.of(6L, 4L), ids(atualizado.buscar("corte", 10)));
+        assertEquals(5, atualizado.tamanho());
+        // Quem ainda lê o índice anterior continua vendo o catálogo de antes
+        assertEquals(List.of(1L, 4L), ids(indice.buscar("corte", 10)));
+        assertEquals(5, indice.tamanho());
+    }
+
+    @Test
+    void compactarNaoMudaResultadoERebasearGuardaOQueMudouNoMeio() {
+        ServicoResumoDTO reservado = servico(1, "Corte Masculino", "Cabelo", "Corte com máquina e tesoura");
+        reservado.setAgendado(true);
+        IndiceBusca origem = indice.atualizar(List.of(1L, 6L),
+            List.of(reservado, servico(6, "Corte Infantil", "Cabelo", "Corte para crianças")));
+        IndiceBusca compactado = origem.compactar();
+        assertEquals(ids(origem.buscar("corte", 10)), ids(compactado.buscar("corte", 10)));
+        assertEquals(5, compactado.tamanho());
+
+        // Enquanto a compactação rodava, o 6 foi reservado e o 7 cadastrado
+        ServicoResumoDTO seisReservado = servico(6, "Corte Infantil", "Cabelo", "Corte para crianças");
+        seisReservado.setAgendado(true);
+        IndiceBusca depois = origem.atualizar(List.of(6L, 7L),
+            List.of(seisReservado, servico(7, "Corte Feminino", "Cabelo", "Corte e escova")));
+        IndiceBusca rebaseado = depois.rebasear(origem, compactado);
+        assertEquals(List.of(7L, 4L), ids(rebaseado.buscar("corte", 10)));
+        assertEquals(ids(depois.buscar("escova", 10)), ids(rebaseado.buscar("escova", 10)));
+        assertEquals(5, rebaseado.tamanho());
+
+        // Recarga completa no meio: a compactação é de outra base e fica de fora
+        IndiceBusca recarregado = IndiceBusca.construir(List.of(servico(8, "Barba", "Barbearia", "Navalha")));
+        assertSame(recarregado, recarregado.rebasear(origem, compactado));
+    }
+
+    @Test
+    void atualizacoesEmSequenciaDaoOMesmoQueReconstruir() {
+        String[] nomes = { "Corte", "Escova", "Manicure", "Pedicure", "Depilação", "Barba" };
+        Random aleatorio = new Random(3);
+        Map<Long, ServicoResumoDTO> livres = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            livres.put(id, servico(id, nomes[(int) (id % nomes.length)] + " " + id, "Cabelo", "Atendimento " + (id % 7)));
+        }
+        IndiceBusca incremental = IndiceBusca.construir(livres.values());
+        for (int rodada = 0; rodada < 200; rodada++) {
+            long id = 1 + aleatorio.nextInt(400);
+            ServicoResumoDTO novo = servico(id, nomes[aleatorio.nextInt(nomes.length)] + " novo", "Unhas", "Atendimento " + rodada % 7);
+            novo.setAgendado(aleatorio.nextInt(3) == 0);
+            if (novo.isAgendado()) {
+                livres.remove(id);
+            } else {
+                livres.put(id, novo);
+            }
+            incremental = incremental.atualizar(List.of(id), List.of(novo));
+            if (rodada == 120) {
+                incremental = incremental.compactar();
+            }
+        }
+        IndiceBusca reconstruido = IndiceBusca.construir(livres.values());
+        assertEquals(reconstruido.tamanho(), incremental.tamanho());
+        for (String consulta : List.of("corte", "novo ", "atendimento 3 ", "unha", "ped")) {
+            assertEquals(ids(reconstruido.buscar(consulta, 50)), ids(incremental.buscar(consulta, 50)), consulta);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class ListaPorIdTest {
+
+    private static ListaPorId<Long> lista(Collection<Long> ids) {
+        return ListaPorId.de(List.copyOf(ids), Long::longValue);
+    }
+
+    @Test
+    void substituirMantemOrdemEmMuitosBlocos() {
+        Random aleatorio = new Random(7);
+        TreeSet<Long> esperado = new TreeSet<>();
+        for (long id = 1; id <= 5000; id++) {
+            esperado.add(id * 2);
+        }
+        ListaPorId<Long> lista = lista(esperado);
+        for (int rodada = 0; rodada < 300; rodada++) {
+            List<Long> removidos = new ArrayList<>();
+            List<Long> novos = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                long id = aleatorio.nextInt(12_000);
+                if (aleatorio.nextBoolean()) {
+                    removidos.add(id);
+                    esperado.remove(id);
+                } else if (!removidos.contains(id) && !novos.contains(id)) {
+                    novos.add(id);
+                }
+            }
+            esperado.addAll(novos);
+            lista = lista.substituir(removidos, novos);
+        }
+        assertEquals(List.copyOf(esperado), lista);
+        assertEquals(esperado.size(), lista.size());
+        assertEquals(esperado.first(), lista.get(0));
+        assertEquals(esperado.last(), lista.get(lista.size() - 1));
+    }
+
+    @Test
+    void versaoAnteriorNaoMuda() {
+        ListaPorId<Long> antes = lista(List.of(1L, 2L, 3L));
+        ListaPorId<Long> depois = antes.substituir(List.of(2L), List.of(0L, 4L));
+
+        assertEquals(List.of(1L, 2L, 3L), antes);
+        assertEquals(List.of(0L, 1L, 3L, 4L), depois);
+        assertEquals(List.of(), depois.substituir(List.of(0L, 1L, 3L, 4L), List.of()));
+        assertSame(depois, depois.substituir(List.of(), List.of()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class MapaFatiadoTest {
+
+    @Test
+    void comAlteraSoOMapaNovo() {
+        Map<Long, String> entradas = new HashMap<>();
+        for (long id = 0; id < 10_000; id++) {
+            entradas.put(id, "v" + id);
+        }
+        MapaFatiado<Long, String> antes = MapaFatiado.de(entradas);
+        Map<Long, String> alteracoes = new HashMap<>();
+        alteracoes.put(5L, null);
+        alteracoes.put(6L, "novo");
+        alteracoes.put(20_000L, "extra");
+        alteracoes.put(-1L, null);
+        MapaFatiado<Long, String> depois = antes.com(alteracoes);
+
+        assertEquals(10_000, antes.size());
+        assertEquals("v5", antes.get(5L));
+        assertEquals(10_000, depois.size());
+        assertNull(depois.get(5L));
+        assertFalse(depois.containsKey(5L));
+        assertEquals("novo", depois.get(6L));
+        assertEquals("extra", depois.getOrDefault(20_000L, "nada"));
+        assertEquals(10_000, depois.entrySet().stream().count());
+        entradas.remove(5L);
+        entradas.putAll(Map.of(6L, "novo", 20_000L, "extra"));
+        assertEquals(entradas, depois);
+    }
+}
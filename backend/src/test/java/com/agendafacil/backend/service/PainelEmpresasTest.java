@@ -0,0 +1,152 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.agendafacil.backend.DTO.PainelEmpresaDTO;
+import com.agendafacil.backend.DTO.ServicoDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+@SpringBootTest
+class PainelEmpresasTest {
+
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private EmpresaService empresaService;
+    @Autowired
+    private ReconciliacaoPainel reconciliacao;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Empresa empresa(String nome) {
+        long n = System.nanoTime();
+        return empresaRepository.save(new Empresa(nome, nome + " " + n + " LTDA", null, "painel" + n + "@ltda.com", "", "senha"));
+    }
+
+    private Long usuario() {
+        long n = System.nanoTime();
+        return userRepository.save(new User("Cliente " + n, "painel" + n + "@email.com", "", "senha")).getId();
+    }
+
+    private Long cadastrar(Empresa empresa, String categoria, int duracao, String preco) {
+        return servicoService.cadastrar(new Servico("Serviço", categoria, "Descrição", duracao, new BigDecimal(preco)),
+            empresa.getId()).getId();
+    }
+
+    private static PainelEmpresaDTO.Categoria categoria(PainelEmpresaDTO painel, String nome) {
+        return painel.getCategorias().stream().filter(c -> c.categoria().equals(nome)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void cadastroReservaERemocaoAtualizamOsTotais() {
+        Empresa empresa = empresa("Painel");
+        Long corte = cadastrar(empresa, "Cabelo", 30, "40.00");
+        Long escova = cadastrar(empresa, "Cabelo", 45, "60.00");
+        cadastrar(empresa, "Unhas", 60, "35.50");
+        Long barba = cadastrar(empresa, "Barba", 20, "25.00");
+        ServicoDTO lote = new ServicoDTO();
+        lote.setNome("Manicure");
+        lote.setCategoria("Unhas");
+        lote.setDescricao("Simples");
+        lote.setDuracao_minutos(40);
+        lote.setPreco(new BigDecimal("30.00"));
+        lote.setEmpresaId(empresa.getId());
+        servicoService.cadastrarLote(List.of(lote, lote));
+
+        servicoService.reservarServico(corte, usuario());
+        servicoService.reservarServico(escova, usuario());
+        servicoService.reservarServico(barba, usuario());
+        servicoService.deletar(barba, empresa.getId());
+
+        PainelEmpresaDTO painel = empresaService.painel(empresa.getId(), null, null);
+        assertEquals(List.of("Cabelo", "Unhas"), painel.getCategorias().stream().map(PainelEmpresaDTO.Categoria::categoria).toList());
+        assertEquals(new PainelEmpresaDTO.Categoria("Cabelo", 2, 2, new BigDecimal("100.00"), 75), categoria(painel, "Cabelo"));
+        assertEquals(new PainelEmpresaDTO.Categoria("Unhas", 3, 0, new BigDecimal("0.00"), 0), categoria(painel, "Unhas"));
+        assertEquals(5, painel.getServicos());
+        assertEquals(2, painel.getReservas());
+        assertEquals(0, new BigDecimal("100").compareTo(painel.getReceita()));
+        assertEquals(75, painel.getMinutos());
+        assertEquals(List.of(new PainelEmpresaDTO.Dia(LocalDate.now(), "Cabelo", 2, new BigDecimal("100.00"), 75)), painel.getDias());
+
+        // Os incrementos batem com o recálculo a partir de servicos
+        assertFalse(reconciliacao.reconciliar(empresa.getId()));
+        assertEquals(painel, empresaService.painel(empresa.getId(), null, null));
+        assertTrue(empresaService.painel(empresa.getId(), LocalDate.now().minusDays(10), LocalDate.now().minusDays(1)).getDias().isEmpty());
+    }
+
+    @Test
+    void reservasConcorrentesSomamTodas() throws Exception {
+        Empresa empresa = empresa("Concorrente");
+        List<Long> servicos = new ArrayList<>();
+        List<Long> usuarios = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            servicos.add(cadastrar(empresa, "Cabelo", 30, "40.00"));
+            usuarios.add(usuario());
+        }
+
+        // Todas as reservas caem na mesma linha de categoria e na mesma linha do dia, que ainda não existe
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> reservas = new ArrayList<>();
+        for (int i = 0; i < servicos.size(); i++) {
+            Long servico = servicos.get(i);
+            Long usuario = usuarios.get(i);
+            reservas.add(executor.submit(() -> {
+                largada.await();
+                return servicoService.reservarServico(servico, usuario);
+            }));
+        }
+        largada.countDown();
+        for (Future<?> reserva : reservas) {
+            reserva.get();
+        }
+        executor.shutdown();
+
+        PainelEmpresaDTO painel = empresaService.painel(empresa.getId(), null, null);
+        assertEquals(new PainelEmpresaDTO.Categoria("Cabelo", 24, 24, new BigDecimal("960.00"), 720), categoria(painel, "Cabelo"));
+        assertEquals(24, painel.getDias().get(0).reservas());
+        assertFalse(reconciliacao.reconciliar(empresa.getId()));
+    }
+
+    @Test
+    void reconciliacaoCorrigeEscritasForaDoPainel() {
+        Empresa empresa = empresa("Divergente");
+        cadastrar(empresa, "Cabelo", 30, "40.00");
+        // Gravado direto no repositório, sem passar pelo ServicoService
+        servicoRepository.save(new Servico("Avulso", "Estética", "Limpeza", 50, new BigDecimal("80.00"), empresa));
+        assertEquals(1, empresaService.painel(empresa.getId(), null, null).getServicos());
+
+        long antes = reconciliacao.divergencias();
+        assertTrue(reconciliacao.reconciliarTodas() >= 1);
+        assertTrue(reconciliacao.divergencias() > antes);
+
+        PainelEmpresaDTO painel = empresaService.painel(empresa.getId(), null, null);
+        assertEquals(2, painel.getServicos());
+        assertEquals(1, categoria(painel, "Estética").servicos());
+        assertFalse(reconciliacao.reconciliar(empresa.getId()));
+    }
+}
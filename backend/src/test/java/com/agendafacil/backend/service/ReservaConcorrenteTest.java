@@ -0,0 +1,110 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+@SpringBootTest
+class ReservaConcorrenteTest {
+    private static final Logger log = LoggerFactory.getLogger(ReservaConcorrenteTest.class);
+
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void cadaServicoTemExatamenteUmVencedor() throws Exception {
+        Empresa empresa = empresaRepository.save(new Empresa("Concorrencia", "Concorrencia LTDA", "11111111000111",
+            "concorrencia@ltda.com", "3500000000", "senha"));
+        List<Long> servicos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Servico servico = new Servico("Corte " + i, "Cabelo", "Corte simples", 30, new BigDecimal("40.00"), empresa);
+            servicos.add(servicoRepository.save(servico).getId());
+        }
+        List<Long> usuarios = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            usuarios.add(userRepository.save(new User("Cliente " + i, "cliente" + i + "@concorrencia.com", "", "senha")).getId());
+        }
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        Map<Long, Long> vencedores = new ConcurrentHashMap<>();
+        AtomicInteger vitorias = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        AtomicInteger outrosErros = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            Long userId = usuarios.get(t % usuarios.size());
+            List<Long> ordem = new ArrayList<>(servicos);
+            Collections.shuffle(ordem);
+            executor.submit(() -> {
+                largada.await();
+                for (Long servicoId : ordem) {
+                    try {
+                        servicoService.reservarServico(servicoId, userId);
+                        vitorias.incrementAndGet();
+                        vencedores.merge(servicoId, userId, (a, b) -> -1L);
+                    } catch (ResponseStatusException e) {
+                        if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                            conflitos.incrementAndGet();
+                        } else {
+                            outrosErros.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int tentativas = threads * servicos.size();
+        log.info("{} tentativas de reserva em {} s ({} reservas/s), {} vencedores, {} conflitos",
+            tentativas, String.format("%.3f", segundos), String.format("%.0f", tentativas / segundos),
+            vitorias.get(), conflitos.get());
+
+        assertEquals(0, outrosErros.get());
+        assertEquals(servicos.size(), vitorias.get());
+        assertEquals(tentativas - servicos.size(), conflitos.get());
+        for (Long servicoId : servicos) {
+            Servico servico = servicoRepository.findById(servicoId).orElseThrow();
+            assertTrue(servico.isAgendado());
+            assertEquals(vencedores.get(servicoId), servico.getUsuarioAgendado().getId());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.DTO.ItemReservaLoteDTO;
+import com.agendafacil.backend.DTO.ResultadoReservaLoteDTO;
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.ServicoRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+@SpringBootTest
+class ReservaLoteTest {
+    private static final Logger log = LoggerFactory.getLogger(ReservaLoteTest.class);
+
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private EmpresaService empresaService;
+    @Autowired
+    private ReconciliacaoPainel reconciliacao;
+    @Autowired
+    private ServicoRepository servicoRepository;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Empresa empresa() {
+        long n = System.nanoTime();
+        return empresaRepository.save(new Empresa("Lote", "Lote " + n + " LTDA", null, "lote" + n + "@ltda.com", "", "senha"));
+    }
+
+    private Long usuario() {
+        long n = System.nanoTime();
+        return userRepository.save(new User("Cliente " + n, "lote" + n + "@email.com", "", "senha")).getId();
+    }
+
+    private List<Long> cadastrar(Empresa empresa, int quantidade) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            ids.add(servicoService.cadastrar(new Servico("Serviço " + i, i % 2 == 0 ? "Cabelo" : "Unhas", "Descrição", 30,
+                new BigDecimal("50.00")), empresa.getId()).getId());
+        }
+        return ids;
+    }
+
+    private static List<String> situacoes(ResultadoReservaLoteDTO resultado) {
+        return resultado.getItens().stream().map(ItemReservaLoteDTO::getSituacao).toList();
+    }
+
+    @Test
+    void reservaTudoOuNada() {
+        Empresa empresa = empresa();
+        List<Long> servicos = cadastrar(empresa, 4);
+        Long cliente = usuario();
+        servicoService.reservarServico(servicos.get(1), usuario());
+
+        ResultadoReservaLoteDTO recusado = servicoService.reservarLote(List.of(servicos.get(2), servicos.get(1), servicos.get(0), -1L), cliente);
+        assertFalse(recusado.isReservado());
+        assertEquals(List.of(ItemReservaLoteDTO.LIVRE, ItemReservaLoteDTO.INDISPONIVEL, ItemReservaLoteDTO.LIVRE,
+            ItemReservaLoteDTO.NAO_ENCONTRADO), situacoes(recusado));
+        assertFalse(servicoRepository.findById(servicos.get(0)).orElseThrow().isAgendado());
+        assertNull(servicoRepository.findById(servicos.get(2)).orElseThrow().getUsuarioAgendado());
+
+        List<Long> carrinho = List.of(servicos.get(3), servicos.get(0), servicos.get(2));
+        ResultadoReservaLoteDTO reservado = servicoService.reservarLote(carrinho, cliente);
+        assertTrue(reservado.isReservado());
+        assertEquals(carrinho, reservado.getItens().stream().map(ItemReservaLoteDTO::getServicoId).toList());
+        assertEquals(List.of(ItemReservaLoteDTO.RESERVADO, ItemReservaLoteDTO.RESERVADO, ItemReservaLoteDTO.RESERVADO), situacoes(reservado));
+        for (Servico servico : servicoRepository.findAllById(carrinho)) {
+            assertEquals(cliente, servico.getUsuarioAgendado().getId());
+        }
+        assertEquals(4, empresaService.painel(empresa.getId(), null, null).getReservas());
+        assertFalse(reconciliacao.reconciliar(empresa.getId()));
+    }
+
+    @Test
+    void loteInvalidoERecusado() {
+        Long servico = cadastrar(empresa(), 1).get(0);
+        Long cliente = usuario();
+        for (List<Long> lote : List.of(List.<Long>of(), List.of(servico, servico),
+                Collections.nCopies(ServicoService.LIMITE_RESERVA_LOTE + 1, servico))) {
+            ResponseStatusException erro = assertThrows(ResponseStatusException.class, () -> servicoService.reservarLote(lote, cliente));
+            assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
+        }
+        assertFalse(servicoRepository.findById(servico).orElseThrow().isAgendado());
+    }
+
+    @Test
+    void carrinhosSobrepostosNaoTravamEReservamTudoOuNada() throws Exception {
+        Empresa empresa = empresa();
+        List<Long> servicos = cadastrar(empresa, 30);
+        int clientes = 16;
+        Random aleatorio = new Random(42);
+        // Carrinhos de 2 a 5 serviços sorteados entre os mesmos 30, cada um em ordem embaralhada
+        Map<Long, List<Long>> carrinhos = new ConcurrentHashMap<>();
+        for (int i = 0; i < clientes; i++) {
+            List<Long> embaralhados = new ArrayList<>(servicos);
+            Collections.shuffle(embaralhados, aleatorio);
+            carrinhos.put(usuario(), embaralhados.subList(0, 2 + aleatorio.nextInt(4)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        CountDownLatch largada = new CountDownLatch(1);
+        Map<Long, Future<ResultadoReservaLoteDTO>> resultados = new ConcurrentHashMap<>();
+        carrinhos.forEach((cliente, carrinho) -> resultados.put(cliente, executor.submit(() -> {
+            largada.await();
+            return servicoService.reservarLote(carrinho, cliente);
+        })));
+        largada.countDown();
+
+        Set<Long> vencedores = new HashSet<>();
+        Set<Long> reservadosPelosVencedores = new HashSet<>();
+        for (Map.Entry<Long, Future<ResultadoReservaLoteDTO>> resultado : resultados.entrySet()) {
+            // Deadlock ou timeout de lock apareceriam aqui como exceção
+            ResultadoReservaLoteDTO lote = resultado.getValue().get();
+            if (lote.isReservado()) {
+                vencedores.add(resultado.getKey());
+                for (Long servico : carrinhos.get(resultado.getKey())) {
+                    assertTrue(reservadosPelosVencedores.add(servico), "serviço em dois carrinhos vencedores");
+                }
+            } else {
+                assertTrue(situacoes(lote).contains(ItemReservaLoteDTO.INDISPONIVEL));
+            }
+        }
+        executor.shutdown();
+        log.info("{} carrinhos sobrepostos, {} reservados inteiros", clientes, vencedores.size());
+
+        assertFalse(vencedores.isEmpty());
+        for (Servico servico : servicoRepository.findAllById(servicos)) {
+            if (reservadosPelosVencedores.contains(servico.getId())) {
+                Long dono = servico.getUsuarioAgendado().getId();
+                assertTrue(vencedores.contains(dono));
+                assertTrue(carrinhos.get(dono).contains(servico.getId()));
+            } else {
+                assertFalse(servico.isAgendado(), "reserva parcial de um carrinho recusado");
+            }
+        }
+        assertEquals(reservadosPelosVencedores.size(), empresaService.painel(empresa.getId(), null, null).getReservas());
+        assertFalse(reconciliacao.reconciliar(empresa.getId()));
+    }
+}
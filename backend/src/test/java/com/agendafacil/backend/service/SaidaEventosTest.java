@@ -0,0 +1,186 @@
+package com.agendafacil.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.agendafacil.backend.model.Empresa;
+import com.agendafacil.backend.model.EventoSaida;
+import com.agendafacil.backend.model.Servico;
+import com.agendafacil.backend.model.User;
+import com.agendafacil.backend.repository.EmpresaRepository;
+import com.agendafacil.backend.repository.EventoSaidaRepository;
+import com.agendafacil.backend.repository.UserRepository;
+
+// O despacho automático fica desligado nos testes (config/application.properties):
+// cada teste chama despachar() quando quer
+@SpringBootTest(properties = {
+    "eventos.saida.destino=teste",
+    "eventos.saida.lote=20",
+    "eventos.saida.tentativas-maximas=3",
+    "eventos.saida.espera-inicial=1h",
+    "eventos.saida.espera-maxima=2h"
+})
+class SaidaEventosTest {
+
+    static class DestinoTeste implements DestinoEventos {
+        final Queue<EventoSaida> recebidos = new ConcurrentLinkedQueue<>();
+        final Set<Long> recusados = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public void enviar(EventoSaida evento) throws IOException {
+            if (recusados.contains(evento.getAgregadoId())) {
+                throw new IOException("destino fora do ar");
+            }
+            recebidos.add(evento);
+        }
+
+        List<EventoSaida> de(Long agregadoId) {
+            return recebidos.stream().filter(e -> e.getAgregadoId().equals(agregadoId)).toList();
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        DestinoTeste destinoTeste() {
+            return new DestinoTeste();
+        }
+    }
+
+    @Autowired
+    private DestinoTeste destino;
+    @Autowired
+    private DespachanteEventos despachante;
+    @Autowired
+    private EventoSaidaRepository eventoSaidaRepository;
+    @Autowired
+    private ServicoService servicoService;
+    @Autowired
+    private EmpresaRepository empresaRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<EventoSaida> naTabela(Long agregadoId) {
+        return eventoSaidaRepository.findAll().stream().filter(e -> e.getAgregadoId().equals(agregadoId)).toList();
+    }
+
+    @Test
+    void soEscritaConfirmadaGeraEvento() {
+        long n = System.nanoTime();
+        Empresa empresa = empresaRepository.save(new Empresa("Outbox", "Outbox " + n + " LTDA", null,
+            "outbox" + n + "@ltda.com", "", "senha"));
+        Empresa outra = empresaRepository.save(new Empresa("Outra", "Outra " + n + " LTDA", null,
+            "outra" + n + "@ltda.com", "", "senha"));
+        User primeiro = userRepository.save(new User("Primeiro " + n, "primeiro" + n + "@email.com", "", "senha"));
+        User segundo = userRepository.save(new User("Segundo " + n, "segundo" + n + "@email.com", "", "senha"));
+        Long servicoId = servicoService.cadastrar(new Servico("Corte", "Cabelo", "Corte simples", 30,
+            new BigDecimal("40.00")), empresa.getId()).getId();
+
+        servicoService.reservarServico(servicoId, primeiro.getId());
+        ResponseStatusException conflito = assertThrows(ResponseStatusException.class,
+            () -> servicoService.reservarServico(servicoId, segundo.getId()));
+        assertEquals(HttpStatus.CONFLICT, conflito.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> servicoService.deletar(servicoId, outra.getId()));
+
+        assertEquals(List.of(EventoSaida.SERVICO_CRIADO, EventoSaida.SERVICO_RESERVADO),
+            naTabela(servicoId).stream().map(EventoSaida::getTipo).toList());
+
+        despachante.despachar();
+        List<EventoSaida> entregues = destino.de(servicoId);
+        assertEquals(2, entregues.size());
+        assertEquals(empresa.getId(), entregues.get(1).getEmpresaId());
+        assertTrue(entregues.get(1).getPayload().contains("\"usuarioId\":" + primeiro.getId()));
+        assertTrue(naTabela(servicoId).isEmpty());
+
+        servicoService.deletar(servicoId, empresa.getId());
+        despachante.despachar();
+        assertEquals(EventoSaida.SERVICO_REMOVIDO, destino.de(servicoId).get(2).getTipo());
+    }
+
+    @Test
+    void falhaVoltaMaisTardeEParaDepoisDasTentativas() {
+        long agregadoId = -System.nanoTime();
+        eventoSaidaRepository.save(new EventoSaida(EventoSaida.SERVICO_CRIADO, agregadoId, null, "{}", LocalDateTime.now()));
+        destino.recusados.add(agregadoId);
+
+        LocalDateTime antes = LocalDateTime.now();
+        despachante.despachar();
+        EventoSaida evento = naTabela(agregadoId).get(0);
+        assertEquals(1, evento.getTentativas());
+        assertTrue(evento.getUltimoErro().contains("destino fora do ar"));
+        // espera-inicial de 1 h: só volta depois disso
+        assertTrue(evento.getProximaTentativa().isAfter(antes.plusMinutes(59)));
+        despachante.despachar();
+        assertEquals(1, naTabela(agregadoId).get(0).getTentativas());
+
+        for (int tentativa = 2; tentativa <= 3; tentativa++) {
+            evento = naTabela(agregadoId).get(0);
+            evento.setProximaTentativa(LocalDateTime.now().minusSeconds(1));
+            eventoSaidaRepository.save(evento);
+            despachante.despachar();
+        }
+        evento = naTabela(agregadoId).get(0);
+        assertEquals(3, evento.getTentativas());
+        assertNull(evento.getProximaTentativa());
+        assertTrue(despachante.estatisticas().parados() >= 1);
+        assertTrue(destino.de(agregadoId).isEmpty());
+    }
+
+    @Test
+    void despachantesConcorrentesEntregamCadaEventoUmaVez() throws Exception {
+        long base = -System.nanoTime() * 1000;
+        List<EventoSaida> eventos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            eventos.add(new EventoSaida(EventoSaida.AGENDAMENTO_CRIADO, base - i, null, "{}", LocalDateTime.now()));
+        }
+        Set<Long> ids = eventoSaidaRepository.saveAll(eventos).stream().map(EventoSaida::getId).collect(Collectors.toSet());
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> rodadas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            rodadas.add(executor.submit(() -> {
+                largada.await();
+                return despachante.despachar();
+            }));
+        }
+        largada.countDown();
+        for (Future<Integer> rodada : rodadas) {
+            rodada.get();
+        }
+        executor.shutdown();
+
+        Map<Long, Long> entregas = destino.recebidos.stream().filter(e -> ids.contains(e.getId()))
+            .collect(Collectors.groupingBy(EventoSaida::getId, Collectors.counting()));
+        assertEquals(ids, entregas.keySet());
+        assertTrue(entregas.values().stream().allMatch(vezes -> vezes == 1), "evento entregue mais de uma vez");
+        assertTrue(eventoSaidaRepository.findAllById(ids).isEmpty());
+    }
+}
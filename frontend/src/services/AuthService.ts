@@ -21,15 +21,22 @@ export interface EmpresaRegisterRequest {
   senha: string;
 }
 
-export interface User {
+// Campos de sessão que vêm junto no login
+export interface Sessao {
+  papel?: string;
+  token?: string;
+  refreshToken?: string;
+  expiraEm?: number;
+}
+
+export interface User extends Sessao {
   id: number;
   nome_completo: string;
   email: string;
   telefone: string;
-  senha: string;
 }
 
-export interface Empresa {
+export interface Empresa extends Sessao {
   id: number;
   nome: string;
   razao_social: string;
@@ -109,6 +116,14 @@ class AuthService {
     });
   }
 
+  // troca o refreshToken por um par novo quando o token de acesso vence
+  async renovar(refreshToken: string): Promise<ApiResponse<Sessao>> {
+    return this.request<Sessao>('/auth/refresh', {
+      method: 'POST',
+      body: JSON.stringify({ refreshToken }),
+    });
+  }
+
   // faz login da empresa com os dados
   async loginEmpresa(credentials: LoginRequest): Promise<ApiResponse<Empresa>> {
   return this.request<Empresa>('/empresas/login', {
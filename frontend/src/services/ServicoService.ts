@@ -1,3 +1,5 @@
+import { authService } from './AuthService';
+
 const API_BASE_URL = import.meta.env.VITE_API_URL ?? '/api';
 
 export interface ServicoDTO {
@@ -24,19 +26,55 @@ export interface ApiResponse<T> {
   message?: string;
 }
 
+// Sessão salva no login (useAuth guarda a resposta inteira em 'user')
+function sessaoSalva(): Record<string, unknown> | null {
+  try {
+    return JSON.parse(localStorage.getItem('user') || 'null');
+  } catch {
+    return null;
+  }
+}
+
+function authHeader(): Record<string, string> {
+  const token = sessaoSalva()?.token;
+  return token ? { Authorization: `Bearer ${token}` } : {};
+}
+
+// Token de acesso vencido: pede um par novo com o refreshToken e guarda na sessão salva
+async function renovarSessao(): Promise<boolean> {
+  const sessao = sessaoSalva();
+  const refreshToken = sessao?.refreshToken;
+  if (typeof refreshToken !== 'string') {
+    return false;
+  }
+  const { data } = await authService.renovar(refreshToken);
+  if (!data?.token) {
+    return false;
+  }
+  localStorage.setItem('user', JSON.stringify({ ...sessao, ...data }));
+  return true;
+}
+
 class ServicoService {
+  // Só as rotas protegidas (autenticado = true) levam o token; o catálogo é público
   private async request<T>(
     endpoint: string,
-    options: RequestInit = {}
+    options: RequestInit = {},
+    autenticado = false
   ): Promise<ApiResponse<T>> {
     try {
-      const response = await fetch(`${API_BASE_URL}${endpoint}`, {
+      const enviar = () => fetch(`${API_BASE_URL}${endpoint}`, {
+        ...options,
         headers: {
           'Content-Type': 'application/json',
+          ...(autenticado ? authHeader() : {}),
           ...options.headers,
         },
-        ...options,
       });
+      let response = await enviar();
+      if (response.status === 401 && autenticado && await renovarSessao()) {
+        response = await enviar();
+      }
 
       if (!response.ok) {
         const errorData = await response.json().catch(() => ({}));
@@ -56,7 +94,7 @@ class ServicoService {
     return this.request<Servico>('/servicos/cadastrar', {
       method: 'POST',
       body: JSON.stringify(servico),
-    });
+    }, true);
   }
 
   async cadastrarMultiplos(servicos: ServicoDTO[]): Promise<ApiResponse<Servico[]>> {
@@ -89,7 +127,7 @@ class ServicoService {
   async deletar(id: number): Promise<ApiResponse<void>> {
     return this.request<void>(`/servicos/${id}`, {
       method: 'DELETE',
-    });
+    }, true);
   }
 }
 